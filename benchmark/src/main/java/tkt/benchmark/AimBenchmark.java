@@ -0,0 +1,94 @@
+package tkt.benchmark;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import tkt.RedShiftController;
+import tkt.util.MathUtility;
+import tkt.util.VelocityWindowSelector;
+import tkt.util.VirtualGunArray;
+import tkt.util.WaveManager;
+
+/**
+ * Benchmarks the aim computation which RedShift performs for every scan in a 1-vs-1 battle:
+ * scoring the velocity windows, advancing the waves, and updating every virtual gun. The scans
+ * are synthetic scans of a target which orbits the shooter and reverses direction periodically.
+ *
+ * RedShift itself cannot run outside of a battle, so this drives the same objects with the same
+ * parameters as RedShift.onScannedRobot and RedShift.setAimAndFire.
+ *
+ * @author Todd Taomae
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class AimBenchmark {
+  /** Number of synthetic scans; a power of two so the index can be masked. */
+  private static final int NUM_SCANS = 1024;
+  private static final double MY_X = 400.0;
+  private static final double MY_Y = 300.0;
+  private static final double DISTANCE = 250.0;
+
+  private final double[] targetX = new double[NUM_SCANS];
+  private final double[] targetY = new double[NUM_SCANS];
+  private final double[] heading = new double[NUM_SCANS];
+  private final double[] velocity = new double[NUM_SCANS];
+
+  private VelocityWindowSelector velocities;
+  private WaveManager waves;
+  private VirtualGunArray guns;
+  private long time;
+
+  /**
+   * Creates the synthetic scans and the objects used to aim.
+   */
+  @Setup
+  public void setup() {
+    double angle = 0.0;
+    double v = 8.0;
+    for (int i = 0; i < NUM_SCANS; i++) {
+      // reverse direction every 32 ticks
+      if (i % 32 == 0) {
+        v = -v;
+      }
+      angle += v / DISTANCE;
+      this.targetX[i] = MY_X + Math.sin(angle) * DISTANCE;
+      this.targetY[i] = MY_Y + Math.cos(angle) * DISTANCE;
+      this.heading[i] = angle + Math.PI / 2;
+      this.velocity[i] = v;
+    }
+
+    this.velocities = RedShiftController.newVelocities();
+    this.waves = new WaveManager(RedShiftController.MAX_WAVES);
+    this.guns = RedShiftController.newVirtualGuns();
+    this.guns.setBattleField(800.0, 600.0);
+  }
+
+  /**
+   * Benchmarks the aim computation for one scan.
+   * @return the firing angle
+   */
+  @Benchmark
+  public double aim() {
+    int i = (int)(this.time & (NUM_SCANS - 1));
+    double x = this.targetX[i];
+    double y = this.targetY[i];
+    double distance = MathUtility.getDistance(MY_X, MY_Y, x, y);
+    double bulletVelocity = 20.0 - 3.0 * RedShiftController.getBulletPower(distance);
+    double headingChange = i == 0 ? 0.0 : this.heading[i] - this.heading[i - 1];
+
+    this.waves.update(this.time, MY_X, MY_Y, x, y);
+    this.velocities.addScan(this.time, x, y, this.heading[i], this.velocity[i],
+        distance / bulletVelocity);
+    this.guns.update(this.time, this.waves, MY_X, MY_Y, x, y, this.heading[i], headingChange,
+        this.velocity[i], this.velocities.getAverage(this.velocities.getBestWindow()),
+        bulletVelocity);
+    this.time++;
+    return this.guns.getFiringAngle();
+  }
+}
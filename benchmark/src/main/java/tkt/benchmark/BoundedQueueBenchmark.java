@@ -0,0 +1,72 @@
+package tkt.benchmark;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import tkt.util.BoundedQueue;
+
+/**
+ * Benchmarks adding to and iterating over a BoundedQueue of velocities, at window sizes from 1
+ * to 100.
+ *
+ * @author Todd Taomae
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class BoundedQueueBenchmark {
+  @Param({"1", "10", "50", "100"})
+  private int size;
+
+  private BoundedQueue<Double> queue;
+  private double velocity;
+
+  /**
+   * Creates a full queue of the benchmarked size.
+   */
+  @Setup
+  public void setup() {
+    this.queue = new BoundedQueue<Double>(this.size);
+    for (int i = 0; i < this.size; i++) {
+      this.queue.add(this.nextVelocity());
+    }
+  }
+
+  /**
+   * Returns the next velocity, which goes from -8 to 8 and back.
+   * @return the next velocity
+   */
+  private double nextVelocity() {
+    this.velocity = this.velocity >= 8.0 ? -8.0 : this.velocity + 1.0;
+    return this.velocity;
+  }
+
+  /**
+   * Benchmarks the BoundedQueue add method.
+   * @return the queue
+   */
+  @Benchmark
+  public BoundedQueue<Double> add() {
+    this.queue.add(this.nextVelocity());
+    return this.queue;
+  }
+
+  /**
+   * Benchmarks iterating over every element of a BoundedQueue.
+   * @return the sum of the elements
+   */
+  @Benchmark
+  public double iterate() {
+    double sum = 0.0;
+    for (Double d : this.queue) {
+      sum += d;
+    }
+    return sum;
+  }
+}
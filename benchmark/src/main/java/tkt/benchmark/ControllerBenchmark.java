@@ -0,0 +1,128 @@
+package tkt.benchmark;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import tkt.RedShiftController;
+import tkt.RobotControl;
+import tkt.util.RobotInfo;
+
+/**
+ * Benchmarks every decision which RedShift makes for a scan in a 1-vs-1 battle: updating the
+ * waves and velocities, turning, aiming, and firing. The scans are synthetic scans of a target
+ * which orbits the robot and reverses direction periodically, and the robot is a RobotControl
+ * which stands still and ignores its commands.
+ *
+ * @author Todd Taomae
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ControllerBenchmark {
+  /** Number of synthetic scans; a power of two so the index can be masked. */
+  private static final int NUM_SCANS = 1024;
+  private static final double MY_X = 400.0;
+  private static final double MY_Y = 300.0;
+  private static final double DISTANCE = 250.0;
+
+  private final double[] bearing = new double[NUM_SCANS];
+  private final double[] heading = new double[NUM_SCANS];
+  private final double[] velocity = new double[NUM_SCANS];
+
+  private RedShiftController controller;
+  private RobotInfo target;
+  private long time;
+
+  /**
+   * Creates the synthetic scans and the controller.
+   */
+  @Setup
+  public void setup() {
+    double angle = 0.0;
+    double v = 8.0;
+    for (int i = 0; i < NUM_SCANS; i++) {
+      // reverse direction every 32 ticks
+      if (i % 32 == 0) {
+        v = -v;
+      }
+      angle += v / DISTANCE;
+      this.bearing[i] = angle;
+      this.heading[i] = angle + Math.PI / 2;
+      this.velocity[i] = v;
+    }
+
+    this.controller = new RedShiftController(new StillRobot(), false,
+        RedShiftController.newVelocities(), RedShiftController.newVirtualGuns(), 800.0, 600.0);
+    this.target = new RobotInfo("target");
+  }
+
+  /**
+   * Benchmarks the decisions for one scan.
+   * @return the direction to move
+   */
+  @Benchmark
+  public int scan() {
+    int i = (int)(this.time & (NUM_SCANS - 1));
+    double previousX = this.target.getX();
+    double previousY = this.target.getY();
+    this.target.updateInfo(MY_X, MY_Y, 0.0, this.time, 100.0, this.bearing[i], DISTANCE,
+        this.heading[i], this.velocity[i]);
+    if (this.time > 0) {
+      this.controller.updateWaves(this.target, this.time, previousX, previousY);
+    }
+    this.controller.onScan(this.target, this.time, DISTANCE);
+    this.time++;
+    return this.controller.getDirection();
+  }
+
+  /**
+   * A robot which stands still in the middle of the battlefield and ignores its commands.
+   */
+  private static class StillRobot implements RobotControl {
+    @Override
+    public double getX() {
+      return MY_X;
+    }
+
+    @Override
+    public double getY() {
+      return MY_Y;
+    }
+
+    @Override
+    public double getHeadingRadians() {
+      return 0.0;
+    }
+
+    @Override
+    public double getGunHeadingRadians() {
+      return 0.0;
+    }
+
+    @Override
+    public double getGunHeat() {
+      return 0.0;
+    }
+
+    @Override
+    public void setTurnRightRadians(double radians) {
+    }
+
+    @Override
+    public void setTurnGunRightRadians(double radians) {
+    }
+
+    @Override
+    public void setAhead(double distance) {
+    }
+
+    @Override
+    public void setFire(double power) {
+    }
+  }
+}
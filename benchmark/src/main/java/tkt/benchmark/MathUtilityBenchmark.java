@@ -0,0 +1,115 @@
+package tkt.benchmark;
+
+import java.awt.geom.Point2D;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import tkt.util.FastTrig;
+import tkt.util.MathUtility;
+
+/**
+ * Benchmarks the MathUtility class. Each invocation uses the next of a fixed set of random
+ * coordinates, so that the results cannot be constant folded.
+ *
+ * @author Todd Taomae
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class MathUtilityBenchmark {
+  /** Number of random coordinates; a power of two so the index can be masked. */
+  private static final int NUM_POINTS = 1024;
+
+  private final double[] x1 = new double[NUM_POINTS];
+  private final double[] y1 = new double[NUM_POINTS];
+  private final double[] x2 = new double[NUM_POINTS];
+  private final double[] y2 = new double[NUM_POINTS];
+  private int index;
+
+  /**
+   * Generates the random coordinates.
+   */
+  @Setup
+  public void setup() {
+    Random rng = new Random(0);
+    for (int i = 0; i < NUM_POINTS; i++) {
+      this.x1[i] = rng.nextDouble() * 800.0;
+      this.y1[i] = rng.nextDouble() * 600.0;
+      this.x2[i] = rng.nextDouble() * 800.0;
+      this.y2[i] = rng.nextDouble() * 600.0;
+    }
+  }
+
+  /**
+   * Returns the index of the next coordinates.
+   * @return the index of the next coordinates
+   */
+  private int next() {
+    this.index = (this.index + 1) & (NUM_POINTS - 1);
+    return this.index;
+  }
+
+  /**
+   * Benchmarks the getDirectionRadians method.
+   * @return the direction
+   */
+  @Benchmark
+  public double getDirectionRadians() {
+    int i = this.next();
+    return MathUtility.getDirectionRadians(this.x1[i], this.y1[i], this.x2[i], this.y2[i]);
+  }
+
+  /**
+   * Benchmarks the getFastDirectionRadians method.
+   * @return the direction
+   */
+  @Benchmark
+  public double getFastDirectionRadians() {
+    int i = this.next();
+    return MathUtility.getFastDirectionRadians(this.x1[i], this.y1[i], this.x2[i], this.y2[i]);
+  }
+
+  /**
+   * Benchmarks Math.sin.
+   * @return the sine
+   */
+  @Benchmark
+  public double mathSin() {
+    return Math.sin(this.x1[this.next()]);
+  }
+
+  /**
+   * Benchmarks the FastTrig.sin method.
+   * @return the sine
+   */
+  @Benchmark
+  public double fastTrigSin() {
+    return FastTrig.sin(this.x1[this.next()]);
+  }
+
+  /**
+   * Benchmarks the getDistance method.
+   * @return the distance
+   */
+  @Benchmark
+  public double getDistance() {
+    int i = this.next();
+    return MathUtility.getDistance(this.x1[i], this.y1[i], this.x2[i], this.y2[i]);
+  }
+
+  /**
+   * Benchmarks the getTargetPoint method.
+   * @return the target point
+   */
+  @Benchmark
+  public Point2D.Double getTargetPoint() {
+    int i = this.next();
+    return MathUtility.getTargetPoint(this.x1[i], this.y1[i], this.x2[i], this.y2[i]);
+  }
+}
@@ -0,0 +1,106 @@
+package tkt.benchmark;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import robocode.AdvancedRobot;
+import robocode.ScannedRobotEvent;
+import tkt.util.RobotInfo;
+
+/**
+ * Benchmarks the RobotInfo updateInfo method with synthetic scans of a target orbiting the
+ * scanning robot.
+ *
+ * @author Todd Taomae
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class RobotInfoBenchmark {
+  /** Number of synthetic scans; a power of two so the index can be masked. */
+  private static final int NUM_SCANS = 1024;
+  private static final String NAME = "target";
+
+  private final ScannedRobotEvent[] scans = new ScannedRobotEvent[NUM_SCANS];
+  private final BenchmarkRobot robot = new BenchmarkRobot(400.0, 300.0, 0.0);
+  private RobotInfo info;
+  private int index;
+
+  /**
+   * Creates the synthetic scans and the RobotInfo which is updated.
+   */
+  @Setup
+  public void setup() {
+    for (int i = 0; i < NUM_SCANS; i++) {
+      // the event takes its bearing and heading in radians
+      double bearing = i * 2.0 * Math.PI / NUM_SCANS - Math.PI;
+      double energy = 100.0 - (i % 16 == 0 ? 2.0 : 0.0);
+      this.scans[i] = new ScannedRobotEvent(NAME, energy, bearing, 200.0, bearing + Math.PI / 2,
+          8.0);
+    }
+    this.info = new RobotInfo(this.robot, this.scans[0]);
+  }
+
+  /**
+   * Benchmarks the updateInfo method.
+   * @return the updated RobotInfo
+   */
+  @Benchmark
+  public RobotInfo updateInfo() {
+    this.index = (this.index + 1) & (NUM_SCANS - 1);
+    this.info.updateInfo(this.robot, this.scans[this.index]);
+    return this.info;
+  }
+
+  /**
+   * Benchmarks the updateInfo method which takes the position and heading of the scanning robot.
+   * @return the updated RobotInfo
+   */
+  @Benchmark
+  public RobotInfo updateInfoPrimitive() {
+    this.index = (this.index + 1) & (NUM_SCANS - 1);
+    this.info.updateInfo(400.0, 300.0, 0.0, this.scans[this.index]);
+    return this.info;
+  }
+
+  /**
+   * A robot with a fixed position and heading, which can be used outside of a battle.
+   */
+  static class BenchmarkRobot extends AdvancedRobot {
+    private final double x;
+    private final double y;
+    private final double heading;
+
+    /**
+     * Constructs a new BenchmarkRobot.
+     * @param x x-coordinate of the robot
+     * @param y y-coordinate of the robot
+     * @param heading heading of the robot in degrees
+     */
+    BenchmarkRobot(double x, double y, double heading) {
+      this.x = x;
+      this.y = y;
+      this.heading = heading;
+    }
+
+    @Override
+    public double getX() {
+      return this.x;
+    }
+
+    @Override
+    public double getY() {
+      return this.y;
+    }
+
+    @Override
+    public double getHeading() {
+      return this.heading;
+    }
+  }
+}
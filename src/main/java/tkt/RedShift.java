@@ -2,10 +2,14 @@ package tkt;
 
 import java.awt.Color;
 import java.awt.Graphics2D;
-import java.awt.geom.Point2D;
-import java.util.HashMap;
-import java.util.Map;
-import java.util.Random;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
 import robocode.AdvancedRobot;
 import robocode.BulletHitBulletEvent;
 import robocode.BulletHitEvent;
@@ -13,55 +17,106 @@ import robocode.BulletMissedEvent;
 import robocode.HitByBulletEvent;
 import robocode.HitRobotEvent;
 import robocode.HitWallEvent;
+import robocode.RobocodeFileOutputStream;
+import robocode.RobotDeathEvent;
 import robocode.RoundEndedEvent;
 import robocode.ScannedRobotEvent;
-import tkt.util.AdvancedRobotUtility;
-import tkt.util.BoundedQueue;
-import tkt.util.MathUtility;
+import robocode.SkippedTurnEvent;
+import tkt.util.EnemyRegistry;
+import tkt.util.LatencyProfiler;
+import tkt.util.OpponentProfile;
+import tkt.util.ProfileCache;
 import tkt.util.RobotInfo;
+import tkt.util.UcbBandit;
+import tkt.util.VelocityWindowSelector;
+import tkt.util.VirtualGunArray;
 
 /**
- * AdvancedRobot that circles and tracks the enemy.
+ * AdvancedRobot that circles and tracks the enemy. How it moves and aims is decided by a
+ * RedShiftController; this robot keeps track of the enemies and what is learned about them, and
+ * passes each scan to the controller.
  *
  * @author Todd Taomae
  */
-public class RedShift extends AdvancedRobot {
+public class RedShift extends AdvancedRobot implements RobotControl {
   /** Print debug information if this value is true. */
   private static final boolean DEBUG = false;
-  /** Preferred distance from the enemy. */
-  private static final double PREFERRED_DISTANCE = 200.0;
-  /** Plus/minus distance from the preferred distance. */
-  private static final double DISTANCE_BUFFER = 50.0;
-  /** Maximum distance from the enemy where you will still fire. */
-  private static final double MAX_FIRING_DISTANCE = 400.0;
-  /** Number of velocities being tracked. */
-  private static int NUM_VELOCITIES = 1;
+  /** Record the latency of event handlers and print a summary if this value is true. */
+  private static final boolean PROFILE = false;
+  /** Names of the sections whose latency is recorded. */
+  private static final String[] PROFILE_SECTIONS =
+      {"onScannedRobot", "move (1v1)", "move (melee)", "setAimAndFire"};
+  /** Index of the onScannedRobot section. */
+  private static final int PROFILE_SCAN = 0;
+  /** Index of the section which circles the enemy: setTurn and setAhead. */
+  private static final int PROFILE_MOVE = 1;
+  /** Index of the section which moves in a melee battle: setMinimumRiskMove. */
+  private static final int PROFILE_MELEE_MOVE = 2;
+  /** Index of the setAimAndFire section. */
+  private static final int PROFILE_AIM = 3;
+  /** Number of buckets in each latency histogram. */
+  private static final int PROFILE_BUCKETS = 500;
+  /** Width of each bucket in a latency histogram, in nanoseconds. */
+  private static final long PROFILE_BUCKET_WIDTH = 1000;
+  /**
+   * Number of velocities used until enough predictions have been scored in this battle. This is
+   * the best number of velocities from the previous battle against the same enemy.
+   */
+  private static int NUM_VELOCITIES = RedShiftController.DEFAULT_NUM_VELOCITIES;
   /** True if this battle is a melee battle (more than two robots). */
   private static boolean IS_MELEE = false;
-  /** Maps the number of velocities tracked to an accuracy. */
-  private static Map<Integer, Double> accuracies = new HashMap<Integer, Double>();
-  /** The best enemy accuracy with dodging. */
-  private static double enemyAccuracyWithDodge = 0.0;
-  /** The best enemy accuracy without dodging. */
-  private static double enemyAccuracyWithoutDodge = 0.0;
-
-  /** Defines the direction to move. 1 is forward, -1 is backward */
-  private int direction = 1;
+  /** Arm of the dodge bandit which does not dodge. */
+  private static final int NO_DODGE = 0;
+  /** Arm of the dodge bandit which dodges. */
+  private static final int DODGE = 1;
+  /** Exploration constant of the dodge bandit. */
+  private static final double DODGE_EXPLORATION = Math.sqrt(2.0);
+  /** Number of enemy shots which the enemy accuracies from a previous battle count as. */
+  private static final int PROFILE_SHOTS = 10;
+  /**
+   * Chooses whether or not to dodge in each round. The reward of each enemy shot is 1 if it
+   * missed, so the bandit learns which choice the enemy hits least often.
+   */
+  private static UcbBandit dodgeBandit = new UcbBandit(2, DODGE_EXPLORATION);
+  /**
+   * Evaluates the weighted average of the most recent velocities of the scanned robot. The hits
+   * of each number of velocities are kept across rounds.
+   */
+  private static VelocityWindowSelector velocities = RedShiftController.newVelocities();
+  /** Name of the data file containing the profiles of every enemy. */
+  private static final String PROFILE_FILE = "profiles.dat";
+  /**
+   * System property which keeps the profiles from being read from or written to the data file
+   * if it is "false". The battle tests set it so that battles running at the same time do not
+   * share a data file.
+   */
+  private static final String PROFILE_FILE_PROPERTY = "tkt.redshift.profiles";
+  /** Parameters learned about the enemy in previous battles; null until the enemy is scanned. */
+  private static OpponentProfile opponentProfile = null;
+  /** Name under which the profile of the enemy is kept. */
+  private static String opponentName = null;
+  /** Profiles of every enemy fought in previous battles. */
+  private static ProfileCache profileCache = null;
+  /**
+   * Virtual guns used against the enemy, whose guess factor statistics, situations, and scores
+   * are kept across rounds.
+   */
+  private static VirtualGunArray virtualGuns = RedShiftController.newVirtualGuns();
+
   /** Information about your target. */
   private RobotInfo targetInfo = null;
-  /** Most recent history of velocities of the scanned robot. */
-  private BoundedQueue<Double> velocities = new BoundedQueue<Double>(NUM_VELOCITIES);
+  /** Information about every enemy, created at the start of each round. */
+  private EnemyRegistry enemies = null;
   /** Number of bullets that hit an enemy. */
   private int hits = 0;
   /** Number of bullets that missed an enemy. */
   private int misses = 0;
-  /** True if you want to change directions each time the enemy fires. */
-  private boolean dodge = false;
-  /** Random number generator. */
-  private Random rng = new Random();
+  /** Decides how to move and aim; created at the start of each round. */
+  private RedShiftController controller = null;
 
-  /** Helper for this robot. */
-  private AdvancedRobotUtility roboUtil = new AdvancedRobotUtility(this);
+  /** Records the latency of event handlers if profiling is enabled. */
+  private LatencyProfiler profiler = RedShift.PROFILE
+      ? new LatencyProfiler(PROFILE_SECTIONS, PROFILE_BUCKETS, PROFILE_BUCKET_WIDTH) : null;
 
   /**
    * On the first round, check if this is a melee battle. Sets up the necessary information
@@ -81,56 +136,29 @@ public class RedShift extends AdvancedRobot {
     if (this.getRoundNum() == 0) {
       RedShift.setMelee(this.getOthers() > 1);
     }
+    this.enemies = new EnemyRegistry(Math.max(1, this.getOthers()));
+    this.controller = new RedShiftController(this, RedShift.IS_MELEE, RedShift.velocities,
+        RedShift.virtualGuns, getBattleFieldWidth(), getBattleFieldHeight());
+    this.controller.setDefaultNumVelocities(RedShift.NUM_VELOCITIES);
 
-    // determine how many velocities to keep track of and whether or not to dodge
+    // determine whether or not to dodge
     // if it is a melee battle
     if (RedShift.IS_MELEE) {
       if (RedShift.DEBUG) {
         out.println("is melee");
       }
-      // do not keep track of multiple velocities because you cannot guarantee that you will
-      // always scan the same robot.
-      RedShift.setNumVelocities(1);
     }
 
     // if it is 1-vs-1
     else {
-      // on the first round
-      if (this.getRoundNum() == 0) {
-        // track 1 velocity
-        RedShift.setNumVelocities(1);
-        // don't dodge
-        this.dodge = false;
-      }
-      // on the second round
-      else if (this.getRoundNum() == 1) {
-        // track 50 velocities
-        RedShift.setNumVelocities(50);
-        // dodge
-        this.dodge = true;
-      }
-      else {
-        // dodge if it is the better option
-        this.dodge = RedShift.enemyAccuracyWithDodge < RedShift.enemyAccuracyWithoutDodge;
-
-        // on even numbered rounds
-        if (this.getRoundNum() % 2 == 0) {
-          // try to find the best number of velocities to track, which will be between 1 and 100
-          RedShift.setNumVelocities(RedShift.getBestNumVelocities());
-        }
-        // on odd numbered rounds
-        else {
-          // select a random number close to the best option
-          int num = RedShift.getBestNumVelocities() + (this.rng.nextInt(21) - 10);
-          RedShift.setNumVelocities(Math.max(1, num));
-
-        }
-      }
+      // try not dodging, then dodging, then whichever the enemy seems to hit least
+      this.controller.setDodge(RedShift.dodgeBandit.select() == DODGE);
+      RedShift.velocities.startRound();
+      RedShift.virtualGuns.startRound();
 
       if (RedShift.DEBUG) {
-        out.printf("velocities tracked: %d%n", NUM_VELOCITIES);
+        out.printf("initial velocities tracked: %d%n", this.controller.getBestNumVelocities());
       }
-      this.velocities = new BoundedQueue<Double>(NUM_VELOCITIES);
     }
 
     setTurnRadarRightRadians(Double.POSITIVE_INFINITY);
@@ -144,148 +172,199 @@ public class RedShift extends AdvancedRobot {
    */
   @Override
   public void onScannedRobot(ScannedRobotEvent event) {
+    // the clock is only read when profiling
+    long scanStart = RedShift.PROFILE ? System.nanoTime() : 0;
+
     // infinity lock
     // if you scan a robot, spin radar in opposite direction
     this.setTurnRadarLeftRadians(getRadarTurnRemainingRadians());
 
-    // if it is a melee battle always assume it is a new robot
-    if (RedShift.IS_MELEE || this.targetInfo == null) {
-      this.targetInfo = new RobotInfo(this, event);
+    // every enemy keeps its own information, even in a melee battle
+    RobotInfo info = this.enemies.get(event.getName());
+    if (info == null) {
+      this.targetInfo = this.enemies.update(getX(), getY(), getHeadingRadians(), event);
     }
     else {
-      this.targetInfo.updateInfo(this, event);
+      double previousX = info.getX();
+      double previousY = info.getY();
+      info.updateInfo(getX(), getY(), getHeadingRadians(), event);
+      this.targetInfo = info;
+
+      // waves are only tracked in a 1-vs-1 battle
+      this.controller.updateWaves(info, event.getTime(), previousX, previousY);
     }
 
-    this.velocities.add(event.getVelocity());
+    // the enemy is not known until it is scanned
+    if (!RedShift.IS_MELEE && RedShift.opponentProfile == null) {
+      this.loadProfile(event.getName());
+    }
 
-    setTurn(event);
-    setAimAndFire(event);
+    // velocities are only tracked in a 1-vs-1 battle
+    this.controller.addScan(this.targetInfo, event.getTime(), event.getDistance());
 
-    setAhead(this.direction * 100.0);
+    long moveStart = RedShift.PROFILE ? System.nanoTime() : 0;
+    if (RedShift.IS_MELEE) {
+      // stay away from every enemy instead of circling the one which was scanned
+      this.controller.setMinimumRiskMove(this.enemies);
+    }
+    else {
+      this.controller.setTurn(this.targetInfo, event.getDistance());
+      this.controller.setAhead();
+    }
+    long aimStart = RedShift.PROFILE ? System.nanoTime() : 0;
+    this.controller.setAimAndFire(this.targetInfo, event.getTime(), event.getDistance());
+    long aimEnd = RedShift.PROFILE ? System.nanoTime() : 0;
+
+    if (RedShift.PROFILE) {
+      this.profiler.add(RedShift.IS_MELEE ? PROFILE_MELEE_MOVE : PROFILE_MOVE,
+          aimStart - moveStart);
+      this.profiler.add(PROFILE_AIM, aimEnd - aimStart);
+      this.profiler.record(PROFILE_SCAN, scanStart);
+    }
   }
 
   /**
-   * Turns perpendicular to the scanned robot. Tries to move to a certain distance away.
+   * Reads the profiles from the data directory and finds the profile of the enemy. If the enemy
+   * has been fought in a previous battle, the number of velocities, the enemy accuracies, and
+   * whether or not to dodge are taken from the profile.
    *
-   * @param event ScannedRobotEvent
+   * @param name name of the enemy
    */
-  private void setTurn(ScannedRobotEvent event) {
-    // if it is a 1-v-1 and the target just fired
-    if (!RedShift.IS_MELEE && this.targetInfo.justFired()) {
-      if (RedShift.DEBUG) {
-        out.println("enemy fired");
+  private void loadProfile(String name) {
+    RedShift.opponentName = OpponentProfile.getOpponentName(name);
+
+    // the profiles may use the space they already take plus whatever is still available
+    File file = getDataFile(PROFILE_FILE);
+    long quota = Math.max(ProfileCache.HEADER_SIZE, getDataQuotaAvailable() + file.length());
+    RedShift.profileCache = new ProfileCache(quota);
+
+    if (RedShift.isProfileFileUsed() && file.length() >= ProfileCache.HEADER_SIZE) {
+      DataInputStream in = null;
+      try {
+        in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+        RedShift.profileCache = ProfileCache.read(in, quota);
+      }
+      catch (IOException e) {
+        // start over if the profiles are unreadable or were written in an older format
+        if (RedShift.DEBUG) {
+          out.println("could not read profiles: " + e.getMessage());
+        }
       }
-      if (this.dodge) {
-        this.direction *= -1;
+      finally {
+        closeQuietly(in);
       }
     }
 
-    // perpendicular to target
-    double turnHeading = this.targetInfo.getAbsoluteBearing() + (Math.PI / 2);
-
-    // if you are too far from scanned robot
-    if (event.getDistance() > PREFERRED_DISTANCE + DISTANCE_BUFFER) {
-      // turn toward the scanned robot
-      turnHeading -= this.direction * (Math.PI / 8);
+    RedShift.opponentProfile = RedShift.profileCache.get(RedShift.opponentName);
+    if (RedShift.opponentProfile == null) {
+      RedShift.opponentProfile = new OpponentProfile();
     }
-    // if you are too close to scanned robot
-    else if (event.getDistance() < PREFERRED_DISTANCE - DISTANCE_BUFFER) {
-      // turn away from the scanned robot
-      turnHeading += this.direction * (Math.PI / 8);
+
+    if (RedShift.hasPreviousBattles()) {
+      OpponentProfile profile = RedShift.opponentProfile;
+      RedShift.setNumVelocities(profile.getNumVelocities());
+      this.controller.setDefaultNumVelocities(profile.getNumVelocities());
+      RedShift.seedDodgeArm(NO_DODGE, profile.getAccuracyWithoutDodge());
+      RedShift.seedDodgeArm(DODGE, profile.getAccuracyWithDodge());
+      this.controller.setDodge(RedShift.dodgeBandit.select() == DODGE);
     }
+  }
 
-    roboUtil.setTurnToHeadingRadians(turnHeading);
+  /**
+   * Seeds an arm of the dodge bandit with the enemy accuracy from a previous battle, counted as a
+   * few shots. An accuracy which is not between 0 and 1, such as one written by an older version,
+   * is ignored.
+   * @param arm arm of the dodge bandit
+   * @param accuracy accuracy of the enemy in previous battles
+   */
+  private static void seedDodgeArm(int arm, double accuracy) {
+    if (accuracy >= 0.0 && accuracy <= 1.0) {
+      RedShift.dodgeBandit.update(arm, (1.0 - accuracy) * PROFILE_SHOTS, PROFILE_SHOTS);
+    }
   }
 
   /**
-   * Uses linear targeting to track the scanned robot.
-   *
-   * @param event ScannedRobotEvent
+   * Adds the profile of the enemy to the profiles, then writes the profiles to the data
+   * directory unless the profile file is not used.
    */
-  private void setAimAndFire(ScannedRobotEvent event) {
-    // choose bullet power
-    double bulletPower = 3.0 - (event.getDistance() / 150);
-    double bulletVelocity = 20.0 - (3 * bulletPower);
-
-    double myX = getX();
-    double myY = getY();
-
-    // get enemy information
-    //  _____E
-    // |    /
-    // |   /
-    // |  /
-    // |a/
-    // |/
-    // R
-    // R is this Robot; E is the enemy; a is absolute bearing.
-    double enemyHeading = event.getHeadingRadians();
-    double enemyVelocity = this.getAverageEnemyVelocity();
-
-    double predictedX = this.targetInfo.getX();
-    double predictedY = this.targetInfo.getY();
-
-    //
-    //  _____F
-    // |    /
-    // |   /
-    // |  / h
-    // |a/
-    // |/
-    // E
-    // E is the enemy; F is the final destination; a is absolute bearing; h is hypotenuse
-    // hypotenuse is given by distance = velocity*time
-
-    // the amount that the enemy moves during each time step
-    double enemyDeltaX = Math.sin(enemyHeading) * enemyVelocity;
-    double enemyDeltaY = Math.cos(enemyHeading) * enemyVelocity;
-
-    // distance the bullet travels before reaching target
-    double bulletTravelDistance = 0.0;
-
-    // simulate robot movement; each iteration is one tick
-    do {
-      // update the predicted position of the enemy
-      predictedX += enemyDeltaX;
-      predictedY += enemyDeltaY;
-
-      // update the position of the bullet
-      bulletTravelDistance += bulletVelocity;
-
-      // while bullet has not reached predicted location
-    } while (bulletTravelDistance < Point2D.Double.distance(myX, myY, predictedX, predictedY));
-
-
-    double gunHeading = MathUtility.getDirectionRadians(myX, myY, predictedX, predictedY);
-    roboUtil.setTurnGunToHeadingRadians(gunHeading);
-
-    // if it is a melee battle, always fire
-    // otherwise only fire if you are within the max firing distance
-    if (RedShift.IS_MELEE || event.getDistance() <= MAX_FIRING_DISTANCE) {
-      setFire(bulletPower);
+  private void saveProfile() {
+    OpponentProfile profile = RedShift.opponentProfile;
+    profile.setNumBattles(profile.getNumBattles() + 1);
+    profile.setNumVelocities(this.controller.getBestNumVelocities());
+    // an arm which was never tried keeps the accuracy from the previous battle
+    if (RedShift.dodgeBandit.getTrials(DODGE) > 0) {
+      profile.setAccuracyWithDodge(1.0 - RedShift.dodgeBandit.getMean(DODGE));
+    }
+    if (RedShift.dodgeBandit.getTrials(NO_DODGE) > 0) {
+      profile.setAccuracyWithoutDodge(1.0 - RedShift.dodgeBandit.getMean(NO_DODGE));
+    }
+    RedShift.profileCache.put(RedShift.opponentName, profile);
+    if (!RedShift.isProfileFileUsed()) {
+      return;
+    }
+
+    DataOutputStream dataOut = null;
+    try {
+      dataOut = new DataOutputStream(new BufferedOutputStream(
+          new RobocodeFileOutputStream(getDataFile(PROFILE_FILE))));
+      RedShift.profileCache.write(dataOut);
+    }
+    catch (IOException e) {
+      if (RedShift.DEBUG) {
+        out.println("could not write profiles: " + e.getMessage());
+      }
+    }
+    finally {
+      closeQuietly(dataOut);
     }
   }
 
   /**
-   * Returns the weighted moving average velocity of the scanned robot.
-   * @return the weighted moving average velocity of the scanned robot
+   * Returns whether or not the profiles are read from and written to the data file.
+   * @return false if the profile file property is "false", true otherwise
    */
-  public double getAverageEnemyVelocity() {
-    double result = 0.0;
+  private static boolean isProfileFileUsed() {
+    try {
+      return !"false".equals(System.getProperty(PROFILE_FILE_PROPERTY));
+    }
+    catch (SecurityException e) {
+      // the property cannot be read, so it cannot have been set
+      return true;
+    }
+  }
 
-    // weight equal to the number of elements
-    int weight = this.velocities.size();
-    int totalWeight = 0;
-    for (double v : this.velocities) {
-      result += weight * v;
-      // decrease weights for older elements
-      totalWeight += weight--;
+  /**
+   * Closes a stream, ignoring any exception.
+   * @param stream stream to close; may be null
+   */
+  private static void closeQuietly(Closeable stream) {
+    if (stream == null) {
+      return;
+    }
+    try {
+      stream.close();
     }
+    catch (IOException e) {
+      // nothing else can be done
+    }
+  }
 
-    // divide by the sum of weights which is a triangle number
-    result /= (double)totalWeight;
+  /**
+   * Returns whether or not the enemy has been fought in a previous battle.
+   * @return true if the profile of the enemy is from a previous battle
+   */
+  private static boolean hasPreviousBattles() {
+    return RedShift.opponentProfile != null && RedShift.opponentProfile.getNumBattles() > 0;
+  }
 
-    return result;
+  /**
+   * Returns the weighted moving average velocity of the scanned robot. The number of velocities
+   * averaged is the number which has most often predicted the position of the scanned robot in
+   * this battle.
+   * @return the weighted moving average velocity of the scanned robot
+   */
+  public double getAverageEnemyVelocity() {
+    return this.controller.getAverageEnemyVelocity(this.targetInfo);
   }
 
   /**
@@ -296,7 +375,7 @@ public class RedShift extends AdvancedRobot {
   @Override
   public void onHitWall(HitWallEvent event) {
 //    out.println("hit wall");
-    this.direction *= -1;
+    this.controller.reverseDirection();
   }
 
   /**
@@ -307,13 +386,24 @@ public class RedShift extends AdvancedRobot {
   @Override
   public void onHitRobot(HitRobotEvent event) {
 //    out.println("hit robot");
-    this.direction *= -1;
+    this.controller.reverseDirection();
+  }
+
+  /**
+   * Forgets an enemy which has died, so that it is no longer avoided.
+   *
+   * @param event RobotDeathEvent
+   */
+  @Override
+  public void onRobotDeath(RobotDeathEvent event) {
+    this.enemies.remove(event.getName());
   }
 
   @Override
   public void onHitByBullet(HitByBulletEvent event) {
-    if (!RedShift.IS_MELEE && this.targetInfo != null) {
-      this.targetInfo.addShotHit();
+    RobotInfo shooter = this.enemies.get(event.getName());
+    if (shooter != null) {
+      shooter.addShotHit();
     }
   }
 
@@ -332,20 +422,43 @@ public class RedShift extends AdvancedRobot {
     this.misses++;
   }
 
+  /**
+   * Records the skipped turn if profiling is enabled.
+   *
+   * @param event SkippedTurnEvent
+   */
+  @Override
+  public void onSkippedTurn(SkippedTurnEvent event) {
+    if (RedShift.PROFILE) {
+      this.profiler.addSkippedTurn();
+    }
+  }
+
   @Override
   public void onRoundEnded(RoundEndedEvent event) {
+    if (RedShift.PROFILE) {
+      this.profiler.printSummary(out);
+    }
 
     if (RedShift.DEBUG) {
       out.printf("my accuracy:              %f%n", this.getAccuracy());
       out.printf("estimated enemy accuracy: %f%n", this.targetInfo.getAccuracy());
+      for (int gun = 0; gun < VirtualGunArray.NUM_GUNS; gun++) {
+        out.printf("virtual gun %d score:      %f%n", gun, RedShift.virtualGuns.getScore(gun));
+      }
     }
-    RedShift.addAccuracy(NUM_VELOCITIES, this.getAccuracy());
-
-    if (this.dodge) {
-      RedShift.setEnemyAccuracyWithDodge(this.targetInfo.getAccuracy());
+    // every shot the enemy fired this round is a trial of whether or not to dodge
+    if (!RedShift.IS_MELEE && this.targetInfo != null) {
+      int shotsHit = this.targetInfo.getShotsHit();
+      int shots = this.targetInfo.getShotsFired() + shotsHit;
+      int arm = this.controller.isDodging() ? DODGE : NO_DODGE;
+      RedShift.dodgeBandit.update(arm, shots - shotsHit, shots);
     }
-    else {
-      RedShift.setEnemyAccuracyWithoutDodge(this.targetInfo.getAccuracy());
+
+    // keep what was learned for the next battle against the same enemy
+    if (!RedShift.IS_MELEE && RedShift.opponentProfile != null
+        && this.getRoundNum() == this.getNumRounds() - 1) {
+      this.saveProfile();
     }
   }
 
@@ -370,13 +483,13 @@ public class RedShift extends AdvancedRobot {
     if (RedShift.DEBUG) {
       // draw preferred distance
       drawCircle(this.targetInfo.getX(), this.targetInfo.getY(),
-          PREFERRED_DISTANCE - DISTANCE_BUFFER, Color.BLUE, g);
+          RedShift.getPreferredDistance() - RedShift.getDistanceBuffer(), Color.BLUE, g);
       drawCircle(this.targetInfo.getX(), this.targetInfo.getY(),
-          PREFERRED_DISTANCE + DISTANCE_BUFFER, Color.BLUE, g);
+          RedShift.getPreferredDistance() + RedShift.getDistanceBuffer(), Color.BLUE, g);
 
       // draw max firing distance
       drawCircle(this.targetInfo.getX(), this.targetInfo.getY(),
-          MAX_FIRING_DISTANCE, Color.RED, g);
+          RedShift.getMaxFiringDistance(), Color.RED, g);
     }
   }
 
@@ -413,47 +526,13 @@ public class RedShift extends AdvancedRobot {
   private static void setNumVelocities(int n) {
     RedShift.NUM_VELOCITIES = n;
   }
-  /**
-   * Adds a new (# velocities, accuracy) pair to the map of accuracies.
-   * If the key already exists, only add the new value if it is worse than the existing value.
-   * This will ensure that you only keep track of the worst performance.
-   * @param num number of velocities used
-   * @param acc accuracy
-   */
-  private static void addAccuracy(int num, double acc) {
-    // if the key is not in the map
-    // or if the key existing value is greater than the new value
-    if (!RedShift.accuracies.containsKey(num) || RedShift.accuracies.get(num) > acc) {
-      RedShift.accuracies.put(num, acc);
-    }
-  }
-
-  /**
-   * Returns the best number of velocities to keep track of.
-   * @return the best number of velocities to keep track of.
-   */
-  private static int getBestNumVelocities() {
-    // get weighted average of all past # velocities
-    // the weight is equal to the accuracy
-    double result = 0;
-    double totalWeight = Double.MIN_VALUE;  // use small value to prevent divide by zero
-    // iterate through each entry
-    for (Map.Entry<Integer, Double> entry : RedShift.accuracies.entrySet()) {
-      double weight = entry.getValue() * entry.getValue();
-      result += weight * (double)entry.getKey();
-      totalWeight += weight;
-    }
-
-    result /= totalWeight;
-    return Math.max(1, (int)result);
-  }
 
   /**
    * Returns the distance that this robot tries to stay from the target robot.
    * @return the distance that this robot tries to stay from the target robot
    */
   public static double getPreferredDistance() {
-    return PREFERRED_DISTANCE;
+    return RedShiftController.PREFERRED_DISTANCE;
   }
 
   /**
@@ -461,7 +540,7 @@ public class RedShift extends AdvancedRobot {
    * @return the acceptable deviation from the preferred distance
    */
   public static double getDistanceBuffer() {
-    return DISTANCE_BUFFER;
+    return RedShiftController.DISTANCE_BUFFER;
   }
 
   /**
@@ -469,24 +548,6 @@ public class RedShift extends AdvancedRobot {
    * @return the maximum firing distance
    */
   public static double getMaxFiringDistance() {
-    return MAX_FIRING_DISTANCE;
-  }
-
-  /**
-   * Sets the value of enemyAccuracyWithDodge to the maximum of the current value and the
-   * specified new accuracy.
-   * @param accuracy new accuracy
-   */
-  public static void setEnemyAccuracyWithDodge(double accuracy) {
-    RedShift.enemyAccuracyWithDodge = Math.max(RedShift.enemyAccuracyWithDodge, accuracy);
-  }
-
-  /**
-   * Sets the value of enemyAccuracyWithoutDodge to the maximum of the current value and the
-   * specified new accuracy.
-   * @param accuracy new accuracy
-   */
-  public static void setEnemyAccuracyWithoutDodge(double accuracy) {
-    RedShift.enemyAccuracyWithoutDodge = Math.max(RedShift.enemyAccuracyWithoutDodge, accuracy);
+    return RedShiftController.MAX_FIRING_DISTANCE;
   }
 }
\ No newline at end of file
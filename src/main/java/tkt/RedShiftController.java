@@ -0,0 +1,443 @@
+package tkt;
+
+import robocode.util.Utils;
+import tkt.util.DynamicClusteringGun;
+import tkt.util.EnemyRegistry;
+import tkt.util.GuessFactorStats;
+import tkt.util.KdTree;
+import tkt.util.MathUtility;
+import tkt.util.MinimumRiskMovement;
+import tkt.util.RobotInfo;
+import tkt.util.TargetPredictor;
+import tkt.util.VelocityWindowSelector;
+import tkt.util.VirtualGunArray;
+import tkt.util.Wave;
+import tkt.util.WaveManager;
+
+/**
+ * Decides how RedShift moves and aims. The controller reads the state of the robot and sets its
+ * commands through a RobotControl, and is told about the target with a RobotInfo, so it does not
+ * depend on the robocode engine; RedShift only passes the events it receives to the controller.
+ * The same decisions can be made in a simulation or a benchmark, without a battle.
+ *
+ * In a 1-vs-1 battle, the robot circles the enemy at a preferred distance. In a melee battle, it
+ * moves to whichever nearby point is farthest from every enemy.
+ *
+ * A new controller is used for each round. The objects which learn about the enemy across rounds
+ * are passed to the constructor, and are created with newVelocities and newVirtualGuns so that
+ * RedShift, the gun evaluator, and the benchmarks all use the same parameters.
+ *
+ * @author Todd Taomae
+ */
+public class RedShiftController {
+  /** Preferred distance from the enemy. */
+  public static final double PREFERRED_DISTANCE = 200.0;
+  /** Plus/minus distance from the preferred distance. */
+  public static final double DISTANCE_BUFFER = 50.0;
+  /** Maximum distance from the enemy where you will still fire. */
+  public static final double MAX_FIRING_DISTANCE = 400.0;
+  /** Distance moved ahead on each scan, in the current direction. */
+  private static final double MOVE_DISTANCE = 100.0;
+  /** Minimum change in heading per tick, in radians, for the enemy to be considered turning. */
+  private static final double MIN_HEADING_CHANGE = 0.001;
+  /** Maximum number of own and enemy waves in the air at once. */
+  public static final int MAX_WAVES = 160;
+  /** Fraction of the guess factor statistics which decays with each new observation. */
+  public static final double GUESS_FACTOR_DECAY = 0.05;
+  /** Maximum number of situations of the enemy which are remembered. */
+  public static final int MAX_SITUATIONS = 30000;
+  /** Number of similar situations used to aim. */
+  public static final int NUM_NEIGHBORS = 25;
+  /** Weight of each new virtual bullet in the score of a virtual gun. */
+  public static final double VIRTUAL_GUN_DECAY = 0.02;
+  /** Maximum number of velocities being tracked. */
+  public static final int MAX_VELOCITIES = 100;
+  /** Number of velocities used against an enemy which has not been fought before. */
+  public static final int DEFAULT_NUM_VELOCITIES = 1;
+  /** Number of scored predictions needed before the best number of velocities is used. */
+  private static final int MIN_SCORED_PREDICTIONS = 20;
+  /** Number of candidate destinations evaluated on each scan in a melee battle. */
+  private static final int NUM_RISK_CANDIDATES = 16;
+
+  private final RobotControl robot;
+  private final boolean melee;
+  /** Evaluates the weighted average of the most recent velocities of the enemy. */
+  private final VelocityWindowSelector velocities;
+  /** Virtual guns used against the enemy. */
+  private final VirtualGunArray virtualGuns;
+  /** Predicts the position of the enemy. */
+  private final TargetPredictor predictor = new TargetPredictor();
+  /** Waves fired by this robot and by the enemy. */
+  private final WaveManager waves = new WaveManager(MAX_WAVES);
+  private final double battleFieldWidth;
+  private final double battleFieldHeight;
+  /** Chooses where to move in a melee battle; created on the first melee move. */
+  private MinimumRiskMovement riskMovement = null;
+
+  /** Defines the direction to move. 1 is forward, -1 is backward */
+  private int direction = 1;
+  /** True if you want to change directions each time the enemy fires. */
+  private boolean dodge = false;
+  /** Number of velocities used until enough predictions have been scored. */
+  private int defaultNumVelocities = DEFAULT_NUM_VELOCITIES;
+
+  /**
+   * Constructs a new RedShiftController.
+   * @param robot robot which is controlled
+   * @param melee true if the battle has more than two robots
+   * @param velocities velocities of the enemy, which are only used in a 1-vs-1 battle
+   * @param virtualGuns virtual guns, which are only used in a 1-vs-1 battle
+   * @param battleFieldWidth width of the battlefield
+   * @param battleFieldHeight height of the battlefield
+   */
+  public RedShiftController(RobotControl robot, boolean melee, VelocityWindowSelector velocities,
+      VirtualGunArray virtualGuns, double battleFieldWidth, double battleFieldHeight) {
+    this.robot = robot;
+    this.melee = melee;
+    this.velocities = velocities;
+    this.virtualGuns = virtualGuns;
+    this.battleFieldWidth = battleFieldWidth;
+    this.battleFieldHeight = battleFieldHeight;
+
+    // the battlefield does not change during a battle
+    this.predictor.setBattleField(battleFieldWidth, battleFieldHeight);
+    this.virtualGuns.setBattleField(battleFieldWidth, battleFieldHeight);
+  }
+
+  /**
+   * Returns a new VelocityWindowSelector which tracks as many velocities as RedShift.
+   * @return the new VelocityWindowSelector
+   */
+  public static VelocityWindowSelector newVelocities() {
+    return new VelocityWindowSelector(MAX_VELOCITIES);
+  }
+
+  /**
+   * Returns new virtual guns with the same parameters as RedShift's.
+   * @return the new virtual guns
+   */
+  public static VirtualGunArray newVirtualGuns() {
+    KdTree situations =
+        new KdTree(DynamicClusteringGun.NUM_FEATURES, MAX_SITUATIONS, NUM_NEIGHBORS);
+    return new VirtualGunArray(new GuessFactorStats(GUESS_FACTOR_DECAY), situations,
+        VIRTUAL_GUN_DECAY);
+  }
+
+  /**
+   * Moves and aims after the target has been scanned. This is the same as calling addScan,
+   * setTurn, setAimAndFire, and setAhead in order.
+   * @param target information about the target, which has been updated with the scan
+   * @param time time of the scan
+   * @param distance distance to the target
+   */
+  public void onScan(RobotInfo target, long time, double distance) {
+    this.addScan(target, time, distance);
+    this.setTurn(target, distance);
+    this.setAimAndFire(target, time, distance);
+    this.setAhead();
+  }
+
+  /**
+   * Advances every wave and, if the target just fired, adds an enemy wave. The enemy fired on the
+   * previous tick, from where it was when it was previously scanned. This is only called when the
+   * target has been scanned before, and does nothing in a melee battle.
+   *
+   * @param target information about the target, which has been updated with the scan
+   * @param time current time
+   * @param previousX x-coordinate of the target when it was previously scanned
+   * @param previousY y-coordinate of the target when it was previously scanned
+   */
+  public void updateWaves(RobotInfo target, long time, double previousX, double previousY) {
+    if (this.melee) {
+      return;
+    }
+    double myX = this.robot.getX();
+    double myY = this.robot.getY();
+    this.waves.update(time, myX, myY, target.getX(), target.getY());
+
+    if (target.justFired()) {
+      double bulletVelocity = 20.0 - (3 * target.getFirePower());
+      double bearing = MathUtility.getDirectionRadians(previousX, previousY, myX, myY);
+      this.waves.addEnemyWave(time - 1, previousX, previousY, bulletVelocity, bearing);
+    }
+  }
+
+  /**
+   * Adds the scan to the velocities of the target. This does nothing in a melee battle because
+   * you cannot guarantee that you will always scan the same robot.
+   * @param target information about the target, which has been updated with the scan
+   * @param time time of the scan
+   * @param distance distance to the target
+   */
+  public void addScan(RobotInfo target, long time, double distance) {
+    if (this.melee) {
+      return;
+    }
+    double bulletVelocity = 20.0 - (3 * RedShiftController.getBulletPower(distance));
+    this.velocities.addScan(time, target.getX(), target.getY(), target.getHeading(),
+        target.getVelocity(), distance / bulletVelocity);
+  }
+
+  /**
+   * Turns perpendicular to the target. Tries to move to a certain distance away.
+   *
+   * @param target information about the target
+   * @param distance distance to the target
+   */
+  public void setTurn(RobotInfo target, double distance) {
+    // if it is a 1-v-1 and the target just fired
+    if (!this.melee && target.justFired() && this.dodge) {
+      this.direction *= -1;
+    }
+
+    // perpendicular to target
+    double turnHeading = target.getAbsoluteBearing() + (Math.PI / 2);
+
+    // if you are too far from scanned robot
+    if (distance > PREFERRED_DISTANCE + DISTANCE_BUFFER) {
+      // turn toward the scanned robot
+      turnHeading -= this.direction * (Math.PI / 8);
+    }
+    // if you are too close to scanned robot
+    else if (distance < PREFERRED_DISTANCE - DISTANCE_BUFFER) {
+      // turn away from the scanned robot
+      turnHeading += this.direction * (Math.PI / 8);
+    }
+
+    this.robot.setTurnRightRadians(
+        Utils.normalRelativeAngle(turnHeading - this.robot.getHeadingRadians()));
+  }
+
+  /**
+   * Moves toward the candidate destination which is least at risk from every known enemy,
+   * driving backward if the destination is behind the robot. This replaces setTurn and setAhead
+   * in a melee battle, where circling one enemy exposes the robot to the others.
+   *
+   * @param enemies every known enemy
+   */
+  public void setMinimumRiskMove(EnemyRegistry enemies) {
+    if (this.riskMovement == null) {
+      this.riskMovement = new MinimumRiskMovement(NUM_RISK_CANDIDATES, enemies.capacity());
+      this.riskMovement.setBattleField(this.battleFieldWidth, this.battleFieldHeight);
+    }
+    this.riskMovement.clearEnemies();
+    for (int i = 0; i < enemies.size(); i++) {
+      RobotInfo enemy = enemies.get(i);
+      this.riskMovement.addEnemy(enemy.getX(), enemy.getY(), enemy.getEnergy());
+    }
+
+    double myX = this.robot.getX();
+    double myY = this.robot.getY();
+    this.riskMovement.update(myX, myY);
+    double destinationX = this.riskMovement.getDestinationX();
+    double destinationY = this.riskMovement.getDestinationY();
+
+    double turn = Utils.normalRelativeAngle(
+        MathUtility.getFastDirectionRadians(myX, myY, destinationX, destinationY)
+        - this.robot.getHeadingRadians());
+    double distance = MathUtility.getDistance(myX, myY, destinationX, destinationY);
+    // it is faster to back up than to turn around
+    if (Math.abs(turn) > Math.PI / 2) {
+      turn = Utils.normalRelativeAngle(turn + Math.PI);
+      distance = -distance;
+    }
+    this.robot.setTurnRightRadians(turn);
+    this.robot.setAhead(distance);
+  }
+
+  /**
+   * In a 1-vs-1 battle, aims with the virtual gun which would have hit the target most often.
+   * Otherwise, uses circular targeting to track the target if it is turning, and linear
+   * targeting if it is not.
+   *
+   * @param target information about the target
+   * @param time time of the scan
+   * @param distance distance to the target
+   */
+  public void setAimAndFire(RobotInfo target, long time, double distance) {
+    // choose bullet power
+    double bulletPower = RedShiftController.getBulletPower(distance);
+    double bulletVelocity = 20.0 - (3 * bulletPower);
+
+    double myX = this.robot.getX();
+    double myY = this.robot.getY();
+
+    Wave wave = null;
+    double headingChange = target.getHeadingChange();
+    if (!this.melee) {
+      wave = this.virtualGuns.update(time, this.waves, myX, myY, target.getX(), target.getY(),
+          target.getHeading(), headingChange, target.getVelocity(),
+          this.getAverageEnemyVelocity(target), bulletVelocity);
+      this.setTurnGunToHeading(this.virtualGuns.getFiringAngle());
+    }
+    else if (Math.abs(headingChange) > MIN_HEADING_CHANGE) {
+      // use the most recent velocity since the enemy is not moving in a straight line
+      this.predictor.predictCircular(myX, myY, target.getX(), target.getY(),
+          target.getHeading(), headingChange, target.getVelocity(), bulletVelocity);
+      this.setAim(myX, myY, this.predictor.getX(), this.predictor.getY());
+    }
+    else {
+      this.setLinearAim(target, myX, myY, bulletVelocity);
+    }
+
+    // if it is a melee battle, always fire
+    // otherwise only fire if you are within the max firing distance
+    if (this.melee || distance <= MAX_FIRING_DISTANCE) {
+      // a bullet is only fired if the gun has cooled down
+      if (wave != null) {
+        wave.setReal(this.robot.getGunHeat() == 0.0);
+      }
+      this.robot.setFire(bulletPower);
+    }
+  }
+
+  /**
+   * Moves ahead in the current direction.
+   */
+  public void setAhead() {
+    this.robot.setAhead(this.direction * MOVE_DISTANCE);
+  }
+
+  /**
+   * Uses linear targeting to aim at the target.
+   *
+   * @param target information about the target
+   * @param myX x-coordinate of this robot
+   * @param myY y-coordinate of this robot
+   * @param bulletVelocity velocity of the bullet
+   */
+  private void setLinearAim(RobotInfo target, double myX, double myY, double bulletVelocity) {
+    // get enemy information
+    //  _____E
+    // |    /
+    // |   /
+    // |  /
+    // |a/
+    // |/
+    // R
+    // R is this Robot; E is the enemy; a is absolute bearing.
+    double enemyHeading = target.getHeading();
+    double enemyVelocity = this.getAverageEnemyVelocity(target);
+
+    double enemyX = target.getX();
+    double enemyY = target.getY();
+
+    //
+    //  _____F
+    // |    /
+    // |   /
+    // |  / h
+    // |a/
+    // |/
+    // E
+    // E is the enemy; F is the final destination; a is absolute bearing; h is hypotenuse
+    // hypotenuse is given by distance = velocity*time
+    this.predictor.predictLinear(myX, myY, enemyX, enemyY, enemyHeading, enemyVelocity,
+        bulletVelocity);
+    this.setAim(myX, myY, this.predictor.getX(), this.predictor.getY());
+  }
+
+  /**
+   * Turns the gun to face the predicted location of the target.
+   *
+   * @param myX x-coordinate of this robot
+   * @param myY y-coordinate of this robot
+   * @param predictedX predicted x-coordinate of the target
+   * @param predictedY predicted y-coordinate of the target
+   */
+  private void setAim(double myX, double myY, double predictedX, double predictedY) {
+    double gunHeading = MathUtility.getFastDirectionRadians(myX, myY, predictedX, predictedY);
+    this.setTurnGunToHeading(gunHeading);
+  }
+
+  /**
+   * Turns the gun the shortest way to the specified heading.
+   * @param gunHeading heading in radians
+   */
+  private void setTurnGunToHeading(double gunHeading) {
+    this.robot.setTurnGunRightRadians(
+        Utils.normalRelativeAngle(gunHeading - this.robot.getGunHeadingRadians()));
+  }
+
+  /**
+   * Returns the bullet power to use against a robot at the specified distance.
+   * @param distance distance to the target
+   * @return the bullet power to use
+   */
+  public static double getBulletPower(double distance) {
+    return 3.0 - (distance / 150);
+  }
+
+  /**
+   * Returns the weighted moving average velocity of the target. In a 1-vs-1 battle, the number
+   * of velocities averaged is the number which has most often predicted the position of the
+   * target in this battle.
+   * @param target information about the target
+   * @return the weighted moving average velocity of the target
+   */
+  public double getAverageEnemyVelocity(RobotInfo target) {
+    if (this.melee) {
+      return target.getVelocity();
+    }
+    return this.velocities.getAverage(this.getBestNumVelocities());
+  }
+
+  /**
+   * Returns the number of velocities which has most often predicted the position of the enemy in
+   * this battle, or the default number until enough predictions have been scored.
+   * @return the best number of velocities
+   */
+  public int getBestNumVelocities() {
+    if (this.velocities.getNumScored() < MIN_SCORED_PREDICTIONS) {
+      return this.defaultNumVelocities;
+    }
+    return this.velocities.getBestWindow();
+  }
+
+  /**
+   * Sets the number of velocities used until enough predictions have been scored.
+   * @param numVelocities number of velocities
+   */
+  public void setDefaultNumVelocities(int numVelocities) {
+    this.defaultNumVelocities = numVelocities;
+  }
+
+  /**
+   * Sets whether or not to change directions each time the enemy fires.
+   * @param dodge true to dodge
+   */
+  public void setDodge(boolean dodge) {
+    this.dodge = dodge;
+  }
+
+  /**
+   * Returns whether or not this controller changes directions each time the enemy fires.
+   * @return true if this controller dodges
+   */
+  public boolean isDodging() {
+    return this.dodge;
+  }
+
+  /**
+   * Changes the direction to move, such as after hitting a wall or a robot.
+   */
+  public void reverseDirection() {
+    this.direction *= -1;
+  }
+
+  /**
+   * Returns the movement which chooses where to go in a melee battle.
+   * @return the minimum risk movement, or null if the robot has not moved in a melee battle
+   */
+  public MinimumRiskMovement getRiskMovement() {
+    return this.riskMovement;
+  }
+
+  /**
+   * Returns the direction to move.
+   * @return 1 if moving forward, -1 if moving backward
+   */
+  public int getDirection() {
+    return this.direction;
+  }
+}
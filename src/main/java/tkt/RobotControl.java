@@ -0,0 +1,66 @@
+package tkt;
+
+/**
+ * The state of a robot which a RedShiftController reads, and the commands which it sets. Every
+ * method has the same meaning as the AdvancedRobot method with the same name, so an
+ * AdvancedRobot only needs to declare that it implements this interface; a simulation can
+ * implement it without the robocode engine.
+ *
+ * @author Todd Taomae
+ */
+public interface RobotControl {
+  /**
+   * Returns the x-coordinate of the robot.
+   * @return the x-coordinate of the robot
+   */
+  double getX();
+
+  /**
+   * Returns the y-coordinate of the robot.
+   * @return the y-coordinate of the robot
+   */
+  double getY();
+
+  /**
+   * Returns the heading of the robot.
+   * @return the heading of the robot in radians
+   */
+  double getHeadingRadians();
+
+  /**
+   * Returns the heading of the gun.
+   * @return the heading of the gun in radians
+   */
+  double getGunHeadingRadians();
+
+  /**
+   * Returns the heat of the gun; a bullet can only be fired when it is 0.
+   * @return the heat of the gun
+   */
+  double getGunHeat();
+
+  /**
+   * Sets the robot to turn right by the specified angle when the next execution takes place.
+   * @param radians angle to turn in radians; negative to turn left
+   */
+  void setTurnRightRadians(double radians);
+
+  /**
+   * Sets the gun to turn right by the specified angle when the next execution takes place.
+   * @param radians angle to turn in radians; negative to turn left
+   */
+  void setTurnGunRightRadians(double radians);
+
+  /**
+   * Sets the robot to move ahead by the specified distance when the next execution takes place.
+   * @param distance distance to move; negative to move back
+   */
+  void setAhead(double distance);
+
+  /**
+   * Sets the gun to fire a bullet with the specified power when the next execution takes place,
+   * if the gun has cooled down.
+   * @param power power of the bullet
+   */
+  void setFire(double power);
+}
@@ -0,0 +1,184 @@
+package tkt.util;
+
+import robocode.util.Utils;
+
+/**
+ * A gun which aims at the guess factor where the target has most often been in the most similar
+ * situations. Each situation is described by a point of features: the distance to the target,
+ * its lateral and advancing velocity, its distance to the nearest wall, and the time since it
+ * last changed direction. When an own wave reaches the target, the features recorded in the wave
+ * are added to a KdTree with the guess factor of the target as the value.
+ *
+ * The features are scaled to be between 0 and 1, so that each has about the same influence on
+ * the distance between situations. Searching the KdTree and choosing the guess factor do not
+ * allocate memory.
+ *
+ * @author Todd Taomae
+ */
+public class DynamicClusteringGun {
+  /** Number of features describing a situation. */
+  public static final int NUM_FEATURES = 5;
+  /** Maximum velocity of a robot. */
+  private static final double MAX_VELOCITY = 8.0;
+  /** Distance to the target beyond which situations are not distinguished. */
+  private static final double MAX_DISTANCE = 1000.0;
+  /** Distance to a wall beyond which situations are not distinguished. */
+  private static final double MAX_WALL_DISTANCE = 500.0;
+  /** Time since a change in direction beyond which situations are not distinguished. */
+  private static final double MAX_DIRECTION_TIME = 100.0;
+
+  private final KdTree tree;
+  private final double[] features = new double[NUM_FEATURES];
+  /** Total weight of the neighbors in each guess factor bin. */
+  private final double[] bins = new double[GuessFactorStats.NUM_BINS];
+
+  private double width = Double.POSITIVE_INFINITY;
+  private double height = Double.POSITIVE_INFINITY;
+  /** Direction the target was last moving relative to the shooter; 1 is clockwise. */
+  private double direction = 1.0;
+  /** Time at which the target last changed direction. */
+  private long directionChangeTime = 0;
+  private double firingAngle;
+
+  /**
+   * Constructs a new DynamicClusteringGun which records situations in the specified KdTree and
+   * aims using as many neighbors as the tree can search for.
+   * @param tree tree of situations
+   * @throws IllegalArgumentException if the points of the tree do not have NUM_FEATURES
+   *     dimensions
+   */
+  public DynamicClusteringGun(KdTree tree) throws IllegalArgumentException {
+    if (tree.getDimensions() != NUM_FEATURES) {
+      throw new IllegalArgumentException("dimensions " + tree.getDimensions() + ": must be "
+          + NUM_FEATURES + ".");
+    }
+    this.tree = tree;
+  }
+
+  /**
+   * Sets the size of the battlefield used to find the distance from the target to a wall.
+   * @param width width of the battlefield
+   * @param height height of the battlefield
+   */
+  public void setBattleField(double width, double height) {
+    this.width = width;
+    this.height = height;
+  }
+
+  /**
+   * Starts a new round. The time restarts at 0 every round, so the time since the last direction
+   * change is counted from the start of the round; the situations in the tree are kept.
+   */
+  public void startRound() {
+    this.directionChangeTime = 0;
+  }
+
+  /**
+   * Updates the gun with a new scan of the target. The own waves which reached the target during
+   * the most recent update of the WaveManager are added to the tree, the features of the target
+   * are recorded in the new wave, and the firing angle is updated.
+   *
+   * @param time time of the scan
+   * @param waves waves fired by the shooter
+   * @param wave wave fired for this scan, or null if no wave was fired
+   * @param myX x-coordinate of the shooter
+   * @param myY y-coordinate of the shooter
+   * @param targetX x-coordinate of the target
+   * @param targetY y-coordinate of the target
+   * @param targetHeading heading of the target in radians
+   * @param targetVelocity velocity of the target
+   * @param bulletVelocity velocity of the bullet which would be fired
+   */
+  public void update(long time, WaveManager waves, Wave wave, double myX, double myY,
+      double targetX, double targetY, double targetHeading, double targetVelocity,
+      double bulletVelocity) {
+    for (int i = 0; i < waves.getNumBrokenOwnWaves(); i++) {
+      Wave broken = waves.getBrokenOwnWave(i);
+      this.tree.add(broken.getFeatures(),
+          GuessFactorGun.getGuessFactor(broken, broken.getBreakX(), broken.getBreakY()));
+    }
+
+    double bearing = MathUtility.getFastDirectionRadians(myX, myY, targetX, targetY);
+    double distance = MathUtility.getDistance(myX, myY, targetX, targetY);
+    double lateralVelocity = targetVelocity * FastTrig.sin(targetHeading - bearing);
+    double advancingVelocity = -targetVelocity * FastTrig.cos(targetHeading - bearing);
+
+    // keep the previous direction if the target is not moving laterally
+    double newDirection = this.direction;
+    if (lateralVelocity > 0.0) {
+      newDirection = 1.0;
+    }
+    else if (lateralVelocity < 0.0) {
+      newDirection = -1.0;
+    }
+    if (newDirection != this.direction) {
+      this.direction = newDirection;
+      this.directionChangeTime = time;
+    }
+
+    double wallDistance = Math.min(Math.min(targetX, this.width - targetX),
+        Math.min(targetY, this.height - targetY));
+    this.features[0] = Math.min(distance, MAX_DISTANCE) / MAX_DISTANCE;
+    this.features[1] = Math.abs(lateralVelocity) / MAX_VELOCITY;
+    this.features[2] = (advancingVelocity / MAX_VELOCITY + 1.0) / 2.0;
+    this.features[3] = Math.max(0.0, Math.min(wallDistance, MAX_WALL_DISTANCE))
+        / MAX_WALL_DISTANCE;
+    this.features[4] = Math.max(0, Math.min(time - this.directionChangeTime, MAX_DIRECTION_TIME))
+        / MAX_DIRECTION_TIME;
+
+    if (wave != null) {
+      System.arraycopy(this.features, 0, wave.getFeatures(), 0, NUM_FEATURES);
+    }
+
+    double guessFactor = this.getBestGuessFactor();
+    this.firingAngle = Utils.normalAbsoluteAngle(bearing
+        + this.direction * guessFactor * GuessFactorGun.getMaxEscapeAngle(bulletVelocity));
+  }
+
+  /**
+   * Returns the guess factor where the target has most often been in the most similar
+   * situations. Nearer situations have a larger weight. Returns 0 if there are no situations.
+   * @return the best guess factor
+   */
+  private double getBestGuessFactor() {
+    if (this.tree.size() == 0) {
+      return 0.0;
+    }
+    int numNeighbors = this.tree.search(this.features, this.tree.getMaxNeighbors());
+
+    for (int bin = 0; bin < this.bins.length; bin++) {
+      this.bins[bin] = 0.0;
+    }
+    for (int i = 0; i < numNeighbors; i++) {
+      double weight = 1.0 / (1.0 + Math.sqrt(this.tree.getNeighborDistance(i)));
+      this.bins[GuessFactorStats.getBin(this.tree.getNeighborValue(i))] += weight;
+    }
+
+    int best = 0;
+    for (int bin = 1; bin < this.bins.length; bin++) {
+      if (this.bins[bin] > this.bins[best]) {
+        best = bin;
+      }
+    }
+    return GuessFactorStats.getGuessFactor(best);
+  }
+
+  /**
+   * Returns the absolute angle in radians which the gun should face, as of the last update.
+   * @return the firing angle
+   */
+  public double getFiringAngle() {
+    return this.firingAngle;
+  }
+
+  /**
+   * Returns the features of the target as of the last update.
+   * @param index index of the feature
+   * @return the feature, between 0 and 1
+   * @throws IndexOutOfBoundsException if the index is out of range
+   *     (index < 0 || index >= NUM_FEATURES)
+   */
+  public double getFeature(int index) throws IndexOutOfBoundsException {
+    return this.features[index];
+  }
+}
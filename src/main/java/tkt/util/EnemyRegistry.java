@@ -0,0 +1,135 @@
+package tkt.util;
+
+import robocode.ScannedRobotEvent;
+
+/**
+ * Keeps one RobotInfo for each enemy, so that the history of every enemy is kept in a melee
+ * battle. The RobotInfo of an enemy is created the first time it is scanned and updated by every
+ * later scan, so scanning an enemy which has already been scanned does not allocate memory.
+ *
+ * The enemies are kept in an array whose size is fixed when the registry is constructed, and are
+ * found by name. If more enemies are scanned than the registry can hold, the enemy which has gone
+ * the longest without being scanned is replaced.
+ *
+ * @author Todd Taomae
+ */
+public class EnemyRegistry {
+  private final RobotInfo[] enemies;
+  private int size;
+
+  /**
+   * Constructs a new EnemyRegistry which can hold the specified number of enemies.
+   * @param capacity maximum number of enemies
+   * @throws IllegalArgumentException if the capacity is less than or equal to zero
+   */
+  public EnemyRegistry(int capacity) throws IllegalArgumentException {
+    if (capacity <= 0) {
+      throw new IllegalArgumentException("capacity " + capacity + ": must be greater than 0.");
+    }
+    this.enemies = new RobotInfo[capacity];
+  }
+
+  /**
+   * Updates the information of the scanned enemy, given the position and heading of the scanning
+   * robot. If the enemy has not been scanned before, its information is added.
+   * @param robotX x-coordinate of the scanning robot
+   * @param robotY y-coordinate of the scanning robot
+   * @param robotHeading heading of the scanning robot in radians
+   * @param event describes the scanned enemy
+   * @return the information of the scanned enemy
+   */
+  public RobotInfo update(double robotX, double robotY, double robotHeading,
+      ScannedRobotEvent event) {
+    RobotInfo info = this.get(event.getName());
+    if (info != null) {
+      info.updateInfo(robotX, robotY, robotHeading, event);
+      return info;
+    }
+
+    info = new RobotInfo(robotX, robotY, robotHeading, event);
+    if (this.size < this.enemies.length) {
+      this.enemies[this.size++] = info;
+    }
+    else {
+      this.enemies[this.getStalestIndex()] = info;
+    }
+    return info;
+  }
+
+  /**
+   * Returns the index of the enemy which has gone the longest without being scanned.
+   * @return the index of the stalest enemy
+   */
+  private int getStalestIndex() {
+    int stalest = 0;
+    for (int i = 1; i < this.size; i++) {
+      if (this.enemies[i].getTime() < this.enemies[stalest].getTime()) {
+        stalest = i;
+      }
+    }
+    return stalest;
+  }
+
+  /**
+   * Returns the information of the enemy with the specified name, or null if it has not been
+   * scanned.
+   * @param name name of the enemy
+   * @return the information of the enemy, or null if it has not been scanned
+   */
+  public RobotInfo get(String name) {
+    for (int i = 0; i < this.size; i++) {
+      if (this.enemies[i].getRobotName().equals(name)) {
+        return this.enemies[i];
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Removes the enemy with the specified name, such as when it dies. The last enemy takes the
+   * place of the removed enemy, so the indices of the other enemies may change.
+   * @param name name of the enemy
+   * @return true if the enemy was removed, false if it had not been scanned
+   */
+  public boolean remove(String name) {
+    for (int i = 0; i < this.size; i++) {
+      if (this.enemies[i].getRobotName().equals(name)) {
+        this.size--;
+        this.enemies[i] = this.enemies[this.size];
+        this.enemies[this.size] = null;
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Returns the information of the enemy at the specified index.
+   * @param index index of the enemy
+   * @return the information of the enemy
+   * @throws IndexOutOfBoundsException if the index is out of range
+   *     (index < 0 || index >= size())
+   */
+  public RobotInfo get(int index) throws IndexOutOfBoundsException {
+    if (index < 0 || index >= this.size) {
+      throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + this.size);
+    }
+    return this.enemies[index];
+  }
+
+  /**
+   * Returns the number of enemies which have been scanned.
+   * @return the number of enemies which have been scanned
+   */
+  public int size() {
+    return this.size;
+  }
+
+  /**
+   * Returns the maximum number of enemies.
+   * @return the maximum number of enemies
+   */
+  public int capacity() {
+    return this.enemies.length;
+  }
+}
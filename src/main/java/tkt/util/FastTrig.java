@@ -0,0 +1,118 @@
+package tkt.util;
+
+/**
+ * Trigonometric functions which look up precomputed tables instead of calling Math. Each function
+ * interpolates linearly between the two nearest entries of its table, so the error is bounded and
+ * much smaller than anything that matters in a battle, while a call costs only a few arithmetic
+ * operations.
+ *
+ * The arguments should be finite; NaN and infinite arguments return NaN.
+ *
+ * @author Todd Taomae
+ */
+public class FastTrig {
+  /** Maximum absolute error of sin and cos. */
+  public static final double MAX_SIN_ERROR = 1e-7;
+  /** Maximum absolute error of atan2 in radians. */
+  public static final double MAX_ATAN_ERROR = 1e-7;
+
+  /** Number of sin entries in one full turn; a power of two so indices can be masked. */
+  private static final int SIN_SIZE = 1 << 13;
+  private static final int SIN_MASK = SIN_SIZE - 1;
+  private static final int QUARTER_TURN = SIN_SIZE / 4;
+  private static final double SIN_SCALE = SIN_SIZE / (2.0 * Math.PI);
+  /** Number of atan entries between 0 and 1. */
+  private static final int ATAN_SIZE = 1 << 12;
+  private static final double HALF_PI = Math.PI / 2.0;
+
+  /** sin of each entry, plus one more entry so the last entry can be interpolated. */
+  private static final double[] SIN = new double[SIN_SIZE + 1];
+  /** atan of each entry between 0 and 1, plus one more entry for interpolation. */
+  private static final double[] ATAN = new double[ATAN_SIZE + 2];
+
+  static {
+    for (int i = 0; i <= SIN_SIZE; i++) {
+      SIN[i] = Math.sin(i / SIN_SCALE);
+    }
+    for (int i = 0; i < ATAN.length; i++) {
+      ATAN[i] = Math.atan((double)i / ATAN_SIZE);
+    }
+  }
+
+  /**
+   * Returns the sine of an angle.
+   * @param angle angle in radians
+   * @return the sine of the angle
+   */
+  public static double sin(double angle) {
+    double scaled = angle * SIN_SCALE;
+    double floor = Math.floor(scaled);
+    int i = (int)((long)floor & SIN_MASK);
+    return interpolate(SIN, i, scaled - floor);
+  }
+
+  /**
+   * Returns the cosine of an angle.
+   * @param angle angle in radians
+   * @return the cosine of the angle
+   */
+  public static double cos(double angle) {
+    // cos(x) = sin(x + pi / 2)
+    double scaled = angle * SIN_SCALE;
+    double floor = Math.floor(scaled);
+    int i = (int)(((long)floor + QUARTER_TURN) & SIN_MASK);
+    return interpolate(SIN, i, scaled - floor);
+  }
+
+  /**
+   * Returns the angle of the point (x, y) from the positive x-axis, like Math.atan2. The result
+   * is between -pi and pi. Signed zeros are not distinguished, so the result for a y of -0.0 is
+   * the same as for a y of 0.0.
+   * @param y y-coordinate of the point
+   * @param x x-coordinate of the point
+   * @return the angle of the point in radians
+   */
+  public static double atan2(double y, double x) {
+    double absX = Math.abs(x);
+    double absY = Math.abs(y);
+    if (absX == 0.0 && absY == 0.0) {
+      return 0.0;
+    }
+
+    // reduce to an angle between 0 and pi / 4, then reflect back into the correct octant
+    double angle;
+    if (absY <= absX) {
+      angle = atan(absY / absX);
+    }
+    else {
+      angle = HALF_PI - atan(absX / absY);
+    }
+    if (x < 0.0) {
+      angle = Math.PI - angle;
+    }
+    return y < 0.0 ? -angle : angle;
+  }
+
+  /**
+   * Returns the arctangent of a value between 0 and 1.
+   * @param value value between 0 and 1
+   * @return the arctangent of the value in radians
+   */
+  private static double atan(double value) {
+    double scaled = value * ATAN_SIZE;
+    int i = (int)scaled;
+    return interpolate(ATAN, i, scaled - i);
+  }
+
+  /**
+   * Interpolates linearly between an entry of a table and the next entry.
+   * @param table table of values
+   * @param i index of the entry
+   * @param fraction fraction of the way to the next entry
+   * @return the interpolated value
+   */
+  private static double interpolate(double[] table, int i, double fraction) {
+    double value = table[i];
+    return value + (table[i + 1] - value) * fraction;
+  }
+}
@@ -0,0 +1,122 @@
+package tkt.util;
+
+import robocode.util.Utils;
+
+/**
+ * A gun which aims at the guess factor where the target has most often been in similar
+ * situations. Every update fires an own wave from the shooter's position; when a wave reaches the
+ * target, the guess factor of the target relative to the wave is added to the statistics.
+ *
+ * The waves are kept by a WaveManager, which reuses them, so updating the gun does not allocate
+ * memory.
+ *
+ * @author Todd Taomae
+ */
+public class GuessFactorGun {
+  /** Maximum velocity of a robot. */
+  private static final double MAX_VELOCITY = 8.0;
+
+  private final GuessFactorStats stats;
+
+  /** Direction the target was last moving relative to the shooter; 1 is clockwise. */
+  private double direction = 1.0;
+  private double firingAngle;
+  private int segment;
+
+  /**
+   * Constructs a new GuessFactorGun which records observations in the specified statistics.
+   * @param stats statistics used by this gun
+   */
+  public GuessFactorGun(GuessFactorStats stats) {
+    this.stats = stats;
+  }
+
+  /**
+   * Returns the maximum angle that a target can move away from the direct angle before a bullet
+   * with the specified velocity reaches it.
+   * @param bulletVelocity velocity of the bullet
+   * @return the maximum escape angle in radians
+   */
+  public static double getMaxEscapeAngle(double bulletVelocity) {
+    return Math.asin(MAX_VELOCITY / bulletVelocity);
+  }
+
+  /**
+   * Returns the guess factor of a location relative to a wave.
+   * @param wave wave
+   * @param x x-coordinate of the location
+   * @param y y-coordinate of the location
+   * @return the guess factor of the location, between -1 and 1
+   */
+  public static double getGuessFactor(Wave wave, double x, double y) {
+    double bearing = MathUtility.getDirectionRadians(wave.getX(), wave.getY(), x, y);
+    double offset = Utils.normalRelativeAngle(bearing - wave.getBearing());
+    double guessFactor = wave.getDirection() * offset / getMaxEscapeAngle(wave.getVelocity());
+    return Math.max(-1.0, Math.min(1.0, guessFactor));
+  }
+
+  /**
+   * Updates the gun with a new scan of the target. The own waves which reached the target during
+   * the most recent update of the WaveManager are added to the statistics, the firing angle is
+   * updated, and a new own wave is fired.
+   *
+   * @param time time of the scan
+   * @param waves waves fired by the shooter
+   * @param myX x-coordinate of the shooter
+   * @param myY y-coordinate of the shooter
+   * @param targetX x-coordinate of the target
+   * @param targetY y-coordinate of the target
+   * @param targetHeading heading of the target in radians
+   * @param targetVelocity velocity of the target
+   * @param bulletVelocity velocity of the bullet which would be fired
+   * @return the new wave, or null if every wave is in use
+   */
+  public Wave update(long time, WaveManager waves, double myX, double myY, double targetX,
+      double targetY, double targetHeading, double targetVelocity, double bulletVelocity) {
+    for (int i = 0; i < waves.getNumBrokenOwnWaves(); i++) {
+      Wave wave = waves.getBrokenOwnWave(i);
+      this.stats.add(wave.getSegment(),
+          getGuessFactor(wave, wave.getBreakX(), wave.getBreakY()));
+    }
+
+    double bearing = MathUtility.getFastDirectionRadians(myX, myY, targetX, targetY);
+    double distance = MathUtility.getDistance(myX, myY, targetX, targetY);
+    double lateralVelocity = targetVelocity * FastTrig.sin(targetHeading - bearing);
+
+    // keep the previous direction if the target is not moving laterally
+    if (lateralVelocity > 0.0) {
+      this.direction = 1.0;
+    }
+    else if (lateralVelocity < 0.0) {
+      this.direction = -1.0;
+    }
+    this.segment = GuessFactorStats.getSegment(distance, lateralVelocity);
+
+    double guessFactor = this.stats.getBestGuessFactor(this.segment);
+    this.firingAngle = Utils.normalAbsoluteAngle(
+        bearing + this.direction * guessFactor * getMaxEscapeAngle(bulletVelocity));
+
+    Wave wave = waves.addOwnWave(time, myX, myY, bulletVelocity, bearing);
+    if (wave != null) {
+      wave.setDirection(this.direction);
+      wave.setSegment(this.segment);
+    }
+    return wave;
+  }
+
+  /**
+   * Returns the absolute angle in radians which the gun should face, as of the last update.
+   * @return the firing angle
+   */
+  public double getFiringAngle() {
+    return this.firingAngle;
+  }
+
+  /**
+   * Returns the number of observations in the segment of the target as of the last update.
+   * @return the number of observations in the current segment
+   */
+  public int getSegmentCount() {
+    return this.stats.getCount(this.segment);
+  }
+}
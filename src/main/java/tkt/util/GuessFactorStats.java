@@ -0,0 +1,149 @@
+package tkt.util;
+
+/**
+ * Statistics about where a target has been relative to the direct angle from the shooter, known
+ * as guess factors. A guess factor of 0 is the direct angle to the target, and guess factors of
+ * 1 and -1 are the maximum escape angles in the direction the target was moving and in the
+ * opposite direction, respectively.
+ *
+ * The statistics are segmented by distance and lateral velocity. Every segment is a fixed number
+ * of bins stored in a single flat array, so updating and reading a segment is constant time and
+ * does not allocate memory. Older observations decay as new observations are added, so the
+ * statistics adapt if the target changes its movement.
+ *
+ * @author Todd Taomae
+ */
+public class GuessFactorStats {
+  /** Number of guess factor bins in each segment; this is odd so there is a bin for 0. */
+  public static final int NUM_BINS = 31;
+  /** Width of each distance segment. */
+  private static final double DISTANCE_SEGMENT_WIDTH = 200.0;
+  /** Number of distance segments. */
+  private static final int NUM_DISTANCE_SEGMENTS = 5;
+  /** Upper bounds of each lateral velocity segment except the last. */
+  private static final double[] LATERAL_VELOCITY_BOUNDS = {2.0, 5.0};
+  /** Number of segments. */
+  public static final int NUM_SEGMENTS =
+      NUM_DISTANCE_SEGMENTS * (LATERAL_VELOCITY_BOUNDS.length + 1);
+
+  /** Bins of every segment, one segment after the other. */
+  private final float[] bins;
+  /** Number of observations in each segment. */
+  private final int[] counts;
+  /** Fraction of the existing statistics in a segment which is kept when adding observations. */
+  private final float retention;
+
+  /**
+   * Constructs a new GuessFactorStats with the specified decay rate.
+   * @param decay fraction of the existing statistics which is lost each time an observation is
+   *     added to a segment
+   * @throws IllegalArgumentException if the decay rate is not between 0 (inclusive) and 1
+   *     (exclusive)
+   */
+  public GuessFactorStats(double decay) throws IllegalArgumentException {
+    if (decay < 0.0 || decay >= 1.0) {
+      throw new IllegalArgumentException("decay " + decay + ": must be between 0 and 1.");
+    }
+    this.bins = new float[NUM_SEGMENTS * NUM_BINS];
+    this.counts = new int[NUM_SEGMENTS];
+    this.retention = (float)(1.0 - decay);
+  }
+
+  /**
+   * Returns the segment for a target at the specified distance moving at the specified lateral
+   * velocity.
+   * @param distance distance to the target
+   * @param lateralVelocity velocity of the target perpendicular to the line from the shooter
+   * @return the segment
+   */
+  public static int getSegment(double distance, double lateralVelocity) {
+    int distanceSegment = Math.min(NUM_DISTANCE_SEGMENTS - 1,
+        Math.max(0, (int)(distance / DISTANCE_SEGMENT_WIDTH)));
+
+    double speed = Math.abs(lateralVelocity);
+    int velocitySegment = 0;
+    while (velocitySegment < LATERAL_VELOCITY_BOUNDS.length
+        && speed >= LATERAL_VELOCITY_BOUNDS[velocitySegment]) {
+      velocitySegment++;
+    }
+
+    return distanceSegment * (LATERAL_VELOCITY_BOUNDS.length + 1) + velocitySegment;
+  }
+
+  /**
+   * Returns the bin containing the specified guess factor.
+   * @param guessFactor guess factor between -1 and 1
+   * @return the bin containing the guess factor
+   */
+  public static int getBin(double guessFactor) {
+    int middle = (NUM_BINS - 1) / 2;
+    int bin = (int)Math.round(guessFactor * middle) + middle;
+    return Math.min(NUM_BINS - 1, Math.max(0, bin));
+  }
+
+  /**
+   * Returns the guess factor at the center of the specified bin.
+   * @param bin bin
+   * @return the guess factor at the center of the bin
+   */
+  public static double getGuessFactor(int bin) {
+    int middle = (NUM_BINS - 1) / 2;
+    return (double)(bin - middle) / middle;
+  }
+
+  /**
+   * Adds an observation of the target at the specified guess factor to a segment. The existing
+   * statistics in the segment decay, then nearby bins are increased, with the bin containing the
+   * guess factor increased the most.
+   * @param segment segment
+   * @param guessFactor guess factor between -1 and 1
+   */
+  public void add(int segment, double guessFactor) {
+    int offset = segment * NUM_BINS;
+    int observed = getBin(guessFactor);
+
+    for (int i = 0; i < NUM_BINS; i++) {
+      int d = i - observed;
+      this.bins[offset + i] = this.bins[offset + i] * this.retention + 1.0f / (1 + d * d);
+    }
+    this.counts[segment]++;
+  }
+
+  /**
+   * Returns the guess factor of the bin with the highest value in a segment. Returns 0 if no
+   * observations have been added to the segment.
+   * @param segment segment
+   * @return the most likely guess factor in the segment
+   */
+  public double getBestGuessFactor(int segment) {
+    int offset = segment * NUM_BINS;
+
+    // start with the middle bin so that it is used if every bin is equal
+    int best = (NUM_BINS - 1) / 2;
+    for (int i = 0; i < NUM_BINS; i++) {
+      if (this.bins[offset + i] > this.bins[offset + best]) {
+        best = i;
+      }
+    }
+    return getGuessFactor(best);
+  }
+
+  /**
+   * Returns the value of a bin in a segment.
+   * @param segment segment
+   * @param bin bin
+   * @return the value of the bin
+   */
+  public double getValue(int segment, int bin) {
+    return this.bins[segment * NUM_BINS + bin];
+  }
+
+  /**
+   * Returns the number of observations which have been added to a segment.
+   * @param segment segment
+   * @return the number of observations in the segment
+   */
+  public int getCount(int segment) {
+    return this.counts[segment];
+  }
+}
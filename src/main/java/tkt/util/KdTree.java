@@ -0,0 +1,505 @@
+package tkt.util;
+
+/**
+ * A k-d tree of points with a value, which finds the nearest neighbors of a point. Every point,
+ * value, and link of the tree is stored in primitive arrays which are allocated when the tree is
+ * constructed, so adding points and searching for neighbors does not allocate memory.
+ *
+ * The tree holds a fixed number of points, which are kept in NUM_BLOCKS blocks of consecutive
+ * slots. Each block is a separate subtree, and points are added to the newest block until it is
+ * full. When every block is full, the oldest block is emptied and reused, so removing the oldest
+ * points only discards the root of its subtree and never copies or rebuilds the other points.
+ * Whenever adding a point makes its block too deep, the smallest subtree on the path to the new
+ * point which is too deep for its size is rebuilt, as in a scapegoat tree, so each block stays
+ * balanced and searches stay logarithmic even if many points are the same. A rebuild never
+ * involves more points than a block holds.
+ *
+ * @author Todd Taomae
+ */
+public class KdTree {
+  /** Index of a missing node. */
+  private static final int NONE = -1;
+  /** A subtree is too deep if its depth is greater than log(size) / -log(ALPHA). */
+  private static final double ALPHA = 0.7;
+  /** Maximum depth of the tree, which is the depth of a tree with 2^31 points. */
+  private static final int MAX_DEPTH = getMaxDepth(Integer.MAX_VALUE);
+  /** Number of blocks the points are kept in; the oldest block is removed when the tree is full. */
+  private static final int NUM_BLOCKS = 8;
+
+  private final int dimensions;
+  private final int capacity;
+
+  /** Coordinates of every point, one point after the other, in the slots of their blocks. */
+  private final double[] points;
+  private final double[] values;
+  private final int[] left;
+  private final int[] right;
+  /** Dimension which splits the children of each node. */
+  private final int[] splits;
+  /** Number of nodes in the subtree of each node. */
+  private final int[] sizes;
+  private int size;
+
+  /** Maximum number of points in each block; the last block may hold fewer. */
+  private final int blockSize;
+  /** Root of the subtree of each block. */
+  private final int[] roots;
+  /** Number of points in each block. */
+  private final int[] blockCounts;
+  /** Block which points are being added to. */
+  private int newestBlock;
+  /** Number of points which were rebuilt into a balanced subtree by the most recent add. */
+  private int lastRebuildSize;
+
+  /** Scratch space used to rebuild the tree. */
+  private final int[] buildIndices;
+  /** Nodes on the path from the root to the most recently added point. */
+  private final int[] path = new int[MAX_DEPTH + 1];
+
+  /** Point being searched for. */
+  private final double[] query;
+  /** Max-heap of the nearest neighbors found by the most recent search, by distance. */
+  private final int[] neighbors;
+  private final double[] neighborDistances;
+  private int numNeighbors;
+  private int maxNeighbors;
+
+  /**
+   * Constructs a new, empty KdTree.
+   * @param dimensions number of coordinates of each point
+   * @param capacity maximum number of points
+   * @param maxNeighbors maximum number of neighbors which can be searched for at once
+   * @throws IllegalArgumentException if the number of dimensions or neighbors is less than or
+   *     equal to zero, or if the capacity is less than 2
+   */
+  public KdTree(int dimensions, int capacity, int maxNeighbors) throws IllegalArgumentException {
+    if (dimensions <= 0) {
+      throw new IllegalArgumentException("dimensions " + dimensions
+          + ": must be greater than 0.");
+    }
+    if (capacity <= 1) {
+      throw new IllegalArgumentException("capacity " + capacity + ": must be greater than 1.");
+    }
+    if (maxNeighbors <= 0) {
+      throw new IllegalArgumentException("maxNeighbors " + maxNeighbors
+          + ": must be greater than 0.");
+    }
+    this.dimensions = dimensions;
+    this.capacity = capacity;
+
+    this.points = new double[capacity * dimensions];
+    this.values = new double[capacity];
+    this.left = new int[capacity];
+    this.right = new int[capacity];
+    this.splits = new int[capacity];
+    this.sizes = new int[capacity];
+    this.blockSize = (capacity + NUM_BLOCKS - 1) / NUM_BLOCKS;
+    int numBlocks = (capacity + this.blockSize - 1) / this.blockSize;
+    this.roots = new int[numBlocks];
+    this.blockCounts = new int[numBlocks];
+    this.buildIndices = new int[this.blockSize];
+    this.clear();
+
+    this.query = new double[dimensions];
+    this.neighbors = new int[maxNeighbors];
+    this.neighborDistances = new double[maxNeighbors];
+  }
+
+  /**
+   * Adds a point with a value. If the tree is full, the oldest block of points is removed first.
+   * @param point coordinates of the point; only the first getDimensions() are used
+   * @param value value of the point
+   */
+  public void add(double[] point, double value) {
+    this.lastRebuildSize = 0;
+    int block = this.newestBlock;
+    if (this.blockCounts[block] == this.getBlockCapacity(block)) {
+      block = (block + 1) % this.roots.length;
+      this.newestBlock = block;
+      // the oldest block is reused without touching the other blocks
+      this.size -= this.blockCounts[block];
+      this.blockCounts[block] = 0;
+      this.roots[block] = NONE;
+    }
+
+    int node = block * this.blockSize + this.blockCounts[block]++;
+    this.size++;
+    System.arraycopy(point, 0, this.points, node * this.dimensions, this.dimensions);
+    this.values[node] = value;
+    this.left[node] = NONE;
+    this.right[node] = NONE;
+    this.sizes[node] = 1;
+
+    if (this.roots[block] == NONE) {
+      this.roots[block] = node;
+      this.splits[node] = 0;
+      return;
+    }
+
+    // number of edges from the root of the block to the new node
+    int depth = 0;
+    int parent = this.roots[block];
+    while (true) {
+      this.path[depth++] = parent;
+      this.sizes[parent]++;
+
+      // a point on the split may go on either side, so it goes on the smaller side
+      int split = this.splits[parent];
+      double diff = point[split] - this.points[parent * this.dimensions + split];
+      boolean goLeft = diff < 0.0 || (diff == 0.0
+          && this.getSize(this.left[parent]) < this.getSize(this.right[parent]));
+      int child = goLeft ? this.left[parent] : this.right[parent];
+      if (child == NONE) {
+        if (goLeft) {
+          this.left[parent] = node;
+        }
+        else {
+          this.right[parent] = node;
+        }
+        this.splits[node] = (split + 1) % this.dimensions;
+        break;
+      }
+      parent = child;
+    }
+
+    if (depth > getMaxDepth(this.blockCounts[block])) {
+      this.rebuildScapegoat(block, depth);
+    }
+  }
+
+  /**
+   * Returns the maximum number of points in a block.
+   * @param block index of the block
+   * @return the maximum number of points in the block
+   */
+  private int getBlockCapacity(int block) {
+    return Math.min(this.blockSize, this.capacity - block * this.blockSize);
+  }
+
+  /**
+   * Returns the maximum depth of a subtree with the specified number of nodes.
+   * @param size number of nodes
+   * @return the maximum depth of the subtree
+   */
+  private static int getMaxDepth(int size) {
+    return (int)(Math.log(size) / -Math.log(ALPHA));
+  }
+
+  /**
+   * Returns the number of nodes in the subtree of a node.
+   * @param node node, which may be missing
+   * @return the number of nodes in the subtree, or 0 if the node is missing
+   */
+  private int getSize(int node) {
+    return node == NONE ? 0 : this.sizes[node];
+  }
+
+  /**
+   * Rebuilds the smallest subtree on the path to the most recently added point which is too deep
+   * for its size. Rebuilding that subtree makes the block shallow enough again.
+   * @param block block of the most recently added point
+   * @param depth number of edges from the root of the block to the most recently added point
+   */
+  private void rebuildScapegoat(int block, int depth) {
+    int i = depth - 1;
+    while (i > 0 && depth - i <= getMaxDepth(this.sizes[this.path[i]])) {
+      i--;
+    }
+    int scapegoat = this.path[i];
+    int split = this.splits[scapegoat];
+
+    int count = this.collect(scapegoat, 0);
+    int subtree = this.build(0, count, split);
+    this.lastRebuildSize = count;
+
+    if (i == 0) {
+      this.roots[block] = subtree;
+    }
+    else {
+      int parent = this.path[i - 1];
+      if (this.left[parent] == scapegoat) {
+        this.left[parent] = subtree;
+      }
+      else {
+        this.right[parent] = subtree;
+      }
+    }
+  }
+
+  /**
+   * Adds every node of a subtree to buildIndices.
+   * @param node root of the subtree
+   * @param count number of nodes already in buildIndices
+   * @return the number of nodes in buildIndices after adding the subtree
+   */
+  private int collect(int node, int count) {
+    if (node == NONE) {
+      return count;
+    }
+    this.buildIndices[count++] = node;
+    count = this.collect(this.left[node], count);
+    return this.collect(this.right[node], count);
+  }
+
+  /**
+   * Builds a balanced subtree from the points whose indices are in the specified range of
+   * buildIndices, by splitting at the median of each dimension in turn.
+   * @param low first index in buildIndices, inclusive
+   * @param high last index in buildIndices, exclusive
+   * @param split dimension which splits the root of the subtree
+   * @return the root of the subtree
+   */
+  private int build(int low, int high, int split) {
+    if (low >= high) {
+      return NONE;
+    }
+    int middle = (low + high) >>> 1;
+    this.select(low, high - 1, middle, split);
+
+    int node = this.buildIndices[middle];
+    int next = (split + 1) % this.dimensions;
+    this.splits[node] = split;
+    this.sizes[node] = high - low;
+    this.left[node] = this.build(low, middle, next);
+    this.right[node] = this.build(middle + 1, high, next);
+    return node;
+  }
+
+  /**
+   * Partially sorts the specified range of buildIndices by a coordinate so that the k-th index
+   * is in its sorted position, every index before it has a coordinate which is not greater, and
+   * every index after it has a coordinate which is not smaller.
+   * @param low first index, inclusive
+   * @param high last index, inclusive
+   * @param k index to put in its sorted position
+   * @param split coordinate to sort by
+   */
+  private void select(int low, int high, int k, int split) {
+    int[] indices = this.buildIndices;
+    while (low < high) {
+      double pivot = this.points[indices[(low + high) >>> 1] * this.dimensions + split];
+      int i = low;
+      int j = high;
+      while (i <= j) {
+        while (this.points[indices[i] * this.dimensions + split] < pivot) {
+          i++;
+        }
+        while (this.points[indices[j] * this.dimensions + split] > pivot) {
+          j--;
+        }
+        if (i <= j) {
+          int temp = indices[i];
+          indices[i] = indices[j];
+          indices[j] = temp;
+          i++;
+          j--;
+        }
+      }
+      if (k <= j) {
+        high = j;
+      }
+      else if (k >= i) {
+        low = i;
+      }
+      else {
+        return;
+      }
+    }
+  }
+
+  /**
+   * Finds the nearest neighbors of a point by Euclidean distance. The neighbors can then be read
+   * with getNeighborValue and getNeighborDistance, in no particular order.
+   * @param point coordinates of the point; only the first getDimensions() are used
+   * @param k number of neighbors to find
+   * @return the number of neighbors found, which is less than k if the tree has fewer points
+   * @throws IllegalArgumentException if k is not between 1 and the maximum number of neighbors
+   */
+  public int search(double[] point, int k) throws IllegalArgumentException {
+    if (k <= 0 || k > this.neighbors.length) {
+      throw new IllegalArgumentException("k " + k + ": must be between 1 and "
+          + this.neighbors.length + ".");
+    }
+    System.arraycopy(point, 0, this.query, 0, this.dimensions);
+    this.maxNeighbors = k;
+    this.numNeighbors = 0;
+    for (int block = 0; block < this.roots.length; block++) {
+      this.search(this.roots[block]);
+    }
+    return this.numNeighbors;
+  }
+
+  /**
+   * Searches the subtree with the specified root for the nearest neighbors of the query. The
+   * subtree on the far side of the split is skipped if it cannot contain a nearer neighbor.
+   * @param node root of the subtree
+   */
+  private void search(int node) {
+    if (node == NONE) {
+      return;
+    }
+    int offset = node * this.dimensions;
+    double distance = 0.0;
+    for (int d = 0; d < this.dimensions; d++) {
+      double diff = this.query[d] - this.points[offset + d];
+      distance += diff * diff;
+    }
+    this.offer(node, distance);
+
+    int split = this.splits[node];
+    double diff = this.query[split] - this.points[offset + split];
+    int near = diff < 0.0 ? this.left[node] : this.right[node];
+    int far = diff < 0.0 ? this.right[node] : this.left[node];
+    this.search(near);
+    if (this.numNeighbors < this.maxNeighbors || diff * diff < this.neighborDistances[0]) {
+      this.search(far);
+    }
+  }
+
+  /**
+   * Adds a node to the nearest neighbors if there is room or if it is nearer than the farthest
+   * neighbor, which it then replaces.
+   * @param node node
+   * @param distance squared distance from the query to the node
+   */
+  private void offer(int node, double distance) {
+    int[] heap = this.neighbors;
+    double[] distances = this.neighborDistances;
+
+    int i;
+    if (this.numNeighbors < this.maxNeighbors) {
+      // sift up from the end
+      i = this.numNeighbors++;
+      while (i > 0) {
+        int parent = (i - 1) / 2;
+        if (distances[parent] >= distance) {
+          break;
+        }
+        heap[i] = heap[parent];
+        distances[i] = distances[parent];
+        i = parent;
+      }
+    }
+    else if (distance < distances[0]) {
+      // sift down from the root
+      i = 0;
+      while (true) {
+        int child = 2 * i + 1;
+        if (child >= this.numNeighbors) {
+          break;
+        }
+        if (child + 1 < this.numNeighbors && distances[child + 1] > distances[child]) {
+          child++;
+        }
+        if (distances[child] <= distance) {
+          break;
+        }
+        heap[i] = heap[child];
+        distances[i] = distances[child];
+        i = child;
+      }
+    }
+    else {
+      return;
+    }
+    heap[i] = node;
+    distances[i] = distance;
+  }
+
+  /**
+   * Returns the value of a neighbor found by the most recent search.
+   * @param index index of the neighbor
+   * @return the value of the neighbor
+   * @throws IndexOutOfBoundsException if the index is out of range
+   *     (index < 0 || index >= number of neighbors found)
+   */
+  public double getNeighborValue(int index) throws IndexOutOfBoundsException {
+    this.checkNeighborIndex(index);
+    return this.values[this.neighbors[index]];
+  }
+
+  /**
+   * Returns the squared distance to a neighbor found by the most recent search.
+   * @param index index of the neighbor
+   * @return the squared distance to the neighbor
+   * @throws IndexOutOfBoundsException if the index is out of range
+   *     (index < 0 || index >= number of neighbors found)
+   */
+  public double getNeighborDistance(int index) throws IndexOutOfBoundsException {
+    this.checkNeighborIndex(index);
+    return this.neighborDistances[index];
+  }
+
+  /**
+   * Throws an exception if the index of a neighbor is out of range.
+   * @param index index of the neighbor
+   * @throws IndexOutOfBoundsException if the index is out of range
+   */
+  private void checkNeighborIndex(int index) throws IndexOutOfBoundsException {
+    if (index < 0 || index >= this.numNeighbors) {
+      throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + this.numNeighbors);
+    }
+  }
+
+  /**
+   * Removes every point.
+   */
+  public void clear() {
+    for (int block = 0; block < this.roots.length; block++) {
+      this.roots[block] = NONE;
+      this.blockCounts[block] = 0;
+    }
+    this.newestBlock = 0;
+    this.size = 0;
+    this.numNeighbors = 0;
+  }
+
+  /**
+   * Returns the number of points in the tree.
+   * @return the number of points
+   */
+  public int size() {
+    return this.size;
+  }
+
+  /**
+   * Returns the maximum number of points in the tree.
+   * @return the maximum number of points
+   */
+  public int capacity() {
+    return this.capacity;
+  }
+
+  /**
+   * Returns the number of points which were rebuilt into a balanced subtree by the most recent
+   * add, which is never more than the number of points in a block.
+   * @return the number of points rebuilt by the most recent add, or 0 if none were rebuilt
+   */
+  public int getLastRebuildSize() {
+    return this.lastRebuildSize;
+  }
+
+  /**
+   * Returns the maximum number of points in each block.
+   * @return the maximum number of points in each block
+   */
+  public int getBlockSize() {
+    return this.blockSize;
+  }
+
+  /**
+   * Returns the maximum number of neighbors which can be searched for at once.
+   * @return the maximum number of neighbors
+   */
+  public int getMaxNeighbors() {
+    return this.neighbors.length;
+  }
+
+  /**
+   * Returns the number of coordinates of each point.
+   * @return the number of coordinates of each point
+   */
+  public int getDimensions() {
+    return this.dimensions;
+  }
+}
@@ -0,0 +1,196 @@
+package tkt.util;
+
+import java.io.PrintStream;
+import java.util.Arrays;
+
+/**
+ * Records how long sections of code take to run, using System.nanoTime. The latencies of each
+ * section are counted in a fixed number of equally sized buckets, and latencies longer than the
+ * last bucket are counted in the last bucket. Every histogram is stored in a single flat array,
+ * so recording a latency is constant time and does not allocate memory.
+ *
+ * The number of skipped turns is also recorded, since a skipped turn means that the robot took
+ * longer than its turn allows.
+ *
+ * @author Todd Taomae
+ */
+public class LatencyProfiler {
+  private final String[] sections;
+  private final int numBuckets;
+  private final long bucketWidth;
+
+  /** Histograms of every section, one section after the other. */
+  private final long[] buckets;
+  /** Number of latencies recorded for each section. */
+  private final long[] counts;
+  /** Total latency recorded for each section. */
+  private final long[] totals;
+  /** Longest latency recorded for each section. */
+  private final long[] maximums;
+  private int skippedTurns;
+
+  /**
+   * Constructs a new LatencyProfiler for the specified sections.
+   * @param sections names of the sections; the index of a name is used to record its latencies
+   * @param numBuckets number of buckets in the histogram of each section
+   * @param bucketWidth width of each bucket in nanoseconds
+   * @throws IllegalArgumentException if there are no sections, or if the number of buckets or the
+   *     bucket width is less than or equal to zero
+   */
+  public LatencyProfiler(String[] sections, int numBuckets, long bucketWidth)
+      throws IllegalArgumentException {
+    if (sections.length == 0) {
+      throw new IllegalArgumentException("sections: must not be empty.");
+    }
+    if (numBuckets <= 0) {
+      throw new IllegalArgumentException("numBuckets " + numBuckets
+          + ": must be greater than 0.");
+    }
+    if (bucketWidth <= 0) {
+      throw new IllegalArgumentException("bucketWidth " + bucketWidth
+          + ": must be greater than 0.");
+    }
+    this.sections = sections.clone();
+    this.numBuckets = numBuckets;
+    this.bucketWidth = bucketWidth;
+
+    this.buckets = new long[sections.length * numBuckets];
+    this.counts = new long[sections.length];
+    this.totals = new long[sections.length];
+    this.maximums = new long[sections.length];
+  }
+
+  /**
+   * Records the latency of a section which started at the specified time and ends now.
+   * @param section index of the section
+   * @param startTime value of System.nanoTime when the section started
+   * @throws IndexOutOfBoundsException if the section is out of range
+   */
+  public void record(int section, long startTime) throws IndexOutOfBoundsException {
+    this.add(section, System.nanoTime() - startTime);
+  }
+
+  /**
+   * Records the specified latency of a section.
+   * @param section index of the section
+   * @param latency latency in nanoseconds
+   * @throws IndexOutOfBoundsException if the section is out of range
+   */
+  public void add(int section, long latency) throws IndexOutOfBoundsException {
+    long bucket = Math.max(0, Math.min(this.numBuckets - 1, latency / this.bucketWidth));
+    this.buckets[section * this.numBuckets + (int)bucket]++;
+    this.counts[section]++;
+    this.totals[section] += latency;
+    this.maximums[section] = Math.max(this.maximums[section], latency);
+  }
+
+  /**
+   * Records a skipped turn.
+   */
+  public void addSkippedTurn() {
+    this.skippedTurns++;
+  }
+
+  /**
+   * Returns the number of skipped turns.
+   * @return the number of skipped turns
+   */
+  public int getSkippedTurns() {
+    return this.skippedTurns;
+  }
+
+  /**
+   * Returns the number of latencies recorded for a section.
+   * @param section index of the section
+   * @return the number of latencies recorded
+   * @throws IndexOutOfBoundsException if the section is out of range
+   */
+  public long getCount(int section) throws IndexOutOfBoundsException {
+    return this.counts[section];
+  }
+
+  /**
+   * Returns the mean latency of a section, or 0 if nothing has been recorded.
+   * @param section index of the section
+   * @return the mean latency in nanoseconds
+   * @throws IndexOutOfBoundsException if the section is out of range
+   */
+  public double getMean(int section) throws IndexOutOfBoundsException {
+    if (this.counts[section] == 0) {
+      return 0.0;
+    }
+    return (double)this.totals[section] / this.counts[section];
+  }
+
+  /**
+   * Returns the longest latency of a section.
+   * @param section index of the section
+   * @return the longest latency in nanoseconds
+   * @throws IndexOutOfBoundsException if the section is out of range
+   */
+  public long getMax(int section) throws IndexOutOfBoundsException {
+    return this.maximums[section];
+  }
+
+  /**
+   * Returns an upper bound of the specified percentile of the latencies of a section. This is the
+   * upper edge of the bucket containing the percentile, or the longest latency if that is
+   * shorter. Returns 0 if nothing has been recorded.
+   * @param section index of the section
+   * @param percentile percentile between 0 and 100
+   * @return the percentile latency in nanoseconds
+   * @throws IllegalArgumentException if the percentile is not between 0 and 100
+   * @throws IndexOutOfBoundsException if the section is out of range
+   */
+  public long getPercentile(int section, double percentile)
+      throws IllegalArgumentException, IndexOutOfBoundsException {
+    if (percentile < 0.0 || percentile > 100.0) {
+      throw new IllegalArgumentException("percentile " + percentile
+          + ": must be between 0 and 100.");
+    }
+    long count = this.counts[section];
+    if (count == 0) {
+      return 0;
+    }
+
+    // number of latencies which must be at or below the percentile
+    long rank = Math.max(1, (long)Math.ceil(percentile / 100.0 * count));
+    long seen = 0;
+    int offset = section * this.numBuckets;
+    for (int bucket = 0; bucket < this.numBuckets - 1; bucket++) {
+      seen += this.buckets[offset + bucket];
+      if (seen >= rank) {
+        return Math.min(this.maximums[section], (bucket + 1) * this.bucketWidth);
+      }
+    }
+    return this.maximums[section];
+  }
+
+  /**
+   * Prints the count, mean, 50th, 90th, and 99th percentile, and longest latency of every
+   * section in microseconds, followed by the number of skipped turns.
+   * @param out stream to print to
+   */
+  public void printSummary(PrintStream out) {
+    out.printf("%-16s %8s %8s %8s %8s %8s %8s%n",
+        "section (us)", "count", "mean", "p50", "p90", "p99", "max");
+    for (int i = 0; i < this.sections.length; i++) {
+      out.printf("%-16s %8d %8.1f %8.1f %8.1f %8.1f %8.1f%n", this.sections[i], this.counts[i],
+          this.getMean(i) / 1000.0, this.getPercentile(i, 50.0) / 1000.0,
+          this.getPercentile(i, 90.0) / 1000.0, this.getPercentile(i, 99.0) / 1000.0,
+          this.maximums[i] / 1000.0);
+    }
+    out.printf("skipped turns: %d%n", this.skippedTurns);
+  }
+
+  /**
+   * Removes every recorded latency and skipped turn.
+   */
+  public void clear() {
+    Arrays.fill(this.buckets, 0);
+    Arrays.fill(this.counts, 0);
+    Arrays.fill(this.totals, 0);
+    Arrays.fill(this.maximums, 0);
+    this.skippedTurns = 0;
+  }
+}
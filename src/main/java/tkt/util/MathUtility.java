@@ -38,6 +38,20 @@ public class MathUtility {
     return Math.atan2(xDiff, yDiff);
   }
 
+  /**
+   * Returns the relative angle in radians from (x1, y1) to (x2, y2), using FastTrig instead of
+   * Math. The error is at most FastTrig.MAX_ATAN_ERROR.
+   *
+   * @param x1 starting x position
+   * @param y1 starting y position
+   * @param x2 ending x position
+   * @param y2 ending y position
+   * @return  the angle from (x1, y1) to (x2, y2)
+   */
+  public static double getFastDirectionRadians(double x1, double y1, double x2, double y2) {
+    return FastTrig.atan2(x2 - x1, y2 - y1);
+  }
+
   /**
    * Returns the distance from (x1, y1) to (x2, y2).
    *
@@ -75,9 +89,96 @@ public class MathUtility {
    * @return the Point containing the location of the target
    */
   public static Point2D.Double getTargetPoint(double x, double y, double bearing, double distance) {
-    double targetX = x + (Math.sin(bearing) * distance);
-    double targetY = y + (Math.cos(bearing) * distance);
+    return getTargetPoint(x, y, bearing, distance, new Point2D.Double());
+  }
+
+  /**
+   * Sets the specified Point2D.Double to the location of the target, given an initial x- and
+   * y-coordinate, a distance to the target, and an absolute bearing to the target. This does not
+   * allocate a new point.
+   * @param x starting x-coordinate
+   * @param y starting y-coordinate
+   * @param bearing absolute bearing in radians to target
+   * @param distance distance to target
+   * @param result point which is set to the location of the target
+   * @return the result point
+   */
+  public static Point2D.Double getTargetPoint(double x, double y, double bearing, double distance,
+      Point2D.Double result) {
+    result.setLocation(getTargetX(x, bearing, distance), getTargetY(y, bearing, distance));
+    return result;
+  }
+
+  /**
+   * Returns the x-coordinate of the target, given an initial x-coordinate, a distance to the
+   * target, and an absolute bearing to the target.
+   * @param x starting x-coordinate
+   * @param bearing absolute bearing in radians to target
+   * @param distance distance to target
+   * @return the x-coordinate of the target
+   */
+  public static double getTargetX(double x, double bearing, double distance) {
+    return x + (Math.sin(bearing) * distance);
+  }
+
+  /**
+   * Returns the y-coordinate of the target, given an initial y-coordinate, a distance to the
+   * target, and an absolute bearing to the target.
+   * @param y starting y-coordinate
+   * @param bearing absolute bearing in radians to target
+   * @param distance distance to target
+   * @return the y-coordinate of the target
+   */
+  public static double getTargetY(double y, double bearing, double distance) {
+    return y + (Math.cos(bearing) * distance);
+  }
+
+  /**
+   * Returns the time it takes for a bullet fired from (shooterX, shooterY) to reach a target
+   * moving in a straight line at a constant velocity, assuming the bullet is aimed at the point
+   * of interception. The result is the smallest positive solution t of
+   * |target + targetVelocity * t - shooter| = bulletVelocity * t, which is a quadratic equation.
+   * Returns Double.POSITIVE_INFINITY if the bullet can never reach the target.
+   *
+   * @param shooterX x-coordinate of the shooter
+   * @param shooterY y-coordinate of the shooter
+   * @param targetX x-coordinate of the target
+   * @param targetY y-coordinate of the target
+   * @param targetHeading heading of the target in radians
+   * @param targetVelocity velocity of the target
+   * @param bulletVelocity velocity of the bullet
+   * @return the time it takes for the bullet to reach the target
+   */
+  public static double getInterceptTime(double shooterX, double shooterY, double targetX,
+      double targetY, double targetHeading, double targetVelocity, double bulletVelocity) {
+    double dx = targetX - shooterX;
+    double dy = targetY - shooterY;
+    double vx = Math.sin(targetHeading) * targetVelocity;
+    double vy = Math.cos(targetHeading) * targetVelocity;
+
+    // a*t^2 + b*t + c = 0
+    double a = vx * vx + vy * vy - bulletVelocity * bulletVelocity;
+    double b = 2.0 * (dx * vx + dy * vy);
+    double c = dx * dx + dy * dy;
+
+    // the bullet and target have the same speed
+    if (a == 0.0) {
+      return b < 0.0 ? -c / b : Double.POSITIVE_INFINITY;
+    }
+
+    double discriminant = b * b - 4.0 * a * c;
+    if (discriminant < 0.0) {
+      return Double.POSITIVE_INFINITY;
+    }
+
+    double root = Math.sqrt(discriminant);
+    double t1 = (-b - root) / (2.0 * a);
+    double t2 = (-b + root) / (2.0 * a);
 
-    return new Point2D.Double(targetX, targetY);
+    double t = Math.min(t1, t2);
+    if (t < 0.0) {
+      t = Math.max(t1, t2);
+    }
+    return t < 0.0 ? Double.POSITIVE_INFINITY : t;
   }
 }
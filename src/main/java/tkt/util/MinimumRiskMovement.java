@@ -0,0 +1,288 @@
+package tkt.util;
+
+/**
+ * Chooses where to move in a melee battle by evaluating the risk of a fixed number of candidate
+ * destinations around the robot. The risk of a point is the sum over every enemy of the energy
+ * of the enemy divided by the square of its distance to the point, plus a smaller term of the
+ * same form for the current position of the robot, so that the robot keeps moving. The current
+ * destination is evaluated along with the new candidates, so the robot only changes course when
+ * a safer point is found.
+ *
+ * The enemies and candidates are kept in flat arrays whose sizes are fixed when the
+ * MinimumRiskMovement is constructed, so choosing a destination does not allocate memory and
+ * takes at most numCandidates * maxEnemies evaluations, however many robots are in the battle.
+ *
+ * @author Todd Taomae
+ */
+public class MinimumRiskMovement {
+  /** Closest a destination can be to a wall. */
+  private static final double WALL_MARGIN = 40.0;
+  /** Minimum distance from the robot to the candidates. */
+  private static final double MIN_CANDIDATE_DISTANCE = 50.0;
+  /** Maximum distance from the robot to the candidates. */
+  private static final double MAX_CANDIDATE_DISTANCE = 200.0;
+  /** Fraction of the distance to the nearest enemy at which the candidates are placed. */
+  private static final double NEAREST_ENEMY_FRACTION = 0.5;
+  /** Risk of the current position of the robot, in the same units as the energy of an enemy. */
+  private static final double POSITION_RISK = 20.0;
+  /** Rotation of the candidates between updates, so that every direction is tried over time. */
+  private static final double CANDIDATE_ROTATION = Math.PI * (3.0 - Math.sqrt(5.0));
+
+  private double minX = Double.NEGATIVE_INFINITY;
+  private double minY = Double.NEGATIVE_INFINITY;
+  private double maxX = Double.POSITIVE_INFINITY;
+  private double maxY = Double.POSITIVE_INFINITY;
+
+  private final double[] enemyX;
+  private final double[] enemyY;
+  private final double[] enemyEnergy;
+  private int numEnemies;
+
+  private final double[] candidateX;
+  private final double[] candidateY;
+  /** Angle of the first candidate. */
+  private double candidateAngle;
+
+  private boolean hasDestination;
+  private double destinationX;
+  private double destinationY;
+  private double destinationRisk;
+
+  /**
+   * Constructs a new MinimumRiskMovement.
+   * @param numCandidates number of candidate destinations evaluated on each update
+   * @param maxEnemies maximum number of enemies
+   * @throws IllegalArgumentException if either argument is less than or equal to zero
+   */
+  public MinimumRiskMovement(int numCandidates, int maxEnemies) throws IllegalArgumentException {
+    if (numCandidates <= 0) {
+      throw new IllegalArgumentException("numCandidates " + numCandidates
+          + ": must be greater than 0.");
+    }
+    if (maxEnemies <= 0) {
+      throw new IllegalArgumentException("maxEnemies " + maxEnemies
+          + ": must be greater than 0.");
+    }
+    this.enemyX = new double[maxEnemies];
+    this.enemyY = new double[maxEnemies];
+    this.enemyEnergy = new double[maxEnemies];
+    this.candidateX = new double[numCandidates];
+    this.candidateY = new double[numCandidates];
+  }
+
+  /**
+   * Sets the size of the battlefield, which the destinations are kept inside of.
+   * @param width width of the battlefield
+   * @param height height of the battlefield
+   */
+  public void setBattleField(double width, double height) {
+    this.minX = WALL_MARGIN;
+    this.minY = WALL_MARGIN;
+    this.maxX = width - WALL_MARGIN;
+    this.maxY = height - WALL_MARGIN;
+  }
+
+  /**
+   * Removes every enemy, before the current enemies are added.
+   */
+  public void clearEnemies() {
+    this.numEnemies = 0;
+  }
+
+  /**
+   * Adds an enemy.
+   * @param x x-coordinate of the enemy
+   * @param y y-coordinate of the enemy
+   * @param energy energy of the enemy
+   * @throws IllegalStateException if the maximum number of enemies have already been added
+   */
+  public void addEnemy(double x, double y, double energy) throws IllegalStateException {
+    if (this.numEnemies == this.enemyX.length) {
+      throw new IllegalStateException("The maximum number of enemies have been added.");
+    }
+    this.enemyX[this.numEnemies] = x;
+    this.enemyY[this.numEnemies] = y;
+    this.enemyEnergy[this.numEnemies] = energy;
+    this.numEnemies++;
+  }
+
+  /**
+   * Evaluates the candidate destinations around the robot and the current destination, and
+   * chooses the one with the lowest risk. The candidates are evenly spaced on a circle around
+   * the robot whose radius depends on the distance to the nearest enemy.
+   * @param myX x-coordinate of the robot
+   * @param myY y-coordinate of the robot
+   */
+  public void update(double myX, double myY) {
+    double nearest = Double.POSITIVE_INFINITY;
+    for (int i = 0; i < this.numEnemies; i++) {
+      nearest = Math.min(nearest,
+          MathUtility.getDistance(myX, myY, this.enemyX[i], this.enemyY[i]));
+    }
+    double distance = Math.max(MIN_CANDIDATE_DISTANCE,
+        Math.min(MAX_CANDIDATE_DISTANCE, nearest * NEAREST_ENEMY_FRACTION));
+
+    // the current destination is the first point to beat
+    double bestX = this.destinationX;
+    double bestY = this.destinationY;
+    double bestRisk = this.hasDestination
+        ? this.getRisk(bestX, bestY, myX, myY) : Double.POSITIVE_INFINITY;
+
+    int numCandidates = this.candidateX.length;
+    double step = 2 * Math.PI / numCandidates;
+    for (int i = 0; i < numCandidates; i++) {
+      double angle = this.candidateAngle + i * step;
+      double x = this.clampX(myX + FastTrig.sin(angle) * distance);
+      double y = this.clampY(myY + FastTrig.cos(angle) * distance);
+      this.candidateX[i] = x;
+      this.candidateY[i] = y;
+
+      // without a destination, the first candidate is chosen even if every risk is infinite
+      double risk = this.getRisk(x, y, myX, myY);
+      if (risk < bestRisk || (i == 0 && !this.hasDestination)) {
+        bestRisk = risk;
+        bestX = x;
+        bestY = y;
+      }
+    }
+    this.candidateAngle = (this.candidateAngle + CANDIDATE_ROTATION) % (2 * Math.PI);
+
+    this.hasDestination = true;
+    this.destinationX = bestX;
+    this.destinationY = bestY;
+    this.destinationRisk = bestRisk;
+  }
+
+  /**
+   * Returns the risk of moving to the specified point: the energy of each enemy divided by the
+   * square of its distance to the point, plus the same for the current position of the robot.
+   * @param x x-coordinate of the point
+   * @param y y-coordinate of the point
+   * @param myX x-coordinate of the robot
+   * @param myY y-coordinate of the robot
+   * @return the risk of the point
+   */
+  public double getRisk(double x, double y, double myX, double myY) {
+    double risk = POSITION_RISK / getDistanceSq(x, y, myX, myY);
+    for (int i = 0; i < this.numEnemies; i++) {
+      risk += this.enemyEnergy[i] / getDistanceSq(x, y, this.enemyX[i], this.enemyY[i]);
+    }
+    return risk;
+  }
+
+  /**
+   * Returns the square of the distance between two points.
+   * @param x1 x-coordinate of the first point
+   * @param y1 y-coordinate of the first point
+   * @param x2 x-coordinate of the second point
+   * @param y2 y-coordinate of the second point
+   * @return the square of the distance
+   */
+  private static double getDistanceSq(double x1, double y1, double x2, double y2) {
+    double dx = x2 - x1;
+    double dy = y2 - y1;
+    return dx * dx + dy * dy;
+  }
+
+  /**
+   * Returns the x-coordinate moved inside of the battlefield.
+   * @param x x-coordinate
+   * @return the nearest x-coordinate inside of the battlefield
+   */
+  private double clampX(double x) {
+    return Math.max(this.minX, Math.min(this.maxX, x));
+  }
+
+  /**
+   * Returns the y-coordinate moved inside of the battlefield.
+   * @param y y-coordinate
+   * @return the nearest y-coordinate inside of the battlefield
+   */
+  private double clampY(double y) {
+    return Math.max(this.minY, Math.min(this.maxY, y));
+  }
+
+  /**
+   * Returns the number of enemies which have been added.
+   * @return the number of enemies
+   */
+  public int getNumEnemies() {
+    return this.numEnemies;
+  }
+
+  /**
+   * Returns the number of candidate destinations evaluated on each update.
+   * @return the number of candidates
+   */
+  public int getNumCandidates() {
+    return this.candidateX.length;
+  }
+
+  /**
+   * Returns the x-coordinate of a candidate of the most recent update.
+   * @param index index of the candidate
+   * @return the x-coordinate of the candidate
+   * @throws IndexOutOfBoundsException if the index is out of range
+   *     (index < 0 || index >= getNumCandidates())
+   */
+  public double getCandidateX(int index) throws IndexOutOfBoundsException {
+    this.checkCandidate(index);
+    return this.candidateX[index];
+  }
+
+  /**
+   * Returns the y-coordinate of a candidate of the most recent update.
+   * @param index index of the candidate
+   * @return the y-coordinate of the candidate
+   * @throws IndexOutOfBoundsException if the index is out of range
+   *     (index < 0 || index >= getNumCandidates())
+   */
+  public double getCandidateY(int index) throws IndexOutOfBoundsException {
+    this.checkCandidate(index);
+    return this.candidateY[index];
+  }
+
+  /**
+   * Checks the index of a candidate.
+   * @param index index of the candidate
+   * @throws IndexOutOfBoundsException if the index is out of range
+   */
+  private void checkCandidate(int index) throws IndexOutOfBoundsException {
+    if (index < 0 || index >= this.candidateX.length) {
+      throw new IndexOutOfBoundsException("Index: " + index + ", Size: "
+          + this.candidateX.length);
+    }
+  }
+
+  /**
+   * Returns whether or not a destination has been chosen.
+   * @return true if update has been called
+   */
+  public boolean hasDestination() {
+    return this.hasDestination;
+  }
+
+  /**
+   * Returns the x-coordinate of the destination with the lowest risk.
+   * @return the x-coordinate of the destination
+   */
+  public double getDestinationX() {
+    return this.destinationX;
+  }
+
+  /**
+   * Returns the y-coordinate of the destination with the lowest risk.
+   * @return the y-coordinate of the destination
+   */
+  public double getDestinationY() {
+    return this.destinationY;
+  }
+
+  /**
+   * Returns the risk of the destination when it was chosen.
+   * @return the risk of the destination
+   */
+  public double getDestinationRisk() {
+    return this.destinationRisk;
+  }
+}
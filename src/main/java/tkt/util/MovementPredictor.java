@@ -0,0 +1,330 @@
+package tkt.util;
+
+import robocode.util.Utils;
+
+/**
+ * Predicts where this robot will be after its movement commands have been carried out for some
+ * number of ticks, following the rules of robocode exactly: the robot accelerates by 1 and
+ * decelerates by 2 per tick up to a velocity of 8, slows down in time to stop at the end of the
+ * distance to move, and turns by at most 10 - 0.75 * |velocity| degrees per tick. A robot which
+ * runs into a wall is moved back to the wall along its heading and stops.
+ *
+ * The state of the robot is kept in this MovementPredictor and updated in place, so a single
+ * MovementPredictor can be reused to evaluate any number of candidate paths without allocating
+ * memory. A path can be branched by copying the state of another MovementPredictor.
+ *
+ * @author Todd Taomae
+ */
+public class MovementPredictor {
+  /** Amount a robot accelerates per tick. */
+  public static final double ACCELERATION = 1.0;
+  /** Amount a robot decelerates per tick. */
+  public static final double DECELERATION = 2.0;
+  /** Maximum velocity of a robot. */
+  public static final double MAX_VELOCITY = 8.0;
+  /** Maximum turn rate of a robot which is not moving, in radians per tick. */
+  private static final double MAX_TURN_RATE = Math.toRadians(10.0);
+  /** Amount the turn rate decreases for each unit of velocity, in radians per tick. */
+  private static final double TURN_RATE_DECREASE = Math.toRadians(0.75);
+  /** Half the width of a robot; the closest the center of a robot can be to a wall. */
+  private static final double HALF_ROBOT_WIDTH = 18.0;
+
+  private double minX = Double.NEGATIVE_INFINITY;
+  private double minY = Double.NEGATIVE_INFINITY;
+  private double maxX = Double.POSITIVE_INFINITY;
+  private double maxY = Double.POSITIVE_INFINITY;
+
+  private double x;
+  private double y;
+  private double heading;
+  private double velocity;
+  private double distanceRemaining;
+  private double turnRemaining;
+  private double maxVelocity = MAX_VELOCITY;
+  private int ticks;
+  private boolean hitWall;
+
+  /**
+   * Sets the size of the battlefield whose walls stop the robot.
+   * @param width width of the battlefield
+   * @param height height of the battlefield
+   */
+  public void setBattleField(double width, double height) {
+    this.minX = HALF_ROBOT_WIDTH;
+    this.minY = HALF_ROBOT_WIDTH;
+    this.maxX = width - HALF_ROBOT_WIDTH;
+    this.maxY = height - HALF_ROBOT_WIDTH;
+  }
+
+  /**
+   * Sets the current state of the robot. The robot has no movement commands, the maximum
+   * velocity is reset, and the number of ticks is reset to 0.
+   * @param x x-coordinate of the robot
+   * @param y y-coordinate of the robot
+   * @param heading heading of the robot in radians
+   * @param velocity velocity of the robot
+   */
+  public void setState(double x, double y, double heading, double velocity) {
+    this.x = x;
+    this.y = y;
+    this.heading = heading;
+    this.velocity = velocity;
+    this.distanceRemaining = 0.0;
+    this.turnRemaining = 0.0;
+    this.maxVelocity = MAX_VELOCITY;
+    this.ticks = 0;
+    this.hitWall = false;
+  }
+
+  /**
+   * Copies the state, commands, and battlefield of another MovementPredictor, so that a path can
+   * be continued in several ways.
+   * @param other MovementPredictor to copy
+   */
+  public void copy(MovementPredictor other) {
+    this.minX = other.minX;
+    this.minY = other.minY;
+    this.maxX = other.maxX;
+    this.maxY = other.maxY;
+    this.x = other.x;
+    this.y = other.y;
+    this.heading = other.heading;
+    this.velocity = other.velocity;
+    this.distanceRemaining = other.distanceRemaining;
+    this.turnRemaining = other.turnRemaining;
+    this.maxVelocity = other.maxVelocity;
+    this.ticks = other.ticks;
+    this.hitWall = other.hitWall;
+  }
+
+  /**
+   * Sets the robot to move ahead by the specified distance, as AdvancedRobot.setAhead does.
+   * @param distance distance to move; negative to move back, or infinite to keep moving
+   */
+  public void setAhead(double distance) {
+    this.distanceRemaining = distance;
+  }
+
+  /**
+   * Sets the robot to turn right by the specified angle, as AdvancedRobot.setTurnRightRadians
+   * does.
+   * @param radians angle to turn in radians; negative to turn left
+   */
+  public void setTurnRightRadians(double radians) {
+    this.turnRemaining = radians;
+  }
+
+  /**
+   * Sets the robot to turn the shortest way to the specified heading.
+   * @param heading heading in radians
+   */
+  public void setTurnToHeading(double heading) {
+    this.turnRemaining = Utils.normalRelativeAngle(heading - this.heading);
+  }
+
+  /**
+   * Sets the maximum velocity of the robot, as AdvancedRobot.setMaxVelocity does.
+   * @param maxVelocity maximum velocity, which is limited to between 0 and 8
+   */
+  public void setMaxVelocity(double maxVelocity) {
+    this.maxVelocity = Math.max(0.0, Math.min(MAX_VELOCITY, maxVelocity));
+  }
+
+  /**
+   * Carries out the movement commands for the specified number of ticks.
+   * @param numTicks number of ticks
+   */
+  public void advance(int numTicks) {
+    for (int i = 0; i < numTicks; i++) {
+      this.advance();
+    }
+  }
+
+  /**
+   * Carries out the movement commands for one tick. The robot turns at the rate of its current
+   * velocity, then changes its velocity, then moves along its new heading.
+   */
+  public void advance() {
+    this.ticks++;
+
+    // robots turn before they move
+    if (this.turnRemaining != 0.0) {
+      double turnRate = getTurnRateRadians(this.velocity);
+      double turn = Math.max(-turnRate, Math.min(turnRate, this.turnRemaining));
+      this.heading = Utils.normalAbsoluteAngle(this.heading + turn);
+      this.turnRemaining -= turn;
+    }
+
+    if (this.velocity == 0.0 && this.distanceRemaining == 0.0) {
+      return;
+    }
+    this.velocity = getNewVelocity(this.velocity, this.distanceRemaining, this.maxVelocity);
+    double sin = Math.sin(this.heading);
+    double cos = Math.cos(this.heading);
+    this.x += sin * this.velocity;
+    this.y += cos * this.velocity;
+    this.distanceRemaining -= this.velocity;
+
+    if (!(this.x >= this.minX && this.x <= this.maxX
+        && this.y >= this.minY && this.y <= this.maxY)) {
+      this.stopAtWall(sin * this.velocity, cos * this.velocity);
+    }
+  }
+
+  /**
+   * Moves a robot which has run into a wall back along the path it moved on this tick until it
+   * touches the wall, and stops it.
+   * @param dx change in the x-coordinate on this tick
+   * @param dy change in the y-coordinate on this tick
+   */
+  private void stopAtWall(double dx, double dy) {
+    // fraction of this tick's movement which takes the robot past the farthest wall
+    double fraction = 0.0;
+    if (this.x < this.minX && dx < 0.0) {
+      fraction = Math.max(fraction, (this.x - this.minX) / dx);
+    }
+    else if (this.x > this.maxX && dx > 0.0) {
+      fraction = Math.max(fraction, (this.x - this.maxX) / dx);
+    }
+    if (this.y < this.minY && dy < 0.0) {
+      fraction = Math.max(fraction, (this.y - this.minY) / dy);
+    }
+    else if (this.y > this.maxY && dy > 0.0) {
+      fraction = Math.max(fraction, (this.y - this.maxY) / dy);
+    }
+    fraction = Math.min(1.0, fraction);
+    this.x = Math.max(this.minX, Math.min(this.maxX, this.x - dx * fraction));
+    this.y = Math.max(this.minY, Math.min(this.maxY, this.y - dy * fraction));
+
+    this.velocity = 0.0;
+    this.distanceRemaining = 0.0;
+    this.hitWall = true;
+  }
+
+  /**
+   * Returns the velocity of a robot after one tick, as robocode computes it. The robot moves
+   * toward the maximum velocity, but slows down in time to stop at the end of the distance to
+   * move.
+   * @param velocity current velocity
+   * @param distance distance remaining to move; negative to move back
+   * @param maxVelocity maximum velocity
+   * @return the new velocity
+   */
+  public static double getNewVelocity(double velocity, double distance, double maxVelocity) {
+    if (distance < 0.0) {
+      return -getNewVelocity(-velocity, -distance, maxVelocity);
+    }
+    double goal = distance == Double.POSITIVE_INFINITY ? maxVelocity
+        : Math.min(getMaxVelocity(distance), maxVelocity);
+    if (velocity >= 0.0) {
+      return Math.max(velocity - DECELERATION, Math.min(goal, velocity + ACCELERATION));
+    }
+    // a robot moving the other way decelerates, then accelerates for the rest of the tick
+    return Math.max(velocity - ACCELERATION,
+        Math.min(goal, velocity + getMaxDeceleration(-velocity)));
+  }
+
+  /**
+   * Returns the highest velocity from which a robot can still stop within the specified
+   * distance.
+   * @param distance distance to move
+   * @return the highest velocity
+   */
+  public static double getMaxVelocity(double distance) {
+    double decelerationTime =
+        Math.max(1.0, Math.ceil((Math.sqrt((4 * 2 / DECELERATION) * distance + 1) - 1) / 2));
+    if (decelerationTime == Double.POSITIVE_INFINITY) {
+      return MAX_VELOCITY;
+    }
+    double decelerationDistance =
+        (decelerationTime / 2.0) * (decelerationTime - 1) * DECELERATION;
+    return ((decelerationTime - 1) * DECELERATION)
+        + ((distance - decelerationDistance) / decelerationTime);
+  }
+
+  /**
+   * Returns the largest change in velocity toward the other direction for a robot moving at the
+   * specified speed: it decelerates until it stops, then accelerates.
+   * @param speed absolute value of the velocity
+   * @return the largest change in velocity
+   */
+  private static double getMaxDeceleration(double speed) {
+    double decelerationTime = speed / DECELERATION;
+    double accelerationTime = 1.0 - decelerationTime;
+    return Math.min(1.0, decelerationTime) * DECELERATION
+        + Math.max(0.0, accelerationTime) * ACCELERATION;
+  }
+
+  /**
+   * Returns the maximum turn rate of a robot moving at the specified velocity.
+   * @param velocity velocity of the robot
+   * @return the maximum turn rate in radians per tick
+   */
+  public static double getTurnRateRadians(double velocity) {
+    return MAX_TURN_RATE - TURN_RATE_DECREASE * Math.abs(velocity);
+  }
+
+  /**
+   * Returns the predicted x-coordinate of the robot.
+   * @return the predicted x-coordinate of the robot
+   */
+  public double getX() {
+    return this.x;
+  }
+
+  /**
+   * Returns the predicted y-coordinate of the robot.
+   * @return the predicted y-coordinate of the robot
+   */
+  public double getY() {
+    return this.y;
+  }
+
+  /**
+   * Returns the predicted heading of the robot in radians.
+   * @return the predicted heading of the robot
+   */
+  public double getHeading() {
+    return this.heading;
+  }
+
+  /**
+   * Returns the predicted velocity of the robot.
+   * @return the predicted velocity of the robot
+   */
+  public double getVelocity() {
+    return this.velocity;
+  }
+
+  /**
+   * Returns the distance which the robot still has to move.
+   * @return the distance remaining
+   */
+  public double getDistanceRemaining() {
+    return this.distanceRemaining;
+  }
+
+  /**
+   * Returns the angle which the robot still has to turn.
+   * @return the turn remaining in radians
+   */
+  public double getTurnRemaining() {
+    return this.turnRemaining;
+  }
+
+  /**
+   * Returns the number of ticks which have been simulated since the state was set.
+   * @return the number of ticks
+   */
+  public int getTicks() {
+    return this.ticks;
+  }
+
+  /**
+   * Returns whether or not the robot has run into a wall since the state was set.
+   * @return true if the robot has hit a wall
+   */
+  public boolean hasHitWall() {
+    return this.hitWall;
+  }
+}
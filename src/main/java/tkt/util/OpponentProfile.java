@@ -0,0 +1,138 @@
+package tkt.util;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Parameters learned about an opponent which are kept across battles: the best number of
+ * velocities to average, and the accuracy of the opponent with and without dodging.
+ *
+ * A profile is written in a compact binary format which starts with a version number, so that
+ * profiles written in an older format are rejected instead of being misread. Reading a profile
+ * is a single fixed-size read.
+ *
+ * @author Todd Taomae
+ */
+public class OpponentProfile {
+  /** Version of the binary format. */
+  public static final int VERSION = 1;
+  /** Number of bytes in a profile written in the current format. */
+  public static final int SIZE = 4 + 4 + 4 + 8 + 8;
+
+  private int numBattles = 0;
+  private int numVelocities = 1;
+  private double accuracyWithDodge = 0.0;
+  private double accuracyWithoutDodge = 0.0;
+
+  /**
+   * Returns the name under which the profile of the specified robot is kept. The robot's instance
+   * number is removed, so every instance of a robot has the same profile.
+   * @param robotName name of the robot
+   * @return the name of the opponent
+   */
+  public static String getOpponentName(String robotName) {
+    // remove the instance number, e.g. "sample.Corners (2)"
+    int end = robotName.indexOf(" (");
+    if (end < 0) {
+      return robotName;
+    }
+    return robotName.substring(0, end);
+  }
+
+  /**
+   * Reads a profile.
+   * @param in input to read from
+   * @return the profile
+   * @throws IOException if the profile cannot be read or was written in a different version
+   */
+  public static OpponentProfile read(DataInput in) throws IOException {
+    int version = in.readInt();
+    if (version != VERSION) {
+      throw new IOException("version " + version + ": expected " + VERSION + ".");
+    }
+    OpponentProfile profile = new OpponentProfile();
+    profile.numBattles = in.readInt();
+    profile.numVelocities = in.readInt();
+    profile.accuracyWithDodge = in.readDouble();
+    profile.accuracyWithoutDodge = in.readDouble();
+    return profile;
+  }
+
+  /**
+   * Writes this profile.
+   * @param out output to write to
+   * @throws IOException if the profile cannot be written
+   */
+  public void write(DataOutput out) throws IOException {
+    out.writeInt(VERSION);
+    out.writeInt(this.numBattles);
+    out.writeInt(this.numVelocities);
+    out.writeDouble(this.accuracyWithDodge);
+    out.writeDouble(this.accuracyWithoutDodge);
+  }
+
+  /**
+   * Returns the number of battles which have been fought against the opponent.
+   * @return the number of battles
+   */
+  public int getNumBattles() {
+    return this.numBattles;
+  }
+
+  /**
+   * Sets the number of battles which have been fought against the opponent.
+   * @param numBattles the number of battles
+   */
+  public void setNumBattles(int numBattles) {
+    this.numBattles = numBattles;
+  }
+
+  /**
+   * Returns the best number of velocities to average.
+   * @return the best number of velocities
+   */
+  public int getNumVelocities() {
+    return this.numVelocities;
+  }
+
+  /**
+   * Sets the best number of velocities to average.
+   * @param numVelocities the best number of velocities
+   */
+  public void setNumVelocities(int numVelocities) {
+    this.numVelocities = numVelocities;
+  }
+
+  /**
+   * Returns the accuracy of the opponent while dodging.
+   * @return the accuracy of the opponent while dodging
+   */
+  public double getAccuracyWithDodge() {
+    return this.accuracyWithDodge;
+  }
+
+  /**
+   * Sets the accuracy of the opponent while dodging.
+   * @param accuracy the accuracy of the opponent while dodging
+   */
+  public void setAccuracyWithDodge(double accuracy) {
+    this.accuracyWithDodge = accuracy;
+  }
+
+  /**
+   * Returns the accuracy of the opponent while not dodging.
+   * @return the accuracy of the opponent while not dodging
+   */
+  public double getAccuracyWithoutDodge() {
+    return this.accuracyWithoutDodge;
+  }
+
+  /**
+   * Sets the accuracy of the opponent while not dodging.
+   * @param accuracy the accuracy of the opponent while not dodging
+   */
+  public void setAccuracyWithoutDodge(double accuracy) {
+    this.accuracyWithoutDodge = accuracy;
+  }
+}
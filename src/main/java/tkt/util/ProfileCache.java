@@ -0,0 +1,167 @@
+package tkt.util;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The profiles of every opponent which has been fought, kept in a single file. The number of
+ * bytes the file will take is tracked as profiles are added, and whenever it would exceed the
+ * quota, the profiles of the opponents which were least recently fought are removed. Writing the
+ * cache writes only the remaining profiles, in order from least to most recently fought, so that
+ * the order is kept when the cache is read again.
+ *
+ * @author Todd Taomae
+ */
+public class ProfileCache {
+  /** Version of the binary format. */
+  public static final int VERSION = 1;
+  /** Number of bytes written before the profiles: the version and the number of profiles. */
+  public static final int HEADER_SIZE = 4 + 4;
+
+  private final long quota;
+  /** Profiles in order from least to most recently fought. */
+  private final Map<String, OpponentProfile> profiles =
+      new LinkedHashMap<String, OpponentProfile>(16, 0.75f, true);
+  private long sizeBytes = HEADER_SIZE;
+
+  /**
+   * Constructs a new, empty ProfileCache which may take at most the specified number of bytes.
+   * @param quota maximum number of bytes
+   * @throws IllegalArgumentException if the quota is less than the size of the header
+   */
+  public ProfileCache(long quota) throws IllegalArgumentException {
+    if (quota < HEADER_SIZE) {
+      throw new IllegalArgumentException("quota " + quota + ": must be at least "
+          + HEADER_SIZE + ".");
+    }
+    this.quota = quota;
+  }
+
+  /**
+   * Reads a cache. If the cache which was written is larger than the specified quota, the
+   * profiles of the opponents which were least recently fought are removed.
+   * @param in input to read from
+   * @param quota maximum number of bytes
+   * @return the cache
+   * @throws IOException if the cache cannot be read or was written in a different version
+   * @throws IllegalArgumentException if the quota is less than the size of the header
+   */
+  public static ProfileCache read(DataInput in, long quota)
+      throws IOException, IllegalArgumentException {
+    ProfileCache cache = new ProfileCache(quota);
+    int version = in.readInt();
+    if (version != VERSION) {
+      throw new IOException("version " + version + ": expected " + VERSION + ".");
+    }
+    int size = in.readInt();
+    for (int i = 0; i < size; i++) {
+      String name = in.readUTF();
+      cache.put(name, OpponentProfile.read(in));
+    }
+    return cache;
+  }
+
+  /**
+   * Writes this cache.
+   * @param out output to write to
+   * @throws IOException if the cache cannot be written
+   */
+  public void write(DataOutput out) throws IOException {
+    out.writeInt(VERSION);
+    out.writeInt(this.profiles.size());
+    for (Map.Entry<String, OpponentProfile> entry : this.profiles.entrySet()) {
+      out.writeUTF(entry.getKey());
+      entry.getValue().write(out);
+    }
+  }
+
+  /**
+   * Returns the profile of the specified opponent, or null if it is not in the cache. The
+   * opponent becomes the most recently fought opponent.
+   * @param name name of the opponent
+   * @return the profile of the opponent, or null if it is not in the cache
+   */
+  public OpponentProfile get(String name) {
+    return this.profiles.get(name);
+  }
+
+  /**
+   * Adds or replaces the profile of the specified opponent, which becomes the most recently
+   * fought opponent. Then removes the profiles of the least recently fought opponents until the
+   * cache fits within the quota.
+   * @param name name of the opponent
+   * @param profile profile of the opponent
+   */
+  public void put(String name, OpponentProfile profile) {
+    if (this.profiles.put(name, profile) == null) {
+      this.sizeBytes += getEntrySize(name);
+    }
+
+    Iterator<Map.Entry<String, OpponentProfile>> iterator = this.profiles.entrySet().iterator();
+    while (this.sizeBytes > this.quota && iterator.hasNext()) {
+      this.sizeBytes -= getEntrySize(iterator.next().getKey());
+      iterator.remove();
+    }
+  }
+
+  /**
+   * Returns the number of bytes written for the profile of an opponent with the specified name.
+   * @param name name of the opponent
+   * @return the number of bytes written for the profile
+   */
+  private static long getEntrySize(String name) {
+    // writeUTF writes the length of the name followed by its modified UTF-8 encoding
+    long size = 2 + OpponentProfile.SIZE;
+    for (int i = 0; i < name.length(); i++) {
+      char c = name.charAt(i);
+      if (c >= 0x0001 && c <= 0x007F) {
+        size += 1;
+      }
+      else if (c <= 0x07FF) {
+        size += 2;
+      }
+      else {
+        size += 3;
+      }
+    }
+    return size;
+  }
+
+  /**
+   * Returns whether or not the cache contains the profile of the specified opponent. This does
+   * not change which opponent was most recently fought.
+   * @param name name of the opponent
+   * @return true if the cache contains the profile of the opponent
+   */
+  public boolean contains(String name) {
+    return this.profiles.containsKey(name);
+  }
+
+  /**
+   * Returns the number of profiles in the cache.
+   * @return the number of profiles
+   */
+  public int size() {
+    return this.profiles.size();
+  }
+
+  /**
+   * Returns the number of bytes which will be written for this cache.
+   * @return the number of bytes
+   */
+  public long getSizeBytes() {
+    return this.sizeBytes;
+  }
+
+  /**
+   * Returns the maximum number of bytes.
+   * @return the maximum number of bytes
+   */
+  public long getQuota() {
+    return this.quota;
+  }
+}
@@ -3,6 +3,7 @@ package tkt.util;
 import java.awt.geom.Point2D;
 import robocode.Robot;
 import robocode.ScannedRobotEvent;
+import robocode.util.Utils;
 
 /**
  * Robot information.
@@ -15,12 +16,26 @@ public class RobotInfo {
   private double x;
   private double y;
   private double heading;
+  private double headingChange;
   private double velocity;
+  private long time;
   private double absoluteBearing;
   private boolean justFired;
+  private double firePower;
   private int shotsFired;
   private int shotsHit;
 
+  /**
+   * Constructs a new RobotInfo for a robot which has not been scanned yet.
+   * @param name name of the robot
+   */
+  public RobotInfo(String name) {
+    this.name = name;
+
+    this.energy = -1.0; // initialize energy to an invalid value
+    this.time = -1; // initialize time to an invalid value
+  }
+
   /**
    * Constructs a new RobotInfo which contains information taken from the specified
    * ScannedRobotEvent.
@@ -31,9 +46,26 @@ public class RobotInfo {
     this.name = event.getName();
 
     this.energy = -1.0; // initialize energy to an invalid value
+    this.time = -1; // initialize time to an invalid value
     this.updateInfo(robot, event);
   }
 
+  /**
+   * Constructs a new RobotInfo which contains information taken from the specified
+   * ScannedRobotEvent, given the position and heading of the scanning robot.
+   * @param robotX x-coordinate of the scanning robot
+   * @param robotY y-coordinate of the scanning robot
+   * @param robotHeading heading of the scanning robot in radians
+   * @param event describes scanned robot
+   */
+  public RobotInfo(double robotX, double robotY, double robotHeading, ScannedRobotEvent event) {
+    this.name = event.getName();
+
+    this.energy = -1.0; // initialize energy to an invalid value
+    this.time = -1; // initialize time to an invalid value
+    this.updateInfo(robotX, robotY, robotHeading, event);
+  }
+
   /**
    * Updates the robot info.
    * @param robot scanning robot
@@ -41,30 +73,77 @@ public class RobotInfo {
    * @throws IllegalArgumentException if the event describes a different robot
    */
   public final void updateInfo(Robot robot, ScannedRobotEvent event) {
+    this.updateInfo(robot.getX(), robot.getY(), Math.toRadians(robot.getHeading()), event);
+  }
+
+  /**
+   * Updates the robot info, given the position and heading of the scanning robot. This does not
+   * allocate memory.
+   * @param robotX x-coordinate of the scanning robot
+   * @param robotY y-coordinate of the scanning robot
+   * @param robotHeading heading of the scanning robot in radians
+   * @param event describes the scanned robot
+   * @throws IllegalArgumentException if the event describes a different robot
+   */
+  public final void updateInfo(double robotX, double robotY, double robotHeading,
+      ScannedRobotEvent event) {
     if (!event.getName().equals(this.name)) {
       throw new IllegalArgumentException("event must describe the same robot");
     }
+    this.updateInfo(robotX, robotY, robotHeading, event.getTime(), event.getEnergy(),
+        event.getBearingRadians(), event.getDistance(), event.getHeadingRadians(),
+        event.getVelocity());
+  }
+
+  /**
+   * Updates the robot info from the values of a scan, given the position and heading of the
+   * scanning robot. This does not allocate memory, and does not need a ScannedRobotEvent, so the
+   * robot can also be scanned in a simulation.
+   * @param robotX x-coordinate of the scanning robot
+   * @param robotY y-coordinate of the scanning robot
+   * @param robotHeading heading of the scanning robot in radians
+   * @param time time of the scan
+   * @param energy energy of the scanned robot
+   * @param bearing bearing of the scanned robot relative to the heading of the scanning robot, in
+   *          radians
+   * @param distance distance to the scanned robot
+   * @param heading heading of the scanned robot in radians
+   * @param velocity velocity of the scanned robot
+   */
+  public final void updateInfo(double robotX, double robotY, double robotHeading, long time,
+      double energy, double bearing, double distance, double heading, double velocity) {
     double previousEnergy = this.energy;
-    this.energy = event.getEnergy();
-    this.heading = event.getHeadingRadians();
-    this.velocity = event.getVelocity();
+    this.energy = energy;
 
-    // set position
-    this.absoluteBearing = MathUtility.getAbsoluteBearing(robot.getHeading(), event.getBearing());
-    this.absoluteBearing = Math.toRadians(this.absoluteBearing);
-    Point2D.Double position = MathUtility.getTargetPoint(robot.getX(), robot.getY(),
-       this.absoluteBearing, event.getDistance());
+    // average change in heading per tick since the last scan
+    double previousHeading = this.heading;
+    long previousTime = this.time;
+    this.heading = heading;
+    this.time = time;
+    if (previousTime >= 0 && this.time > previousTime) {
+      this.headingChange = Utils.normalRelativeAngle(this.heading - previousHeading)
+          / (this.time - previousTime);
+    }
+    else {
+      this.headingChange = 0.0;
+    }
 
-    this.x = position.getX();
-    this.y = position.getY();
+    this.velocity = velocity;
+
+    // set position
+    this.absoluteBearing = MathUtility.getAbsoluteBearing(robotHeading, bearing);
+    this.x = MathUtility.getTargetX(robotX, this.absoluteBearing, distance);
+    this.y = MathUtility.getTargetY(robotY, this.absoluteBearing, distance);
 
     double energyChange = previousEnergy - this.energy;
     if (energyChange >= 0.1 && energyChange <= 3.0) {
       this.justFired = true;
+      this.firePower = energyChange;
       this.shotsFired++;
     }
     else {
       this.justFired = false;
+      this.firePower = 0.0;
     }
   }
 
@@ -89,7 +168,17 @@ public class RobotInfo {
    * @return the location of the robot.
    */
   public Point2D.Double getLocation() {
-    return new Point2D.Double(this.x, this.y);
+    return this.getLocation(new Point2D.Double());
+  }
+
+  /**
+   * Sets the specified point to the location of the robot. This does not allocate a new point.
+   * @param result point which is set to the location of the robot
+   * @return the result point
+   */
+  public Point2D.Double getLocation(Point2D.Double result) {
+    result.setLocation(this.x, this.y);
+    return result;
   }
 
   /**
@@ -116,6 +205,23 @@ public class RobotInfo {
     return heading;
   }
 
+  /**
+   * Returns the change in heading of the robot per tick in radians, averaged since the previous
+   * scan. Returns 0.0 if the robot has only been scanned once.
+   * @return the change in heading of the robot per tick
+   */
+  public double getHeadingChange() {
+    return headingChange;
+  }
+
+  /**
+   * Returns the time at which the robot was last scanned.
+   * @return the time at which the robot was last scanned
+   */
+  public long getTime() {
+    return time;
+  }
+
   /**
    * Returns the velocity of the robot.
    * @return the velocity of the robot.
@@ -140,6 +246,15 @@ public class RobotInfo {
     return justFired;
   }
 
+  /**
+   * Returns the power of the bullet the robot just fired, based on its drop in energy.
+   * Returns 0.0 if the robot did not just fire.
+   * @return the power of the bullet the robot just fired
+   */
+  public double getFirePower() {
+    return firePower;
+  }
+
   /**
    * Returns the accuracy of the robot.
    * @return the accuracy of the robot
@@ -162,4 +277,12 @@ public class RobotInfo {
   public int getShotsFired() {
     return this.shotsFired;
   }
+
+  /**
+   * Returns the number of shots hit.
+   * @return the number of shots hit
+   */
+  public int getShotsHit() {
+    return this.shotsHit;
+  }
 }
@@ -0,0 +1,227 @@
+package tkt.util;
+
+/**
+ * Predicts where a target will be when a bullet reaches it. The result of the most recent
+ * prediction is stored in this TargetPredictor rather than returned as a new object, so a single
+ * TargetPredictor can be reused for every prediction without allocating memory.
+ *
+ * If the size of the battlefield has been set, the predicted path of the target is clipped to the
+ * battlefield, and a target which would run into a wall is assumed to stop there.
+ *
+ * @author Todd Taomae
+ */
+public class TargetPredictor {
+  /** Maximum number of ticks which are simulated for a single prediction. */
+  private static final int MAX_TICKS = 200;
+  /** Half the width of a robot; the closest the center of a robot can be to a wall. */
+  private static final double HALF_ROBOT_WIDTH = 18.0;
+
+  private double minX = Double.NEGATIVE_INFINITY;
+  private double minY = Double.NEGATIVE_INFINITY;
+  private double maxX = Double.POSITIVE_INFINITY;
+  private double maxY = Double.POSITIVE_INFINITY;
+
+  private double x;
+  private double y;
+  private double heading;
+  private int ticks;
+
+  /**
+   * Sets the size of the battlefield which predicted paths are clipped to.
+   * @param width width of the battlefield
+   * @param height height of the battlefield
+   */
+  public void setBattleField(double width, double height) {
+    this.minX = HALF_ROBOT_WIDTH;
+    this.minY = HALF_ROBOT_WIDTH;
+    this.maxX = width - HALF_ROBOT_WIDTH;
+    this.maxY = height - HALF_ROBOT_WIDTH;
+  }
+
+  /**
+   * Returns whether or not a robot centered at the specified location would be inside the
+   * battlefield. Always returns true if the size of the battlefield has not been set.
+   * @param x x-coordinate of the center of the robot
+   * @param y y-coordinate of the center of the robot
+   * @return true if the robot would be inside the battlefield, false otherwise
+   */
+  public boolean isInBattleField(double x, double y) {
+    return x >= this.minX && x <= this.maxX && y >= this.minY && y <= this.maxY;
+  }
+
+  /**
+   * Predicts the position of a target which moves in a straight line at a constant velocity.
+   * The time it takes the bullet to reach the target is solved in closed form; the target is
+   * only simulated one tick at a time if it would run into a wall before the bullet reaches it.
+   *
+   * @param shooterX x-coordinate of the shooter
+   * @param shooterY y-coordinate of the shooter
+   * @param targetX x-coordinate of the target
+   * @param targetY y-coordinate of the target
+   * @param targetHeading heading of the target in radians
+   * @param targetVelocity velocity of the target
+   * @param bulletVelocity velocity of the bullet
+   */
+  public void predictLinear(double shooterX, double shooterY, double targetX, double targetY,
+      double targetHeading, double targetVelocity, double bulletVelocity) {
+    // solve for the time it takes the bullet to reach the target
+    // the bullet is fired on a tick, so round up to the next tick
+    double t = Math.ceil(MathUtility.getInterceptTime(shooterX, shooterY, targetX, targetY,
+        targetHeading, targetVelocity, bulletVelocity));
+    t = Math.max(1.0, t);
+
+    if (t <= MAX_TICKS) {
+      double predictedX = targetX + Math.sin(targetHeading) * targetVelocity * t;
+      double predictedY = targetY + Math.cos(targetHeading) * targetVelocity * t;
+
+      if (this.isInBattleField(predictedX, predictedY)) {
+        this.x = predictedX;
+        this.y = predictedY;
+        this.heading = targetHeading;
+        this.ticks = (int)t;
+        return;
+      }
+    }
+
+    // the target would run into a wall before the bullet reaches it
+    this.simulate(shooterX, shooterY, targetX, targetY, targetHeading, 0.0, targetVelocity,
+        bulletVelocity);
+  }
+
+  /**
+   * Predicts the position of a target which moves along a circular arc, turning by the same
+   * amount each tick at a constant velocity. The target is simulated one tick at a time until a
+   * bullet fired from (shooterX, shooterY) would reach it.
+   *
+   * @param shooterX x-coordinate of the shooter
+   * @param shooterY y-coordinate of the shooter
+   * @param targetX x-coordinate of the target
+   * @param targetY y-coordinate of the target
+   * @param targetHeading heading of the target in radians
+   * @param headingChange change in heading of the target per tick in radians
+   * @param targetVelocity velocity of the target
+   * @param bulletVelocity velocity of the bullet
+   */
+  public void predictCircular(double shooterX, double shooterY, double targetX, double targetY,
+      double targetHeading, double headingChange, double targetVelocity, double bulletVelocity) {
+    this.simulate(shooterX, shooterY, targetX, targetY, targetHeading, headingChange,
+        targetVelocity, bulletVelocity);
+  }
+
+  /**
+   * Simulates the target one tick at a time until a bullet fired from (shooterX, shooterY) would
+   * reach it. The ticks in which the target cannot possibly reach a wall are simulated first
+   * without checking the walls; the remaining ticks clip the target to the battlefield. The sine
+   * and cosine of the heading are computed once and then rotated by the heading change each
+   * tick, so the simulation does not call Math.sin and Math.cos every tick.
+   *
+   * @param shooterX x-coordinate of the shooter
+   * @param shooterY y-coordinate of the shooter
+   * @param targetX x-coordinate of the target
+   * @param targetY y-coordinate of the target
+   * @param targetHeading heading of the target in radians
+   * @param headingChange change in heading of the target per tick in radians
+   * @param targetVelocity velocity of the target
+   * @param bulletVelocity velocity of the bullet
+   */
+  private void simulate(double shooterX, double shooterY, double targetX, double targetY,
+      double targetHeading, double headingChange, double targetVelocity, double bulletVelocity) {
+    double predictedX = targetX;
+    double predictedY = targetY;
+    double predictedHeading = targetHeading;
+    double velocity = targetVelocity;
+
+    // sin(h + d) = sin(h)cos(d) + cos(h)sin(d) and cos(h + d) = cos(h)cos(d) - sin(h)sin(d)
+    double sin = Math.sin(targetHeading);
+    double cos = Math.cos(targetHeading);
+    double sinChange = Math.sin(headingChange);
+    double cosChange = Math.cos(headingChange);
+
+    // number of ticks before the target could possibly reach a wall
+    double wallDistance = Math.min(Math.min(targetX - this.minX, this.maxX - targetX),
+        Math.min(targetY - this.minY, this.maxY - targetY));
+    double safeTicks = velocity == 0.0 ? MAX_TICKS : wallDistance / Math.abs(velocity);
+
+    // distance the bullet travels before reaching target
+    double bulletTravelDistance = 0.0;
+    int n = 0;
+    boolean reached = false;
+
+    // simulate robot movement without checking the walls; each iteration is one tick
+    while (!reached && n + 1 <= safeTicks && n < MAX_TICKS) {
+      // robots turn before they move
+      predictedHeading += headingChange;
+      double nextSin = sin * cosChange + cos * sinChange;
+      cos = cos * cosChange - sin * sinChange;
+      sin = nextSin;
+      predictedX += sin * velocity;
+      predictedY += cos * velocity;
+
+      // update the position of the bullet
+      bulletTravelDistance += bulletVelocity;
+      n++;
+
+      reached = bulletTravelDistance
+          >= MathUtility.getDistance(shooterX, shooterY, predictedX, predictedY);
+    }
+
+    // simulate the remaining ticks, stopping the target if it runs into a wall
+    while (!reached && n < MAX_TICKS) {
+      predictedHeading += headingChange;
+      double nextSin = sin * cosChange + cos * sinChange;
+      cos = cos * cosChange - sin * sinChange;
+      sin = nextSin;
+      predictedX += sin * velocity;
+      predictedY += cos * velocity;
+
+      if (!this.isInBattleField(predictedX, predictedY)) {
+        predictedX = Math.min(this.maxX, Math.max(this.minX, predictedX));
+        predictedY = Math.min(this.maxY, Math.max(this.minY, predictedY));
+        velocity = 0.0;
+      }
+
+      bulletTravelDistance += bulletVelocity;
+      n++;
+
+      reached = bulletTravelDistance
+          >= MathUtility.getDistance(shooterX, shooterY, predictedX, predictedY);
+    }
+
+    this.x = predictedX;
+    this.y = predictedY;
+    this.heading = predictedHeading;
+    this.ticks = n;
+  }
+
+  /**
+   * Returns the predicted x-coordinate of the target.
+   * @return the predicted x-coordinate of the target
+   */
+  public double getX() {
+    return this.x;
+  }
+
+  /**
+   * Returns the predicted y-coordinate of the target.
+   * @return the predicted y-coordinate of the target
+   */
+  public double getY() {
+    return this.y;
+  }
+
+  /**
+   * Returns the predicted heading of the target in radians.
+   * @return the predicted heading of the target
+   */
+  public double getHeading() {
+    return this.heading;
+  }
+
+  /**
+   * Returns the number of ticks until the bullet reaches the predicted position.
+   * @return the number of ticks until the bullet reaches the predicted position
+   */
+  public int getTicks() {
+    return this.ticks;
+  }
+}
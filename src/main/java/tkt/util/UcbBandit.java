@@ -0,0 +1,160 @@
+package tkt.util;
+
+/**
+ * Chooses between a fixed number of options, or arms, whose rewards are only observed for the
+ * arm which is chosen, using the UCB1 algorithm. Each arm is chosen once, then the arm with the
+ * largest upper confidence bound on its mean reward is chosen: the mean reward plus an
+ * exploration bonus which shrinks as the arm is tried more often. The arm which is truly best is
+ * soon chosen almost every time, while the other arms are tried just often enough to be sure.
+ *
+ * Each update may count several trials at once, for example every bullet fired in a round, so
+ * the confidence bounds tighten as fast as the evidence arrives. The statistics of each arm are
+ * kept in primitive arrays.
+ *
+ * @author Todd Taomae
+ */
+public class UcbBandit {
+  private final double exploration;
+  /** Sum of the rewards of each arm. */
+  private final double[] rewards;
+  /** Number of trials of each arm. */
+  private final int[] trials;
+  private int totalTrials;
+
+  /**
+   * Constructs a new UcbBandit with the specified number of arms. The exploration constant
+   * scales the exploration bonus; UCB1 uses the square root of 2 for rewards between 0 and 1.
+   * @param numArms number of arms
+   * @param exploration exploration constant
+   * @throws IllegalArgumentException if the number of arms is less than or equal to zero or the
+   *           exploration constant is negative
+   */
+  public UcbBandit(int numArms, double exploration) throws IllegalArgumentException {
+    if (numArms <= 0) {
+      throw new IllegalArgumentException("numArms " + numArms + ": must be greater than 0.");
+    }
+    if (exploration < 0.0) {
+      throw new IllegalArgumentException("exploration " + exploration
+          + ": must not be negative.");
+    }
+    this.exploration = exploration;
+    this.rewards = new double[numArms];
+    this.trials = new int[numArms];
+  }
+
+  /**
+   * Returns the arm to choose next: the first arm which has not been tried, or else the arm with
+   * the largest upper confidence bound. Ties go to the arm with the lower index.
+   * @return the arm to choose
+   */
+  public int select() {
+    for (int arm = 0; arm < this.trials.length; arm++) {
+      if (this.trials[arm] == 0) {
+        return arm;
+      }
+    }
+
+    double logTotal = Math.log(this.totalTrials);
+    int best = 0;
+    double bestBound = Double.NEGATIVE_INFINITY;
+    for (int arm = 0; arm < this.trials.length; arm++) {
+      double bound = this.getMean(arm)
+          + this.exploration * Math.sqrt(logTotal / this.trials[arm]);
+      if (bound > bestBound) {
+        best = arm;
+        bestBound = bound;
+      }
+    }
+    return best;
+  }
+
+  /**
+   * Adds the rewards of one or more trials of an arm.
+   * @param arm arm which was tried
+   * @param reward sum of the rewards of the trials, each between 0 and 1
+   * @param numTrials number of trials
+   * @throws IllegalArgumentException if the number of trials is negative or the reward is not
+   *           between 0 and the number of trials
+   * @throws IndexOutOfBoundsException if the arm does not exist
+   */
+  public void update(int arm, double reward, int numTrials)
+      throws IllegalArgumentException, IndexOutOfBoundsException {
+    this.checkArm(arm);
+    // written so that a reward of NaN is rejected
+    if (numTrials < 0 || !(reward >= 0.0 && reward <= numTrials)) {
+      throw new IllegalArgumentException("reward " + reward + ", numTrials " + numTrials
+          + ": reward must be between 0 and numTrials.");
+    }
+    this.rewards[arm] += reward;
+    this.trials[arm] += numTrials;
+    this.totalTrials += numTrials;
+  }
+
+  /**
+   * Returns the arm with the largest mean reward among the arms which have been tried, or 0 if no
+   * arm has been tried. Ties go to the arm with the lower index.
+   * @return the best arm
+   */
+  public int getBestArm() {
+    int best = 0;
+    for (int arm = 1; arm < this.trials.length; arm++) {
+      if (this.trials[arm] > 0
+          && (this.trials[best] == 0 || this.getMean(arm) > this.getMean(best))) {
+        best = arm;
+      }
+    }
+    return best;
+  }
+
+  /**
+   * Returns the mean reward of an arm, or 0 if it has not been tried.
+   * @param arm arm
+   * @return the mean reward of the arm
+   * @throws IndexOutOfBoundsException if the arm does not exist
+   */
+  public double getMean(int arm) throws IndexOutOfBoundsException {
+    this.checkArm(arm);
+    if (this.trials[arm] == 0) {
+      return 0.0;
+    }
+    return this.rewards[arm] / this.trials[arm];
+  }
+
+  /**
+   * Returns the number of trials of an arm.
+   * @param arm arm
+   * @return the number of trials of the arm
+   * @throws IndexOutOfBoundsException if the arm does not exist
+   */
+  public int getTrials(int arm) throws IndexOutOfBoundsException {
+    this.checkArm(arm);
+    return this.trials[arm];
+  }
+
+  /**
+   * Returns the number of trials of every arm.
+   * @return the total number of trials
+   */
+  public int getTotalTrials() {
+    return this.totalTrials;
+  }
+
+  /**
+   * Returns the number of arms.
+   * @return the number of arms
+   */
+  public int getNumArms() {
+    return this.trials.length;
+  }
+
+  /**
+   * Checks that an arm exists.
+   * @param arm arm
+   * @throws IndexOutOfBoundsException if the arm does not exist
+   */
+  private void checkArm(int arm) throws IndexOutOfBoundsException {
+    if (arm < 0 || arm >= this.trials.length) {
+      throw new IndexOutOfBoundsException("Index: " + arm + ", Size: " + this.trials.length);
+    }
+  }
+}
@@ -0,0 +1,274 @@
+package tkt.util;
+
+/**
+ * Keeps track of the velocity history of a robot and evaluates the linearly weighted moving
+ * average velocity for every window size between 1 and a maximum size. Each window size is used
+ * as a virtual predictor: for every scan, the position of the robot is remembered, and once a
+ * bullet fired at that time would have reached the robot, each window's average velocity is
+ * scored by whether it would have predicted the robot's actual position.
+ *
+ * The velocity history is stored as prefix sums, so the weighted average for any window size can
+ * be computed in constant time, even long after the scan was made. The cost of each scan is
+ * therefore bounded by the maximum window size, and nothing is allocated after construction.
+ *
+ * The hits of each window size can be kept from one round to the next, so that a robot which
+ * keeps moving the same way is predicted with the best window size from the start of each round.
+ *
+ * @author Todd Taomae
+ */
+public class VelocityWindowSelector {
+  /** Maximum number of ticks a bullet can travel before its prediction is discarded. */
+  private static final int MAX_FLIGHT_TICKS = 128;
+  /** Maximum distance from the predicted position for a prediction to be considered a hit. */
+  private static final double HIT_TOLERANCE = 18.0;
+
+  private final int maxWindow;
+
+  /** Number of velocities which have been added. */
+  private int numVelocities;
+  /** Prefix sums of the velocities, indexed by (number of velocities) % capacity. */
+  private final double[] sums;
+  /** Prefix sums of each velocity multiplied by its index. */
+  private final double[] indexSums;
+
+  /** Number of predictions which have not been scored yet. */
+  private int numPending;
+  private final int[] pendingIndex;
+  private final long[] pendingScanTime;
+  private final long[] pendingHitTime;
+  private final double[] pendingX;
+  private final double[] pendingY;
+  private final double[] pendingSin;
+  private final double[] pendingCos;
+
+  /** Number of hits for each window size. */
+  private final int[] hits;
+  /** Number of predictions which have been scored. */
+  private int numScored;
+  private int bestWindow;
+
+  /**
+   * Constructs a new VelocityWindowSelector which evaluates window sizes from 1 to the specified
+   * maximum.
+   * @param maxWindow maximum window size
+   * @throws IllegalArgumentException if the maximum window size is less than or equal to zero
+   */
+  public VelocityWindowSelector(int maxWindow) throws IllegalArgumentException {
+    if (maxWindow <= 0) {
+      throw new IllegalArgumentException("maxWindow " + maxWindow + ": must be greater than 0.");
+    }
+    this.maxWindow = maxWindow;
+
+    // the prefix sums must reach back far enough to evaluate the largest window for the
+    // oldest prediction which has not been scored yet
+    int capacity = maxWindow + MAX_FLIGHT_TICKS + 1;
+    this.sums = new double[capacity];
+    this.indexSums = new double[capacity];
+
+    this.pendingIndex = new int[MAX_FLIGHT_TICKS];
+    this.pendingScanTime = new long[MAX_FLIGHT_TICKS];
+    this.pendingHitTime = new long[MAX_FLIGHT_TICKS];
+    this.pendingX = new double[MAX_FLIGHT_TICKS];
+    this.pendingY = new double[MAX_FLIGHT_TICKS];
+    this.pendingSin = new double[MAX_FLIGHT_TICKS];
+    this.pendingCos = new double[MAX_FLIGHT_TICKS];
+
+    this.hits = new int[maxWindow + 1];
+    this.bestWindow = 1;
+  }
+
+  /**
+   * Adds a scan of the robot. Predictions whose bullets would have reached the robot by the time
+   * of this scan are scored against its current position, then the velocity is added to the
+   * history and a new prediction is made for a bullet that takes the specified number of ticks to
+   * reach the robot.
+   *
+   * @param time time of the scan
+   * @param x x-coordinate of the robot
+   * @param y y-coordinate of the robot
+   * @param heading heading of the robot in radians
+   * @param velocity velocity of the robot
+   * @param flightTicks number of ticks a bullet fired now would take to reach the robot
+   */
+  public void addScan(long time, double x, double y, double heading, double velocity,
+      double flightTicks) {
+    this.scorePredictions(time, x, y);
+    this.addVelocity(velocity);
+
+    if (this.numPending < MAX_FLIGHT_TICKS && flightTicks < MAX_FLIGHT_TICKS) {
+      int i = this.numPending++;
+      this.pendingIndex[i] = this.numVelocities;
+      this.pendingScanTime[i] = time;
+      this.pendingHitTime[i] = time + (long)Math.ceil(flightTicks);
+      this.pendingX[i] = x;
+      this.pendingY[i] = y;
+      this.pendingSin[i] = FastTrig.sin(heading);
+      this.pendingCos[i] = FastTrig.cos(heading);
+    }
+  }
+
+  /**
+   * Starts a new round: the velocity history and the predictions which have not been scored yet
+   * are discarded, but the hits of each window size are kept.
+   */
+  public void startRound() {
+    this.numVelocities = 0;
+    this.numPending = 0;
+  }
+
+  /**
+   * Adds a velocity to the history.
+   * @param velocity velocity to add
+   */
+  private void addVelocity(double velocity) {
+    int previous = this.numVelocities % this.sums.length;
+    this.numVelocities++;
+    int current = this.numVelocities % this.sums.length;
+
+    this.sums[current] = this.sums[previous] + velocity;
+    this.indexSums[current] = this.indexSums[previous] + this.numVelocities * velocity;
+  }
+
+  /**
+   * Scores every prediction whose bullet would have reached the robot by the specified time.
+   * @param time current time
+   * @param x current x-coordinate of the robot
+   * @param y current y-coordinate of the robot
+   */
+  private void scorePredictions(long time, double x, double y) {
+    int i = 0;
+    while (i < this.numPending) {
+      // the prefix sums needed for this prediction have been overwritten
+      boolean expired = this.numVelocities - this.pendingIndex[i] > MAX_FLIGHT_TICKS;
+
+      if (expired || this.pendingHitTime[i] <= time) {
+        if (!expired) {
+          this.score(i, time, x, y);
+        }
+        // replace with the last pending prediction
+        this.numPending--;
+        this.pendingIndex[i] = this.pendingIndex[this.numPending];
+        this.pendingScanTime[i] = this.pendingScanTime[this.numPending];
+        this.pendingHitTime[i] = this.pendingHitTime[this.numPending];
+        this.pendingX[i] = this.pendingX[this.numPending];
+        this.pendingY[i] = this.pendingY[this.numPending];
+        this.pendingSin[i] = this.pendingSin[this.numPending];
+        this.pendingCos[i] = this.pendingCos[this.numPending];
+      }
+      else {
+        i++;
+      }
+    }
+  }
+
+  /**
+   * Scores every window size against a single prediction.
+   * @param p index of the prediction
+   * @param time current time
+   * @param x current x-coordinate of the robot
+   * @param y current y-coordinate of the robot
+   */
+  private void score(int p, long time, double x, double y) {
+    int index = this.pendingIndex[p];
+    long ticks = time - this.pendingScanTime[p];
+
+    // distance actually traveled along the heading at the time of the prediction
+    double traveled = (x - this.pendingX[p]) * this.pendingSin[p]
+        + (y - this.pendingY[p]) * this.pendingCos[p];
+
+    for (int n = 1; n <= this.maxWindow; n++) {
+      // windows larger than the history at the time of the prediction use the whole history
+      double predicted = this.getAverage(index, Math.min(n, index)) * ticks;
+      if (Math.abs(predicted - traveled) < HIT_TOLERANCE) {
+        this.hits[n]++;
+      }
+    }
+    this.numScored++;
+
+    // prefer smaller windows if there is a tie
+    this.bestWindow = 1;
+    for (int n = 2; n <= this.maxWindow; n++) {
+      if (this.hits[n] > this.hits[this.bestWindow]) {
+        this.bestWindow = n;
+      }
+    }
+  }
+
+  /**
+   * Returns the weighted average of the n velocities ending with the velocity at the specified
+   * index in the history.
+   * @param index index of the most recent velocity in the average, starting at 1
+   * @param n number of velocities in the average
+   * @return the weighted average velocity
+   */
+  private double getAverage(int index, int n) {
+    int end = index % this.sums.length;
+    int start = (index - n) % this.sums.length;
+
+    // the weight of the velocity at index j is j - (index - n)
+    double sum = this.sums[end] - this.sums[start];
+    double weightedSum = (this.indexSums[end] - this.indexSums[start]) - (index - n) * sum;
+
+    // the sum of the weights is a triangle number
+    return weightedSum / (n * (n + 1) / 2.0);
+  }
+
+  /**
+   * Returns the linearly weighted moving average of the most recent velocities, where the most
+   * recent velocity has the largest weight. If fewer velocities have been added than the window
+   * size, all velocities are averaged. Returns 0.0 if no velocities have been added.
+   *
+   * @param window number of velocities to average
+   * @return the weighted moving average of the most recent velocities
+   * @throws IllegalArgumentException if the window is not between 1 and the maximum window size
+   */
+  public double getAverage(int window) throws IllegalArgumentException {
+    if (window <= 0 || window > this.maxWindow) {
+      throw new IllegalArgumentException("window " + window + ": must be between 1 and "
+          + this.maxWindow + ".");
+    }
+    if (this.numVelocities == 0) {
+      return 0.0;
+    }
+    return this.getAverage(this.numVelocities, Math.min(window, this.numVelocities));
+  }
+
+  /**
+   * Returns the window size which has predicted the position of the robot most often. Ties are
+   * broken in favor of the smaller window.
+   * @return the best window size
+   */
+  public int getBestWindow() {
+    return this.bestWindow;
+  }
+
+  /**
+   * Returns the number of times the specified window size has predicted the position of the robot.
+   * @param window window size
+   * @return the number of hits for the window size
+   * @throws IllegalArgumentException if the window is not between 1 and the maximum window size
+   */
+  public int getHits(int window) throws IllegalArgumentException {
+    if (window <= 0 || window > this.maxWindow) {
+      throw new IllegalArgumentException("window " + window + ": must be between 1 and "
+          + this.maxWindow + ".");
+    }
+    return this.hits[window];
+  }
+
+  /**
+   * Returns the number of predictions which have been scored.
+   * @return the number of predictions which have been scored
+   */
+  public int getNumScored() {
+    return this.numScored;
+  }
+
+  /**
+   * Returns the maximum window size.
+   * @return the maximum window size
+   */
+  public int getMaxWindow() {
+    return this.maxWindow;
+  }
+}
@@ -0,0 +1,255 @@
+package tkt.util;
+
+import robocode.util.Utils;
+
+/**
+ * Aims with several targeting strategies at once and keeps track of how often each would have
+ * hit. Each update computes the firing angle of every gun into a single array, and the angles are
+ * recorded in one own wave as virtual bullets. When the wave reaches the target, every virtual
+ * bullet within the width of the target is scored as a hit. The firing angle of the gun with the
+ * best score is used to aim the real gun.
+ *
+ * The guns share a TargetPredictor, the firing angles are computed once per update and reused as
+ * the virtual bullets, and scoring a wave only compares angles, so updating the guns does not
+ * allocate memory.
+ *
+ * @author Todd Taomae
+ */
+public class VirtualGunArray {
+  /** Linear targeting with the averaged velocity of the target. */
+  public static final int AVERAGED_LINEAR = 0;
+  /** Linear targeting with the most recent velocity of the target. */
+  public static final int LINEAR = 1;
+  /** Circular targeting with the most recent velocity and change in heading of the target. */
+  public static final int CIRCULAR = 2;
+  /** Aims directly at the target. */
+  public static final int HEAD_ON = 3;
+  /** Aims at the guess factor where the target has most often been. */
+  public static final int GUESS_FACTOR = 4;
+  /** Aims at the guess factor where the target has most often been in similar situations. */
+  public static final int DYNAMIC_CLUSTERING = 5;
+  /** Number of guns. */
+  public static final int NUM_GUNS = 6;
+
+  /** Half the width of a robot. */
+  private static final double HALF_ROBOT_WIDTH = 18.0;
+  /** Minimum change in heading per tick, in radians, for the target to be considered turning. */
+  private static final double MIN_HEADING_CHANGE = 0.001;
+
+  private final TargetPredictor predictor = new TargetPredictor();
+  private final GuessFactorGun guessFactorGun;
+  private final DynamicClusteringGun dynamicClusteringGun;
+
+  /** Firing angle of each gun as of the last update. */
+  private final double[] angles = new double[NUM_GUNS];
+  /** Moving average of the hit rate of each gun. */
+  private final double[] scores = new double[NUM_GUNS];
+  /** Number of virtual bullets of each gun which have hit. */
+  private final int[] hits = new int[NUM_GUNS];
+  /** Number of waves whose virtual bullets have been scored. */
+  private int numScored;
+  /** Weight of each new virtual bullet in the moving average of the hit rate. */
+  private final double decay;
+  private int bestGun = AVERAGED_LINEAR;
+
+  /**
+   * Constructs a new VirtualGunArray whose GuessFactor gun records observations in the specified
+   * statistics and whose DynamicClusteringGun records situations in the specified tree.
+   * @param stats statistics used by the GuessFactor gun
+   * @param situations tree of situations used by the DynamicClusteringGun
+   * @param decay weight of each new virtual bullet in the score of a gun
+   * @throws IllegalArgumentException if the decay rate is not between 0 (exclusive) and 1
+   *     (inclusive), or if the points of the tree do not have DynamicClusteringGun.NUM_FEATURES
+   *     dimensions
+   */
+  public VirtualGunArray(GuessFactorStats stats, KdTree situations, double decay)
+      throws IllegalArgumentException {
+    if (decay <= 0.0 || decay > 1.0) {
+      throw new IllegalArgumentException("decay " + decay + ": must be between 0 and 1.");
+    }
+    this.guessFactorGun = new GuessFactorGun(stats);
+    this.dynamicClusteringGun = new DynamicClusteringGun(situations);
+    this.decay = decay;
+  }
+
+  /**
+   * Sets the size of the battlefield used to predict the position of the target.
+   * @param width width of the battlefield
+   * @param height height of the battlefield
+   */
+  public void setBattleField(double width, double height) {
+    this.predictor.setBattleField(width, height);
+    this.dynamicClusteringGun.setBattleField(width, height);
+  }
+
+  /**
+   * Starts a new round. What each gun has learned and the score of each gun are kept.
+   */
+  public void startRound() {
+    this.dynamicClusteringGun.startRound();
+  }
+
+  /**
+   * Updates every gun with a new scan of the target. The virtual bullets of the own waves which
+   * reached the target during the most recent update of the WaveManager are scored, the firing
+   * angle of every gun is updated, and a new own wave is fired with a virtual bullet for each gun.
+   *
+   * @param time time of the scan
+   * @param waves waves fired by the shooter
+   * @param myX x-coordinate of the shooter
+   * @param myY y-coordinate of the shooter
+   * @param targetX x-coordinate of the target
+   * @param targetY y-coordinate of the target
+   * @param targetHeading heading of the target in radians
+   * @param headingChange change in heading of the target per tick in radians
+   * @param targetVelocity most recent velocity of the target
+   * @param averageVelocity averaged velocity of the target
+   * @param bulletVelocity velocity of the bullet which would be fired
+   * @return the new wave, or null if every wave is in use
+   */
+  public Wave update(long time, WaveManager waves, double myX, double myY, double targetX,
+      double targetY, double targetHeading, double headingChange, double targetVelocity,
+      double averageVelocity, double bulletVelocity) {
+    for (int i = 0; i < waves.getNumBrokenOwnWaves(); i++) {
+      this.score(waves.getBrokenOwnWave(i));
+    }
+
+    // the GuessFactor gun learns from the same waves and fires the new wave, which records the
+    // situation for the DynamicClusteringGun
+    Wave wave = this.guessFactorGun.update(time, waves, myX, myY, targetX, targetY,
+        targetHeading, targetVelocity, bulletVelocity);
+    this.angles[GUESS_FACTOR] = this.guessFactorGun.getFiringAngle();
+    this.dynamicClusteringGun.update(time, waves, wave, myX, myY, targetX, targetY,
+        targetHeading, targetVelocity, bulletVelocity);
+    this.angles[DYNAMIC_CLUSTERING] = this.dynamicClusteringGun.getFiringAngle();
+
+    this.angles[HEAD_ON] = MathUtility.getFastDirectionRadians(myX, myY, targetX, targetY);
+
+    this.predictor.predictLinear(myX, myY, targetX, targetY, targetHeading, targetVelocity,
+        bulletVelocity);
+    this.angles[LINEAR] = this.getAngle(myX, myY);
+
+    // circular targeting is the same as linear targeting if the target is not turning
+    if (Math.abs(headingChange) > MIN_HEADING_CHANGE) {
+      this.predictor.predictCircular(myX, myY, targetX, targetY, targetHeading, headingChange,
+          targetVelocity, bulletVelocity);
+      this.angles[CIRCULAR] = this.getAngle(myX, myY);
+    }
+    else {
+      this.angles[CIRCULAR] = this.angles[LINEAR];
+    }
+
+    if (averageVelocity == targetVelocity) {
+      this.angles[AVERAGED_LINEAR] = this.angles[LINEAR];
+    }
+    else {
+      this.predictor.predictLinear(myX, myY, targetX, targetY, targetHeading, averageVelocity,
+          bulletVelocity);
+      this.angles[AVERAGED_LINEAR] = this.getAngle(myX, myY);
+    }
+
+    if (wave != null) {
+      for (int gun = 0; gun < NUM_GUNS; gun++) {
+        wave.setAngle(gun, this.angles[gun]);
+      }
+    }
+    return wave;
+  }
+
+  /**
+   * Returns the absolute angle from the shooter to the most recent prediction.
+   * @param myX x-coordinate of the shooter
+   * @param myY y-coordinate of the shooter
+   * @return the absolute angle in radians to the predicted position of the target
+   */
+  private double getAngle(double myX, double myY) {
+    return MathUtility.getFastDirectionRadians(myX, myY,
+        this.predictor.getX(), this.predictor.getY());
+  }
+
+  /**
+   * Scores every virtual bullet of a wave which has reached the target, then updates the best
+   * gun. Ties go to the gun with the lower index.
+   * @param wave wave which has reached the target
+   */
+  private void score(Wave wave) {
+    double distance = MathUtility.getDistance(wave.getX(), wave.getY(),
+        wave.getBreakX(), wave.getBreakY());
+    double bearing = MathUtility.getFastDirectionRadians(wave.getX(), wave.getY(),
+        wave.getBreakX(), wave.getBreakY());
+    double tolerance = Math.atan(HALF_ROBOT_WIDTH / Math.max(distance, HALF_ROBOT_WIDTH));
+
+    for (int gun = 0; gun < NUM_GUNS; gun++) {
+      double offset = Utils.normalRelativeAngle(wave.getAngle(gun) - bearing);
+      double hit = 0.0;
+      if (Math.abs(offset) <= tolerance) {
+        hit = 1.0;
+        this.hits[gun]++;
+      }
+      this.scores[gun] += this.decay * (hit - this.scores[gun]);
+    }
+    this.numScored++;
+
+    this.bestGun = 0;
+    for (int gun = 1; gun < NUM_GUNS; gun++) {
+      if (this.scores[gun] > this.scores[this.bestGun]) {
+        this.bestGun = gun;
+      }
+    }
+  }
+
+  /**
+   * Returns the gun with the best score.
+   * @return the index of the gun with the best score
+   */
+  public int getBestGun() {
+    return this.bestGun;
+  }
+
+  /**
+   * Returns the absolute angle in radians which the real gun should face, which is the firing
+   * angle of the best gun as of the last update.
+   * @return the firing angle of the best gun
+   */
+  public double getFiringAngle() {
+    return this.angles[this.bestGun];
+  }
+
+  /**
+   * Returns the firing angle of the specified gun as of the last update.
+   * @param gun index of the gun
+   * @return the firing angle of the gun
+   * @throws IndexOutOfBoundsException if the index is out of range (gun < 0 || gun >= NUM_GUNS)
+   */
+  public double getFiringAngle(int gun) throws IndexOutOfBoundsException {
+    return this.angles[gun];
+  }
+
+  /**
+   * Returns the moving average of the hit rate of the specified gun.
+   * @param gun index of the gun
+   * @return the score of the gun, between 0 and 1
+   * @throws IndexOutOfBoundsException if the index is out of range (gun < 0 || gun >= NUM_GUNS)
+   */
+  public double getScore(int gun) throws IndexOutOfBoundsException {
+    return this.scores[gun];
+  }
+
+  /**
+   * Returns the number of virtual bullets of the specified gun which have hit.
+   * @param gun index of the gun
+   * @return the number of hits of the gun
+   * @throws IndexOutOfBoundsException if the index is out of range (gun < 0 || gun >= NUM_GUNS)
+   */
+  public int getHits(int gun) throws IndexOutOfBoundsException {
+    return this.hits[gun];
+  }
+
+  /**
+   * Returns the number of waves whose virtual bullets have been scored.
+   * @return the number of waves scored
+   */
+  public int getNumScored() {
+    return this.numScored;
+  }
+}
@@ -0,0 +1,220 @@
+package tkt.util;
+
+/**
+ * A wave is an expanding circle centered where a bullet was fired, whose radius is the distance
+ * the bullet has traveled. Every bullet that could have been fired at that time is somewhere on
+ * the wave, so a wave can be used to learn where a robot was when any such bullet reached it.
+ *
+ * Waves are reused by a WaveManager, so a Wave should not be kept after it has been retired.
+ *
+ * @author Todd Taomae
+ */
+public class Wave {
+  /** Maximum number of firing angles which can be recorded for a wave. */
+  public static final int MAX_ANGLES = 8;
+  /** Maximum number of features of the target which can be recorded for a wave. */
+  public static final int MAX_FEATURES = 8;
+
+  private double x;
+  private double y;
+  private long time;
+  private double velocity;
+  private double bearing;
+  private double direction;
+  private int segment;
+  private boolean real;
+  private double breakX;
+  private double breakY;
+  /** Firing angles of virtual bullets fired with this wave. */
+  private final double[] angles = new double[MAX_ANGLES];
+  /** Features of the target when this wave was fired. */
+  private final double[] features = new double[MAX_FEATURES];
+
+  /**
+   * Sets every value of this Wave, so that it can be reused.
+   * @param x x-coordinate of the origin
+   * @param y y-coordinate of the origin
+   * @param time time the wave was fired
+   * @param velocity velocity of the wave
+   * @param bearing absolute bearing in radians from the origin to the target
+   */
+  void set(double x, double y, long time, double velocity, double bearing) {
+    this.x = x;
+    this.y = y;
+    this.time = time;
+    this.velocity = velocity;
+    this.bearing = bearing;
+    this.direction = 1.0;
+    this.segment = 0;
+    this.real = false;
+    this.breakX = 0.0;
+    this.breakY = 0.0;
+  }
+
+  /**
+   * Returns the distance this wave has traveled at the specified time.
+   * @param currentTime current time
+   * @return the distance this wave has traveled
+   */
+  public double getDistanceTraveled(long currentTime) {
+    return (currentTime - this.time) * this.velocity;
+  }
+
+  /**
+   * Returns whether or not this wave has reached the specified location at the specified time.
+   * @param currentTime current time
+   * @param targetX x-coordinate of the location
+   * @param targetY y-coordinate of the location
+   * @return true if this wave has reached the location, false otherwise
+   */
+  public boolean hasReached(long currentTime, double targetX, double targetY) {
+    return this.getDistanceTraveled(currentTime)
+        >= MathUtility.getDistance(this.x, this.y, targetX, targetY);
+  }
+
+  /**
+   * Records the location of the target when this wave reached it.
+   * @param targetX x-coordinate of the target
+   * @param targetY y-coordinate of the target
+   */
+  void setBreakLocation(double targetX, double targetY) {
+    this.breakX = targetX;
+    this.breakY = targetY;
+  }
+
+  /**
+   * Returns the x-coordinate of the origin.
+   * @return the x-coordinate of the origin
+   */
+  public double getX() {
+    return this.x;
+  }
+
+  /**
+   * Returns the y-coordinate of the origin.
+   * @return the y-coordinate of the origin
+   */
+  public double getY() {
+    return this.y;
+  }
+
+  /**
+   * Returns the time the wave was fired.
+   * @return the time the wave was fired
+   */
+  public long getTime() {
+    return this.time;
+  }
+
+  /**
+   * Returns the velocity of the wave.
+   * @return the velocity of the wave
+   */
+  public double getVelocity() {
+    return this.velocity;
+  }
+
+  /**
+   * Returns the absolute bearing in radians from the origin to the target when the wave was fired.
+   * @return the absolute bearing from the origin to the target
+   */
+  public double getBearing() {
+    return this.bearing;
+  }
+
+  /**
+   * Returns the direction the target was moving relative to the origin when the wave was fired;
+   * 1 is clockwise and -1 is counterclockwise.
+   * @return the direction the target was moving
+   */
+  public double getDirection() {
+    return this.direction;
+  }
+
+  /**
+   * Sets the direction the target was moving relative to the origin.
+   * @param direction 1 for clockwise and -1 for counterclockwise
+   */
+  public void setDirection(double direction) {
+    this.direction = direction;
+  }
+
+  /**
+   * Returns the statistics segment of the target when the wave was fired.
+   * @return the statistics segment of the target
+   */
+  public int getSegment() {
+    return this.segment;
+  }
+
+  /**
+   * Sets the statistics segment of the target when the wave was fired.
+   * @param segment the statistics segment of the target
+   */
+  public void setSegment(int segment) {
+    this.segment = segment;
+  }
+
+  /**
+   * Returns whether or not a real bullet was fired with this wave.
+   * @return true if a real bullet was fired with this wave, false otherwise
+   */
+  public boolean isReal() {
+    return this.real;
+  }
+
+  /**
+   * Sets whether or not a real bullet was fired with this wave.
+   * @param real true if a real bullet was fired with this wave
+   */
+  public void setReal(boolean real) {
+    this.real = real;
+  }
+
+  /**
+   * Returns the firing angle in radians of the virtual bullet at the specified index.
+   * @param index index of the virtual bullet
+   * @return the firing angle of the virtual bullet
+   * @throws IndexOutOfBoundsException if the index is out of range
+   *     (index < 0 || index >= MAX_ANGLES)
+   */
+  public double getAngle(int index) throws IndexOutOfBoundsException {
+    return this.angles[index];
+  }
+
+  /**
+   * Sets the firing angle in radians of the virtual bullet at the specified index.
+   * @param index index of the virtual bullet
+   * @param angle firing angle of the virtual bullet
+   * @throws IndexOutOfBoundsException if the index is out of range
+   *     (index < 0 || index >= MAX_ANGLES)
+   */
+  public void setAngle(int index, double angle) throws IndexOutOfBoundsException {
+    this.angles[index] = angle;
+  }
+
+  /**
+   * Returns the features of the target when this wave was fired. The array is owned by this
+   * wave, so it can be filled in without allocating memory; it has MAX_FEATURES elements.
+   * @return the features of the target
+   */
+  public double[] getFeatures() {
+    return this.features;
+  }
+
+  /**
+   * Returns the x-coordinate of the target when this wave reached it.
+   * @return the x-coordinate of the target when this wave reached it
+   */
+  public double getBreakX() {
+    return this.breakX;
+  }
+
+  /**
+   * Returns the y-coordinate of the target when this wave reached it.
+   * @return the y-coordinate of the target when this wave reached it
+   */
+  public double getBreakY() {
+    return this.breakY;
+  }
+}
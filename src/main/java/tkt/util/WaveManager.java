@@ -0,0 +1,251 @@
+package tkt.util;
+
+/**
+ * Keeps track of the waves fired by this robot and by its enemy. Every Wave is allocated when the
+ * WaveManager is constructed and reused once it has been retired, so adding, advancing, and
+ * retiring waves does not allocate memory.
+ *
+ * Own waves are retired once they reach the enemy, and enemy waves are retired once they have
+ * completely passed this robot. Waves retired by the most recent update remain available until
+ * the next update, so that the location where they broke can be used.
+ *
+ * @author Todd Taomae
+ */
+public class WaveManager {
+  /** Half the width of a robot. */
+  private static final double HALF_ROBOT_WIDTH = 18.0;
+
+  /** Waves which are not in use. */
+  private final Wave[] pool;
+  private int poolSize;
+
+  private final Wave[] ownWaves;
+  private int numOwnWaves;
+  private final Wave[] enemyWaves;
+  private int numEnemyWaves;
+
+  private final Wave[] brokenOwnWaves;
+  private int numBrokenOwnWaves;
+  private final Wave[] brokenEnemyWaves;
+  private int numBrokenEnemyWaves;
+
+  /**
+   * Constructs a new WaveManager which can keep track of the specified number of waves at once.
+   * @param capacity maximum number of waves
+   * @throws IllegalArgumentException if the capacity is less than or equal to zero
+   */
+  public WaveManager(int capacity) throws IllegalArgumentException {
+    if (capacity <= 0) {
+      throw new IllegalArgumentException("capacity " + capacity + ": must be greater than 0.");
+    }
+    this.pool = new Wave[capacity];
+    for (int i = 0; i < capacity; i++) {
+      this.pool[i] = new Wave();
+    }
+    this.poolSize = capacity;
+
+    this.ownWaves = new Wave[capacity];
+    this.enemyWaves = new Wave[capacity];
+    this.brokenOwnWaves = new Wave[capacity];
+    this.brokenEnemyWaves = new Wave[capacity];
+  }
+
+  /**
+   * Adds a wave fired by this robot. Returns null if every wave is in use.
+   * @param time time the wave was fired
+   * @param x x-coordinate of this robot
+   * @param y y-coordinate of this robot
+   * @param velocity velocity of the wave
+   * @param bearing absolute bearing in radians from this robot to the enemy
+   * @return the new wave, or null if every wave is in use
+   */
+  public Wave addOwnWave(long time, double x, double y, double velocity, double bearing) {
+    if (this.poolSize == 0) {
+      return null;
+    }
+    Wave wave = this.pool[--this.poolSize];
+    wave.set(x, y, time, velocity, bearing);
+    this.ownWaves[this.numOwnWaves++] = wave;
+    return wave;
+  }
+
+  /**
+   * Adds a wave fired by the enemy. Returns null if every wave is in use.
+   * @param time time the wave was fired
+   * @param x x-coordinate of the enemy
+   * @param y y-coordinate of the enemy
+   * @param velocity velocity of the wave
+   * @param bearing absolute bearing in radians from the enemy to this robot
+   * @return the new wave, or null if every wave is in use
+   */
+  public Wave addEnemyWave(long time, double x, double y, double velocity, double bearing) {
+    if (this.poolSize == 0) {
+      return null;
+    }
+    Wave wave = this.pool[--this.poolSize];
+    wave.set(x, y, time, velocity, bearing);
+    this.enemyWaves[this.numEnemyWaves++] = wave;
+    return wave;
+  }
+
+  /**
+   * Advances every wave to the specified time. Waves which were retired by the previous update
+   * are returned to the pool, then own waves which have reached the enemy and enemy waves which
+   * have passed this robot are retired.
+   *
+   * @param time current time
+   * @param myX x-coordinate of this robot
+   * @param myY y-coordinate of this robot
+   * @param enemyX x-coordinate of the enemy
+   * @param enemyY y-coordinate of the enemy
+   */
+  public void update(long time, double myX, double myY, double enemyX, double enemyY) {
+    this.releaseBrokenWaves();
+
+    int i = 0;
+    while (i < this.numOwnWaves) {
+      Wave wave = this.ownWaves[i];
+      if (wave.hasReached(time, enemyX, enemyY)) {
+        wave.setBreakLocation(enemyX, enemyY);
+        this.brokenOwnWaves[this.numBrokenOwnWaves++] = wave;
+        this.ownWaves[i] = this.ownWaves[--this.numOwnWaves];
+      }
+      else {
+        i++;
+      }
+    }
+
+    i = 0;
+    while (i < this.numEnemyWaves) {
+      Wave wave = this.enemyWaves[i];
+      double distance = MathUtility.getDistance(wave.getX(), wave.getY(), myX, myY);
+      if (wave.getDistanceTraveled(time) > distance + HALF_ROBOT_WIDTH) {
+        wave.setBreakLocation(myX, myY);
+        this.brokenEnemyWaves[this.numBrokenEnemyWaves++] = wave;
+        this.enemyWaves[i] = this.enemyWaves[--this.numEnemyWaves];
+      }
+      else {
+        i++;
+      }
+    }
+  }
+
+  /**
+   * Returns the waves which were retired by the previous update to the pool.
+   */
+  private void releaseBrokenWaves() {
+    while (this.numBrokenOwnWaves > 0) {
+      this.pool[this.poolSize++] = this.brokenOwnWaves[--this.numBrokenOwnWaves];
+    }
+    while (this.numBrokenEnemyWaves > 0) {
+      this.pool[this.poolSize++] = this.brokenEnemyWaves[--this.numBrokenEnemyWaves];
+    }
+  }
+
+  /**
+   * Retires every wave.
+   */
+  public void clear() {
+    this.releaseBrokenWaves();
+    while (this.numOwnWaves > 0) {
+      this.pool[this.poolSize++] = this.ownWaves[--this.numOwnWaves];
+    }
+    while (this.numEnemyWaves > 0) {
+      this.pool[this.poolSize++] = this.enemyWaves[--this.numEnemyWaves];
+    }
+  }
+
+  /**
+   * Returns the number of own waves which have not reached the enemy.
+   * @return the number of own waves
+   */
+  public int getNumOwnWaves() {
+    return this.numOwnWaves;
+  }
+
+  /**
+   * Returns the own wave at the specified index.
+   * @param index index of the wave
+   * @return the own wave at the specified index
+   * @throws IndexOutOfBoundsException if the index is out of range
+   *     (index < 0 || index >= getNumOwnWaves())
+   */
+  public Wave getOwnWave(int index) throws IndexOutOfBoundsException {
+    checkIndex(index, this.numOwnWaves);
+    return this.ownWaves[index];
+  }
+
+  /**
+   * Returns the number of enemy waves which have not passed this robot.
+   * @return the number of enemy waves
+   */
+  public int getNumEnemyWaves() {
+    return this.numEnemyWaves;
+  }
+
+  /**
+   * Returns the enemy wave at the specified index.
+   * @param index index of the wave
+   * @return the enemy wave at the specified index
+   * @throws IndexOutOfBoundsException if the index is out of range
+   *     (index < 0 || index >= getNumEnemyWaves())
+   */
+  public Wave getEnemyWave(int index) throws IndexOutOfBoundsException {
+    checkIndex(index, this.numEnemyWaves);
+    return this.enemyWaves[index];
+  }
+
+  /**
+   * Returns the number of own waves which reached the enemy during the most recent update.
+   * @return the number of own waves which reached the enemy
+   */
+  public int getNumBrokenOwnWaves() {
+    return this.numBrokenOwnWaves;
+  }
+
+  /**
+   * Returns the own wave at the specified index which reached the enemy during the most recent
+   * update.
+   * @param index index of the wave
+   * @return the own wave at the specified index
+   * @throws IndexOutOfBoundsException if the index is out of range
+   *     (index < 0 || index >= getNumBrokenOwnWaves())
+   */
+  public Wave getBrokenOwnWave(int index) throws IndexOutOfBoundsException {
+    checkIndex(index, this.numBrokenOwnWaves);
+    return this.brokenOwnWaves[index];
+  }
+
+  /**
+   * Returns the number of enemy waves which passed this robot during the most recent update.
+   * @return the number of enemy waves which passed this robot
+   */
+  public int getNumBrokenEnemyWaves() {
+    return this.numBrokenEnemyWaves;
+  }
+
+  /**
+   * Returns the enemy wave at the specified index which passed this robot during the most recent
+   * update.
+   * @param index index of the wave
+   * @return the enemy wave at the specified index
+   * @throws IndexOutOfBoundsException if the index is out of range
+   *     (index < 0 || index >= getNumBrokenEnemyWaves())
+   */
+  public Wave getBrokenEnemyWave(int index) throws IndexOutOfBoundsException {
+    checkIndex(index, this.numBrokenEnemyWaves);
+    return this.brokenEnemyWaves[index];
+  }
+
+  /**
+   * Throws an exception if the index is out of range.
+   * @param index index
+   * @param size number of elements
+   * @throws IndexOutOfBoundsException if the index is out of range (index < 0 || index >= size)
+   */
+  private static void checkIndex(int index, int size) throws IndexOutOfBoundsException {
+    if (index < 0 || index >= size) {
+      throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+    }
+  }
+}
@@ -0,0 +1,93 @@
+package tkt.test;
+
+/**
+ * A bounded queue of primitive doubles which automatically dequeues the earliest value as new
+ * values are inserted. Once added, elements cannot be removed manually. The element at index 0
+ * will always be the most recently added element.
+ *
+ * Unlike BoundedQueue, the elements are stored in a fixed size array which is used as a ring
+ * buffer, so adding an element never allocates memory or boxes the value. It holds the values of
+ * a WeightedMovingAverage.
+ *
+ * @author Todd Taomae
+ */
+public class DoubleBoundedQueue {
+  private final double[] elements;
+  /** Index in the array of the most recently added element. */
+  private int head;
+  private int size;
+
+  /**
+   * Constructs a new DoubleBoundedQueue with the specified maximum size.
+   * @param size maximum size of this DoubleBoundedQueue
+   * @throws IllegalArgumentException if the size is less than or equal to zero
+   */
+  public DoubleBoundedQueue(int size) throws IllegalArgumentException {
+    if (size <= 0) {
+      throw new IllegalArgumentException("size " + size + ": must be greater than 0.");
+    }
+    this.elements = new double[size];
+    this.head = size - 1;
+    this.size = 0;
+  }
+
+  /**
+   * Adds an element to the front of this DoubleBoundedQueue. If the queue is full, the oldest
+   * element is dequeued.
+   * @param e element to add
+   */
+  public void add(double e) {
+    // move head forward, overwriting the oldest element if the queue is full
+    this.head++;
+    if (this.head == this.elements.length) {
+      this.head = 0;
+    }
+    this.elements[this.head] = e;
+
+    if (this.size < this.elements.length) {
+      this.size++;
+    }
+  }
+
+  /**
+   * Removes all elements from this DoubleBoundedQueue.
+   */
+  public void clear() {
+    this.head = this.elements.length - 1;
+    this.size = 0;
+  }
+
+  /**
+   * Returns the size of this DoubleBoundedQueue.
+   * @return the size of this DoubleBoundedQueue
+   */
+  public int size() {
+    return this.size;
+  }
+
+  /**
+   * Returns the maximum size of this DoubleBoundedQueue.
+   * @return the maximum size of this DoubleBoundedQueue
+   */
+  public int maxSize() {
+    return this.elements.length;
+  }
+
+  /**
+   * Returns the element at the specified index.
+   * @param index index of the element to return
+   * @return the element at the specified index
+   * @throws IndexOutOfBoundsException if the index is out of range (index < 0 || index >= size())
+   */
+  public double get(int index) throws IndexOutOfBoundsException {
+    if (index < 0 || index >= this.size) {
+      throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + this.size);
+    }
+
+    int i = this.head - index;
+    if (i < 0) {
+      i += this.elements.length;
+    }
+    return this.elements[i];
+  }
+}
@@ -0,0 +1,67 @@
+package tkt.test;
+
+import tkt.util.VirtualGunArray;
+
+/**
+ * The number of waves fired by a GunEvaluator and the number of hits of each gun, which can be
+ * added together across battles.
+ *
+ * @author Todd Taomae
+ */
+public class GunEvaluation {
+  private final long[] hits = new long[VirtualGunArray.NUM_GUNS];
+  private long numScored;
+
+  /**
+   * Adds the hits of every gun of a VirtualGunArray.
+   * @param guns guns whose hits are added
+   */
+  public void add(VirtualGunArray guns) {
+    for (int gun = 0; gun < VirtualGunArray.NUM_GUNS; gun++) {
+      this.hits[gun] += guns.getHits(gun);
+    }
+    this.numScored += guns.getNumScored();
+  }
+
+  /**
+   * Adds the hits of another evaluation.
+   * @param other evaluation whose hits are added
+   */
+  public void add(GunEvaluation other) {
+    for (int gun = 0; gun < VirtualGunArray.NUM_GUNS; gun++) {
+      this.hits[gun] += other.hits[gun];
+    }
+    this.numScored += other.numScored;
+  }
+
+  /**
+   * Returns the number of hits of a gun.
+   * @param gun index of the gun
+   * @return the number of hits
+   */
+  public long getHits(int gun) {
+    return this.hits[gun];
+  }
+
+  /**
+   * Returns the number of waves which reached the target; each wave is one virtual bullet of
+   * every gun.
+   * @return the number of waves
+   */
+  public long getNumScored() {
+    return this.numScored;
+  }
+
+  /**
+   * Returns the fraction of the virtual bullets of a gun which hit, or 0 if no wave has reached
+   * the target.
+   * @param gun index of the gun
+   * @return the hit rate of the gun
+   */
+  public double getHitRate(int gun) {
+    if (this.numScored == 0) {
+      return 0.0;
+    }
+    return (double)this.hits[gun] / this.numScored;
+  }
+}
@@ -0,0 +1,236 @@
+package tkt.test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import tkt.RedShiftController;
+import tkt.RobotControl;
+import tkt.util.MathUtility;
+import tkt.util.RobotInfo;
+import tkt.util.VelocityWindowSelector;
+import tkt.util.VirtualGunArray;
+
+/**
+ * Evaluates RedShift's guns without the robocode engine by replaying recorded trajectories of
+ * the enemy. The shooter scans the target on every tick, and each scan is passed to a
+ * RedShiftController as RedShift would pass it, so every virtual gun fires a virtual bullet and
+ * the number of hits of each gun is the number of times it would have hit. What a gun learns is
+ * kept across the rounds of a battle, as in RedShift, and every battle starts over, so battles
+ * are evaluated in parallel in a fork-join pool.
+ *
+ * Run with: java tkt.test.GunEvaluator shooterName replayFile ...
+ *
+ * @author Todd Taomae
+ */
+public class GunEvaluator {
+  /** Energy of the target in every scan; the trajectories do not record when it fires. */
+  private static final double TARGET_ENERGY = 100.0;
+
+  private final double battleFieldWidth;
+  private final double battleFieldHeight;
+
+  /**
+   * Constructs a new GunEvaluator for battles on a battlefield of the specified size.
+   * @param battleFieldWidth width of the battlefield
+   * @param battleFieldHeight height of the battlefield
+   */
+  public GunEvaluator(double battleFieldWidth, double battleFieldHeight) {
+    this.battleFieldWidth = battleFieldWidth;
+    this.battleFieldHeight = battleFieldHeight;
+  }
+
+  /**
+   * Evaluates the guns against every round of a battle, one round after another.
+   * @param rounds trajectory of each round
+   * @return the number of hits of each gun
+   */
+  public GunEvaluation evaluate(Trajectory[] rounds) {
+    VelocityWindowSelector velocities = RedShiftController.newVelocities();
+    VirtualGunArray guns = RedShiftController.newVirtualGuns();
+    ReplayedShooter shooter = new ReplayedShooter();
+
+    for (Trajectory round : rounds) {
+      RedShiftController controller = new RedShiftController(shooter, false, velocities, guns,
+          this.battleFieldWidth, this.battleFieldHeight);
+      velocities.startRound();
+      guns.startRound();
+      RobotInfo target = new RobotInfo("target");
+      for (int t = 0; t < round.getLength(); t++) {
+        double myX = round.getShooterX(t);
+        double myY = round.getShooterY(t);
+        double targetX = round.getTargetX(t);
+        double targetY = round.getTargetY(t);
+        shooter.setPosition(myX, myY);
+
+        // the shooter faces north, so the bearing of the target is its absolute bearing
+        double bearing = MathUtility.getDirectionRadians(myX, myY, targetX, targetY);
+        double distance = MathUtility.getDistance(myX, myY, targetX, targetY);
+        double previousX = target.getX();
+        double previousY = target.getY();
+        target.updateInfo(myX, myY, 0.0, t, TARGET_ENERGY, bearing, distance,
+            round.getTargetHeading(t), round.getTargetVelocity(t));
+        if (t > 0) {
+          controller.updateWaves(target, t, previousX, previousY);
+        }
+        controller.onScan(target, t, distance);
+      }
+    }
+
+    GunEvaluation evaluation = new GunEvaluation();
+    evaluation.add(guns);
+    return evaluation;
+  }
+
+  /**
+   * Evaluates the guns against every battle in parallel.
+   * @param battles trajectories of the rounds of each battle
+   * @param pool pool which evaluates the battles
+   * @return the total number of hits of each gun in every battle
+   */
+  public GunEvaluation evaluate(List<Trajectory[]> battles, ForkJoinPool pool) {
+    if (battles.isEmpty()) {
+      return new GunEvaluation();
+    }
+    return pool.invoke(new EvaluateTask(battles, 0, battles.size()));
+  }
+
+  /**
+   * Evaluates a range of battles, splitting the range in half until it is a single battle.
+   */
+  private class EvaluateTask extends RecursiveTask<GunEvaluation> {
+    private static final long serialVersionUID = 1L;
+
+    private final List<Trajectory[]> battles;
+    private final int start;
+    private final int end;
+
+    /**
+     * Constructs a new EvaluateTask.
+     * @param battles every battle
+     * @param start index of the first battle to evaluate
+     * @param end index after the last battle to evaluate
+     */
+    EvaluateTask(List<Trajectory[]> battles, int start, int end) {
+      this.battles = battles;
+      this.start = start;
+      this.end = end;
+    }
+
+    /**
+     * Evaluates the battles.
+     * @return the total number of hits of each gun
+     */
+    @Override
+    protected GunEvaluation compute() {
+      if (this.end - this.start == 1) {
+        return GunEvaluator.this.evaluate(this.battles.get(this.start));
+      }
+      int middle = (this.start + this.end) >>> 1;
+      EvaluateTask left = new EvaluateTask(this.battles, this.start, middle);
+      left.fork();
+      GunEvaluation result =
+          new EvaluateTask(this.battles, middle, this.end).compute();
+      result.add(left.join());
+      return result;
+    }
+  }
+
+  /**
+   * A shooter which is wherever the trajectory says it is, faces north, and ignores its
+   * commands.
+   */
+  private static class ReplayedShooter implements RobotControl {
+    private double x;
+    private double y;
+
+    /**
+     * Moves the shooter to the specified position.
+     * @param x x-coordinate of the shooter
+     * @param y y-coordinate of the shooter
+     */
+    void setPosition(double x, double y) {
+      this.x = x;
+      this.y = y;
+    }
+
+    @Override
+    public double getX() {
+      return this.x;
+    }
+
+    @Override
+    public double getY() {
+      return this.y;
+    }
+
+    @Override
+    public double getHeadingRadians() {
+      return 0.0;
+    }
+
+    @Override
+    public double getGunHeadingRadians() {
+      return 0.0;
+    }
+
+    @Override
+    public double getGunHeat() {
+      return 0.0;
+    }
+
+    @Override
+    public void setTurnRightRadians(double radians) {
+    }
+
+    @Override
+    public void setTurnGunRightRadians(double radians) {
+    }
+
+    @Override
+    public void setAhead(double distance) {
+    }
+
+    @Override
+    public void setFire(double power) {
+    }
+  }
+
+  /**
+   * Prints the hit rate of each gun.
+   * @param evaluation the number of hits of each gun
+   * @param out stream to print to
+   */
+  public static void print(GunEvaluation evaluation, PrintStream out) {
+    out.printf("%d waves%n", evaluation.getNumScored());
+    for (int gun = 0; gun < VirtualGunArray.NUM_GUNS; gun++) {
+      out.printf("gun %d hit rate: %f%n", gun, evaluation.getHitRate(gun));
+    }
+  }
+
+  /**
+   * Evaluates RedShift's guns against the battles in replay files written by a ReplayRecorder
+   * on an 800 by 600 battlefield. The first argument is the name of the robot which shoots, and
+   * the rest are the replay files.
+   * @param args command line arguments
+   * @throws IOException if a replay file cannot be read
+   */
+  public static void main(String[] args) throws IOException {
+    if (args.length < 2) {
+      System.err.println("usage: GunEvaluator shooterName replayFile ...");
+      System.exit(2);
+    }
+    List<Trajectory[]> battles = new ArrayList<Trajectory[]>();
+    for (int i = 1; i < args.length; i++) {
+      battles.add(Trajectory.read(new ReplayReader(new File(args[i])), args[0]));
+    }
+
+    long start = System.nanoTime();
+    GunEvaluation evaluation = new GunEvaluator(800, 600).evaluate(battles, new ForkJoinPool());
+    print(evaluation, System.out);
+    System.out.printf("evaluated in %.1f s%n", (System.nanoTime() - start) / 1e9);
+  }
+}
@@ -0,0 +1,305 @@
+package tkt.test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Reads a file written by a ReplayRecorder. The whole file is mapped into memory when it is
+ * opened, so opening even a long battle is immediate; each turn is only read when the reader
+ * advances to it. Reading does not allocate memory after the file is opened.
+ *
+ * @author Todd Taomae
+ */
+public class ReplayReader {
+  private final MappedByteBuffer buffer;
+  private final int numTurns;
+  private final String[] robotNames;
+  /** Offset of the first turn. */
+  private final int firstTurn;
+
+  private int turnIndex = -1;
+  private int round;
+  private int turn;
+  private int numBullets;
+  /** Offset of the robots of the current turn. */
+  private int robotsOffset;
+  /** Offset of the bullets of the current turn. */
+  private int bulletsOffset;
+
+  /**
+   * Opens a replay file.
+   * @param path file to read
+   * @throws IOException if the file cannot be read or is not a replay file of the current
+   *           version
+   */
+  public ReplayReader(File path) throws IOException {
+    RandomAccessFile file = new RandomAccessFile(path, "r");
+    try {
+      FileChannel channel = file.getChannel();
+      if (channel.size() < ReplayRecorder.HEADER_SIZE) {
+        throw new IOException(path + ": not a replay file.");
+      }
+      MappedByteBuffer header =
+          channel.map(FileChannel.MapMode.READ_ONLY, 0, ReplayRecorder.HEADER_SIZE);
+      if (header.getInt() != ReplayRecorder.MAGIC) {
+        throw new IOException(path + ": not a replay file.");
+      }
+      int version = header.getInt();
+      if (version != ReplayRecorder.VERSION) {
+        throw new IOException("version " + version + ": expected " + ReplayRecorder.VERSION
+            + ".");
+      }
+      this.numTurns = header.getInt(ReplayRecorder.NUM_TURNS_OFFSET);
+      long length = header.getLong(ReplayRecorder.LENGTH_OFFSET);
+      if (length > Integer.MAX_VALUE || length > channel.size()) {
+        throw new IOException("length " + length + ": must be at most " + channel.size() + ".");
+      }
+
+      // the mapping stays valid after the file is closed
+      this.buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, length);
+    }
+    finally {
+      file.close();
+    }
+
+    this.buffer.position(ReplayRecorder.HEADER_SIZE);
+    if (this.buffer.remaining() == 0) {
+      this.robotNames = new String[0];
+    }
+    else {
+      this.robotNames = new String[this.buffer.getInt()];
+      for (int i = 0; i < this.robotNames.length; i++) {
+        byte[] name = new byte[this.buffer.getShort()];
+        this.buffer.get(name);
+        this.robotNames[i] = new String(name, ReplayRecorder.UTF_8);
+      }
+    }
+    this.firstTurn = this.buffer.position();
+  }
+
+  /**
+   * Advances to the next turn.
+   * @return true if there is a next turn, false if every turn has been read
+   */
+  public boolean next() {
+    if (this.turnIndex + 1 >= this.numTurns) {
+      return false;
+    }
+    int offset = this.turnIndex < 0 ? this.firstTurn
+        : this.bulletsOffset + this.numBullets * ReplayRecorder.BULLET_SIZE;
+    this.turnIndex++;
+    this.round = this.buffer.getInt(offset);
+    this.turn = this.buffer.getInt(offset + 4);
+    this.numBullets = this.buffer.getInt(offset + 8);
+    this.robotsOffset = offset + ReplayRecorder.TURN_SIZE;
+    this.bulletsOffset = this.robotsOffset + this.robotNames.length * ReplayRecorder.ROBOT_SIZE;
+    return true;
+  }
+
+  /**
+   * Goes back to before the first turn.
+   */
+  public void rewind() {
+    this.turnIndex = -1;
+  }
+
+  /**
+   * Returns the number of turns in the file.
+   * @return the number of turns
+   */
+  public int getNumTurns() {
+    return this.numTurns;
+  }
+
+  /**
+   * Returns the number of robots.
+   * @return the number of robots
+   */
+  public int getNumRobots() {
+    return this.robotNames.length;
+  }
+
+  /**
+   * Returns the name of a robot.
+   * @param robot index of the robot
+   * @return the name of the robot
+   */
+  public String getRobotName(int robot) {
+    return this.robotNames[robot];
+  }
+
+  /**
+   * Returns the round of the current turn.
+   * @return the round
+   */
+  public int getRound() {
+    return this.round;
+  }
+
+  /**
+   * Returns the turn number of the current turn.
+   * @return the turn number
+   */
+  public int getTurn() {
+    return this.turn;
+  }
+
+  /**
+   * Returns the number of bullets in the current turn.
+   * @return the number of bullets
+   */
+  public int getNumBullets() {
+    return this.numBullets;
+  }
+
+  /**
+   * Returns a value of a robot in the current turn.
+   * @param robot index of the robot
+   * @param field index of the value, in the order the recorder writes them
+   * @return the value
+   */
+  private float getRobotValue(int robot, int field) {
+    return this.buffer.getFloat(this.robotsOffset + robot * ReplayRecorder.ROBOT_SIZE
+        + field * 4);
+  }
+
+  /**
+   * Returns the x-coordinate of a robot in the current turn.
+   * @param robot index of the robot
+   * @return the x-coordinate
+   */
+  public double getRobotX(int robot) {
+    return this.getRobotValue(robot, 0);
+  }
+
+  /**
+   * Returns the y-coordinate of a robot in the current turn.
+   * @param robot index of the robot
+   * @return the y-coordinate
+   */
+  public double getRobotY(int robot) {
+    return this.getRobotValue(robot, 1);
+  }
+
+  /**
+   * Returns the velocity of a robot in the current turn.
+   * @param robot index of the robot
+   * @return the velocity
+   */
+  public double getRobotVelocity(int robot) {
+    return this.getRobotValue(robot, 2);
+  }
+
+  /**
+   * Returns the energy of a robot in the current turn.
+   * @param robot index of the robot
+   * @return the energy
+   */
+  public double getRobotEnergy(int robot) {
+    return this.getRobotValue(robot, 3);
+  }
+
+  /**
+   * Returns the body heading of a robot in the current turn.
+   * @param robot index of the robot
+   * @return the body heading in radians
+   */
+  public double getRobotBodyHeading(int robot) {
+    return this.getRobotValue(robot, 4);
+  }
+
+  /**
+   * Returns the gun heading of a robot in the current turn.
+   * @param robot index of the robot
+   * @return the gun heading in radians
+   */
+  public double getRobotGunHeading(int robot) {
+    return this.getRobotValue(robot, 5);
+  }
+
+  /**
+   * Returns the radar heading of a robot in the current turn.
+   * @param robot index of the robot
+   * @return the radar heading in radians
+   */
+  public double getRobotRadarHeading(int robot) {
+    return this.getRobotValue(robot, 6);
+  }
+
+  /**
+   * Returns the gun heat of a robot in the current turn.
+   * @param robot index of the robot
+   * @return the gun heat
+   */
+  public double getRobotGunHeat(int robot) {
+    return this.getRobotValue(robot, 7);
+  }
+
+  /**
+   * Returns the ordinal of the state of a robot in the current turn.
+   * @param robot index of the robot
+   * @return the ordinal of the state
+   */
+  public int getRobotState(int robot) {
+    return this.buffer.get(this.robotsOffset + robot * ReplayRecorder.ROBOT_SIZE + 8 * 4);
+  }
+
+  /**
+   * Returns the id of a bullet in the current turn.
+   * @param bullet index of the bullet
+   * @return the id of the bullet
+   */
+  public int getBulletId(int bullet) {
+    return this.buffer.getInt(this.bulletsOffset + bullet * ReplayRecorder.BULLET_SIZE);
+  }
+
+  /**
+   * Returns the ordinal of the state of a bullet in the current turn.
+   * @param bullet index of the bullet
+   * @return the ordinal of the state
+   */
+  public int getBulletState(int bullet) {
+    return this.buffer.get(this.bulletsOffset + bullet * ReplayRecorder.BULLET_SIZE + 4);
+  }
+
+  /**
+   * Returns a value of a bullet in the current turn.
+   * @param bullet index of the bullet
+   * @param field index of the value after the id and state, in the order the recorder writes them
+   * @return the value
+   */
+  private float getBulletValue(int bullet, int field) {
+    return this.buffer.getFloat(this.bulletsOffset + bullet * ReplayRecorder.BULLET_SIZE + 5
+        + field * 4);
+  }
+
+  /**
+   * Returns the x-coordinate of a bullet in the current turn.
+   * @param bullet index of the bullet
+   * @return the x-coordinate
+   */
+  public double getBulletX(int bullet) {
+    return this.getBulletValue(bullet, 0);
+  }
+
+  /**
+   * Returns the y-coordinate of a bullet in the current turn.
+   * @param bullet index of the bullet
+   * @return the y-coordinate
+   */
+  public double getBulletY(int bullet) {
+    return this.getBulletValue(bullet, 1);
+  }
+
+  /**
+   * Returns the power of a bullet in the current turn.
+   * @param bullet index of the bullet
+   * @return the power
+   */
+  public double getBulletPower(int bullet) {
+    return this.getBulletValue(bullet, 2);
+  }
+}
@@ -0,0 +1,293 @@
+package tkt.test;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import robocode.control.snapshot.IBulletSnapshot;
+import robocode.control.snapshot.IRobotSnapshot;
+import robocode.control.snapshot.ITurnSnapshot;
+
+/**
+ * Records every turn of a battle to a file, so that a battle can be examined after it has ended.
+ * The file is written through memory-mapped regions, so recording a turn only copies a few
+ * numbers into memory and the operating system writes them to the file in the background.
+ *
+ * The file starts with a header: the magic number, the version, the number of turns, and the
+ * number of bytes written, which is updated after every turn so that the file can be read even
+ * if the battle did not end normally. The header is followed by the number of robots and the
+ * name of each robot, then by one record for each turn: the round, the turn, and the number of
+ * bullets, followed by a fixed-width record for each robot and for each bullet. The file may be
+ * longer than the number of bytes written, since it grows by a whole region at a time.
+ *
+ * @author Todd Taomae
+ */
+public class ReplayRecorder implements Closeable {
+  /** First four bytes of a replay file. */
+  public static final int MAGIC = 0x524c5250;
+  /** Version of the file format. */
+  public static final int VERSION = 1;
+  /** Number of bytes in the header: the magic number, version, number of turns, and length. */
+  public static final int HEADER_SIZE = 4 + 4 + 4 + 8;
+  /** Offset of the number of turns in the header. */
+  static final int NUM_TURNS_OFFSET = 8;
+  /** Offset of the number of bytes written in the header. */
+  static final int LENGTH_OFFSET = 12;
+  /** Number of bytes at the start of each turn: the round, turn, and number of bullets. */
+  public static final int TURN_SIZE = 4 + 4 + 4;
+  /**
+   * Number of bytes for each robot: the x- and y-coordinates, velocity, energy, body, gun, and
+   * radar headings, and gun heat, each as a float, and the state.
+   */
+  public static final int ROBOT_SIZE = 8 * 4 + 1;
+  /** Number of bytes for each bullet: the id, the state, the x- and y-coordinates, and power. */
+  public static final int BULLET_SIZE = 4 + 1 + 3 * 4;
+  /** Character set of the robot names. */
+  static final Charset UTF_8 = Charset.forName("UTF-8");
+
+  /** Number of bytes mapped at a time. */
+  private static final int REGION_SIZE = 1 << 22;
+
+  private final RandomAccessFile file;
+  private final FileChannel channel;
+  private final MappedByteBuffer header;
+  private MappedByteBuffer region;
+  /** Offset in the file of the start of the current region. */
+  private long regionStart;
+
+  private int numRobots = -1;
+  private int numTurns;
+  /** Number of robots and bullets which remain to be added to the current turn. */
+  private int robotsRemaining;
+  private int bulletsRemaining;
+
+  /**
+   * Creates a replay file, replacing any file with the same name.
+   * @param path the file to write
+   * @throws IOException if the file cannot be created
+   */
+  public ReplayRecorder(File path) throws IOException {
+    this.file = new RandomAccessFile(path, "rw");
+    boolean created = false;
+    try {
+      this.file.setLength(0);
+      this.channel = this.file.getChannel();
+      this.header = this.channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE);
+      this.header.putInt(MAGIC);
+      this.header.putInt(VERSION);
+      this.header.putInt(0);
+      this.header.putLong(HEADER_SIZE);
+      this.map(HEADER_SIZE, REGION_SIZE);
+      created = true;
+    }
+    finally {
+      // nothing else will close the file if the recorder cannot be created
+      if (!created) {
+        this.file.close();
+      }
+    }
+  }
+
+  /**
+   * Records a turn of a battle.
+   * @param snapshot snapshot of the turn
+   * @throws IOException if the file cannot be written
+   */
+  public void record(ITurnSnapshot snapshot) throws IOException {
+    IRobotSnapshot[] robots = snapshot.getRobots();
+    IBulletSnapshot[] bullets = snapshot.getBullets();
+    if (this.numRobots < 0) {
+      String[] names = new String[robots.length];
+      for (int i = 0; i < robots.length; i++) {
+        names[i] = robots[i].getName();
+      }
+      this.writeRobotNames(names);
+    }
+
+    this.beginTurn(snapshot.getRound(), snapshot.getTurn(), bullets.length);
+    for (IRobotSnapshot robot : robots) {
+      this.addRobot(robot.getX(), robot.getY(), robot.getVelocity(), robot.getEnergy(),
+          robot.getBodyHeading(), robot.getGunHeading(), robot.getRadarHeading(),
+          robot.getGunHeat(), robot.getState().ordinal());
+    }
+    for (IBulletSnapshot bullet : bullets) {
+      this.addBullet(bullet.getBulletId(), bullet.getState().ordinal(), bullet.getX(),
+          bullet.getY(), bullet.getPower());
+    }
+  }
+
+  /**
+   * Writes the number of robots and their names. This must be done once, before the first turn.
+   * @param names names of the robots
+   * @throws IOException if the file cannot be written
+   * @throws IllegalStateException if the names have already been written
+   */
+  public void writeRobotNames(String[] names) throws IOException, IllegalStateException {
+    if (this.numRobots >= 0) {
+      throw new IllegalStateException("The robot names have already been written.");
+    }
+    int size = 4;
+    byte[][] encoded = new byte[names.length][];
+    for (int i = 0; i < names.length; i++) {
+      encoded[i] = names[i].getBytes(UTF_8);
+      size += 2 + encoded[i].length;
+    }
+
+    this.ensureRemaining(size);
+    this.region.putInt(names.length);
+    for (byte[] name : encoded) {
+      this.region.putShort((short)name.length);
+      this.region.put(name);
+    }
+    this.numRobots = names.length;
+    this.updateLength();
+  }
+
+  /**
+   * Begins a turn. Every robot, in the same order as the names, and then the specified number of
+   * bullets must be added before the next turn begins.
+   * @param round round number
+   * @param turn turn number
+   * @param numBullets number of bullets
+   * @throws IOException if the file cannot be written
+   * @throws IllegalStateException if the robot names have not been written or the previous turn
+   *           is not complete
+   */
+  public void beginTurn(int round, int turn, int numBullets)
+      throws IOException, IllegalStateException {
+    if (this.numRobots < 0 || this.robotsRemaining > 0 || this.bulletsRemaining > 0) {
+      throw new IllegalStateException("The robot names have not been written or the previous "
+          + "turn is not complete.");
+    }
+    this.ensureRemaining(TURN_SIZE + this.numRobots * ROBOT_SIZE + numBullets * BULLET_SIZE);
+    this.region.putInt(round);
+    this.region.putInt(turn);
+    this.region.putInt(numBullets);
+    this.robotsRemaining = this.numRobots;
+    this.bulletsRemaining = numBullets;
+    this.completeTurn();
+  }
+
+  /**
+   * Adds the next robot to the current turn.
+   * @param x x-coordinate
+   * @param y y-coordinate
+   * @param velocity velocity
+   * @param energy energy
+   * @param bodyHeading body heading in radians
+   * @param gunHeading gun heading in radians
+   * @param radarHeading radar heading in radians
+   * @param gunHeat gun heat
+   * @param state ordinal of the state of the robot
+   * @throws IllegalStateException if every robot of the current turn has been added
+   */
+  public void addRobot(double x, double y, double velocity, double energy, double bodyHeading,
+      double gunHeading, double radarHeading, double gunHeat, int state)
+      throws IllegalStateException {
+    if (this.robotsRemaining == 0) {
+      throw new IllegalStateException("Every robot of the current turn has been added.");
+    }
+    this.region.putFloat((float)x);
+    this.region.putFloat((float)y);
+    this.region.putFloat((float)velocity);
+    this.region.putFloat((float)energy);
+    this.region.putFloat((float)bodyHeading);
+    this.region.putFloat((float)gunHeading);
+    this.region.putFloat((float)radarHeading);
+    this.region.putFloat((float)gunHeat);
+    this.region.put((byte)state);
+    this.robotsRemaining--;
+    this.completeTurn();
+  }
+
+  /**
+   * Adds the next bullet to the current turn. Every robot must be added first.
+   * @param id id of the bullet
+   * @param state ordinal of the state of the bullet
+   * @param x x-coordinate
+   * @param y y-coordinate
+   * @param power power
+   * @throws IllegalStateException if a robot of the current turn has not been added or every
+   *           bullet of the current turn has been added
+   */
+  public void addBullet(int id, int state, double x, double y, double power)
+      throws IllegalStateException {
+    if (this.robotsRemaining > 0 || this.bulletsRemaining == 0) {
+      throw new IllegalStateException("A robot has not been added or every bullet of the "
+          + "current turn has been added.");
+    }
+    this.region.putInt(id);
+    this.region.put((byte)state);
+    this.region.putFloat((float)x);
+    this.region.putFloat((float)y);
+    this.region.putFloat((float)power);
+    this.bulletsRemaining--;
+    this.completeTurn();
+  }
+
+  /**
+   * Returns the number of complete turns which have been recorded.
+   * @return the number of turns
+   */
+  public int getNumTurns() {
+    return this.numTurns;
+  }
+
+  /**
+   * Writes every turn to the file and closes it. An incomplete turn is not kept.
+   * @throws IOException if the file cannot be written
+   */
+  @Override
+  public void close() throws IOException {
+    try {
+      this.header.force();
+      this.region.force();
+    }
+    finally {
+      this.file.close();
+    }
+  }
+
+  /**
+   * Counts the current turn in the header if every robot and bullet has been added.
+   */
+  private void completeTurn() {
+    if (this.robotsRemaining == 0 && this.bulletsRemaining == 0) {
+      this.numTurns++;
+      this.header.putInt(NUM_TURNS_OFFSET, this.numTurns);
+      this.updateLength();
+    }
+  }
+
+  /**
+   * Updates the number of bytes written in the header.
+   */
+  private void updateLength() {
+    this.header.putLong(LENGTH_OFFSET, this.regionStart + this.region.position());
+  }
+
+  /**
+   * Maps a new region if the current region does not have enough space.
+   * @param size number of bytes needed
+   * @throws IOException if the file cannot be mapped
+   */
+  private void ensureRemaining(int size) throws IOException {
+    if (this.region.remaining() < size) {
+      this.map(this.regionStart + this.region.position(), Math.max(REGION_SIZE, size));
+    }
+  }
+
+  /**
+   * Maps a region of the file, growing the file if necessary.
+   * @param start offset of the start of the region
+   * @param size number of bytes in the region
+   * @throws IOException if the file cannot be mapped
+   */
+  private void map(long start, int size) throws IOException {
+    this.region = this.channel.map(FileChannel.MapMode.READ_WRITE, start, size);
+    this.regionStart = start;
+  }
+}
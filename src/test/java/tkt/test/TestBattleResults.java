@@ -1,18 +1,29 @@
 package tkt.test;
 
 import static org.junit.Assert.assertTrue;
+import java.io.File;
+import java.io.IOException;
+import org.junit.After;
 import robocode.BattleResults;
 import robocode.control.events.BattleCompletedEvent;
+import robocode.control.events.TurnEndedEvent;
 import robocode.control.testing.RobotTestBed;
 
 /**
  * Tests that the test robot can beat the enemy robot at least 90% of the time.
  *
+ * If the tkt.replay.dir system property is set, every turn of the battle is recorded to a
+ * ReplayRecorder file named after the two robots in that directory, e.g.
+ * mvn test -Dtkt.replay.dir=target/replays
+ *
  * @author Todd Taomae
  */
 public class TestBattleResults extends RobotTestBed {
   private String testRobot = "sample.SittingDuck";
   private String enemyRobot = "sample.SittingDuck";
+  /** Directory where the battle is recorded, or null if it is not recorded. */
+  private String replayDir = System.getProperty("tkt.replay.dir");
+  private ReplayRecorder recorder = null;
 
   /**
    * Specifies the robots that are to be matched up in this test case.
@@ -44,6 +55,31 @@ public class TestBattleResults extends RobotTestBed {
     return false;
   }
 
+  /**
+   * Records the turn if the battle is being recorded.
+   * @param event Info about the current state of the battle
+   */
+  @Override
+  public void onTurnEnded(TurnEndedEvent event) {
+    if (this.replayDir == null) {
+      return;
+    }
+    try {
+      if (this.recorder == null) {
+        File dir = new File(this.replayDir);
+        dir.mkdirs();
+        this.recorder = new ReplayRecorder(new File(dir,
+            this.testRobot + "-vs-" + this.enemyRobot + ".replay"));
+      }
+      this.recorder.record(event.getTurnSnapshot());
+    }
+    catch (IOException e) {
+      // stop recording, but keep the battle going
+      System.err.println("could not record replay: " + e.getMessage());
+      this.replayDir = null;
+    }
+  }
+
   /**
    * The actual test, which asserts that the test robot won at least 90% of the rounds
    * against the enemy robot.
@@ -51,6 +87,8 @@ public class TestBattleResults extends RobotTestBed {
    */
   @Override
   public void onBattleCompleted(BattleCompletedEvent event) {
+    this.closeRecorder();
+
     // Return the results in order of getRobotNames.
     BattleResults[] battleResults = event.getSortedResults();
 
@@ -65,6 +103,23 @@ public class TestBattleResults extends RobotTestBed {
         testRobotResults.getFirsts() > (int)(getNumRounds() * 0.9));
   }
 
+  /**
+   * Closes the replay file if the battle is being recorded. This also runs after a battle which
+   * ended with an error, when onBattleCompleted is not called.
+   */
+  @After
+  public void closeRecorder() {
+    if (this.recorder != null) {
+      try {
+        this.recorder.close();
+      }
+      catch (IOException e) {
+        System.err.println("could not record replay: " + e.getMessage());
+      }
+      this.recorder = null;
+    }
+  }
+
   /**
    * Returns the name of the test robot.
    * @return the name of the test robot.
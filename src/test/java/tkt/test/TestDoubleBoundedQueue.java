@@ -0,0 +1,114 @@
+package tkt.test;
+
+import static org.junit.Assert.assertEquals;
+import org.junit.Test;
+import tkt.util.BoundedQueue;
+
+/**
+ * Tests the DoubleBoundedQueue class.
+ *
+ * @author Todd Taomae
+ */
+public class TestDoubleBoundedQueue {
+  private static final double EPSILON = 0.0;
+  private static String GET_ZERO = "get(0) is equal to the most recent element added";
+
+  /**
+   * Tests the constructor of the DoubleBoundedQueue class with an illegal argument.
+   */
+  @Test (expected = IllegalArgumentException.class)
+  public void testConstructorIllegalArgument() {
+    new DoubleBoundedQueue(0);
+  }
+
+  /**
+   * Tests the maxSize method of the DoubleBoundedQueue class.
+   */
+  @Test
+  public void testMaxSize() {
+    DoubleBoundedQueue bq = new DoubleBoundedQueue(10);
+
+    assertEquals("max size equal to value passed to constructor", 10, bq.maxSize());
+  }
+
+  /**
+   * Tests the size and clear methods of the DoubleBoundedQueue class.
+   */
+  @Test
+  public void testSize() {
+    DoubleBoundedQueue bq = new DoubleBoundedQueue(3);
+
+    assertEquals("size of a new DoubleBoundedQueue equals 0", 0, bq.size());
+
+    bq.add(5.0);
+    assertEquals("size is equal to the number of elements added", 1, bq.size());
+
+    bq.add(10.0);
+    assertEquals("size is equal to the number of elements added", 2, bq.size());
+
+    bq.add(15.0);
+    assertEquals("size is equal to the number of elements added", 3, bq.size());
+
+    // should not exceed the maximum size (3) even though 4 elements were added
+    bq.add(20.0);
+    assertEquals("size does not exceed spcified max size", 3, bq.size());
+
+    bq.clear();
+    assertEquals("size of a cleared DoubleBoundedQueue equals 0", 0, bq.size());
+  }
+
+  /**
+   * Tests the add and get method of the DoubleBoundedQueue class.
+   */
+  @Test (expected = IndexOutOfBoundsException.class)
+  public void testAddAndGet() {
+    DoubleBoundedQueue bq = new DoubleBoundedQueue(3);
+
+    bq.add(5.0);
+    assertEquals(GET_ZERO, 5.0, bq.get(0), EPSILON);
+
+    bq.add(10.0);
+    assertEquals(GET_ZERO, 10.0, bq.get(0), EPSILON);
+    assertEquals("get(1) is equal to the second most recent element added",
+        5.0, bq.get(1), EPSILON);
+
+    bq.add(15.0);
+    assertEquals(GET_ZERO, 15.0, bq.get(0), EPSILON);
+    assertEquals("get(1) is equal to the second most recent element added",
+        10.0, bq.get(1), EPSILON);
+    assertEquals("get(2) is equal to the third most recent element added",
+        5.0, bq.get(2), EPSILON);
+
+    // value 5 is overwritten
+    bq.add(20.0);
+    assertEquals(GET_ZERO, 20.0, bq.get(0), EPSILON);
+    assertEquals("get(1) is equal to the second most recent element added",
+        15.0, bq.get(1), EPSILON);
+    assertEquals("get(2) is equal to the third most recent element added",
+        10.0, bq.get(2), EPSILON);
+
+    // value 5 would be at index 3, but it should be dequeued
+    // should throw an exception
+    bq.get(3);
+  }
+
+  /**
+   * Tests that the DoubleBoundedQueue class matches the BoundedQueue class after wrapping
+   * around several times.
+   */
+  @Test
+  public void testWrapAround() {
+    DoubleBoundedQueue dbq = new DoubleBoundedQueue(7);
+    BoundedQueue<Double> bq = new BoundedQueue<Double>(7);
+
+    for (int i = 0; i < 50; i++) {
+      dbq.add(i * 0.5);
+      bq.add(i * 0.5);
+
+      assertEquals("same size as BoundedQueue", bq.size(), dbq.size());
+      for (int j = 0; j < bq.size(); j++) {
+        assertEquals("same element as BoundedQueue", bq.get(j), dbq.get(j), EPSILON);
+      }
+    }
+  }
+}
@@ -0,0 +1,116 @@
+package tkt.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+import robocode.util.Utils;
+import tkt.util.DynamicClusteringGun;
+import tkt.util.GuessFactorGun;
+import tkt.util.KdTree;
+import tkt.util.Wave;
+import tkt.util.WaveManager;
+
+/**
+ * Tests the DynamicClusteringGun class.
+ *
+ * @author Todd Taomae
+ */
+public class TestDynamicClusteringGun {
+  private static final double EPSILON = 1e-9;
+
+  /**
+   * Tests the constructor of the DynamicClusteringGun class with an illegal argument.
+   */
+  @Test (expected = IllegalArgumentException.class)
+  public void testConstructorIllegalArgument() {
+    new DynamicClusteringGun(new KdTree(2, 10, 1));
+  }
+
+  /**
+   * Tests that the features are recorded in the wave and scaled between 0 and 1.
+   */
+  @Test
+  public void testFeatures() {
+    KdTree tree = new KdTree(DynamicClusteringGun.NUM_FEATURES, 100, 5);
+    DynamicClusteringGun gun = new DynamicClusteringGun(tree);
+    gun.setBattleField(800.0, 600.0);
+    WaveManager waves = new WaveManager(1);
+    Wave wave = waves.addOwnWave(0, 100.0, 300.0, 11.0, Math.PI / 2);
+
+    // the target is 500 to the right, 200 from the nearest wall, and moving straight up
+    gun.update(0, waves, wave, 100.0, 300.0, 600.0, 300.0, 0.0, 8.0, 11.0);
+    assertEquals("distance", 0.5, gun.getFeature(0), EPSILON);
+    assertEquals("lateral velocity", 1.0, gun.getFeature(1), EPSILON);
+    assertEquals("advancing velocity", 0.5, gun.getFeature(2), EPSILON);
+    assertEquals("wall distance", 0.4, gun.getFeature(3), EPSILON);
+    assertEquals("time since direction change", 0.0, gun.getFeature(4), EPSILON);
+    for (int i = 0; i < DynamicClusteringGun.NUM_FEATURES; i++) {
+      assertEquals("feature is recorded", gun.getFeature(i), wave.getFeatures()[i], 0.0);
+    }
+    assertEquals("aims directly at the target with no situations",
+        Math.PI / 2, gun.getFiringAngle(), EPSILON);
+  }
+
+  /**
+   * Tests that the time since the last direction change is counted from the start of a new
+   * round, whether the last change in the previous round was late or early in that round.
+   */
+  @Test
+  public void testStartRound() {
+    KdTree tree = new KdTree(DynamicClusteringGun.NUM_FEATURES, 100, 5);
+    DynamicClusteringGun gun = new DynamicClusteringGun(tree);
+    WaveManager waves = new WaveManager(1);
+
+    // the target changes direction late in the first round
+    gun.update(0, waves, null, 100.0, 300.0, 600.0, 300.0, 0.0, 8.0, 11.0);
+    gun.update(500, waves, null, 100.0, 300.0, 600.0, 300.0, 0.0, -8.0, 11.0);
+    gun.update(510, waves, null, 100.0, 300.0, 600.0, 300.0, 0.0, -8.0, 11.0);
+    assertTrue("time since direction change", gun.getFeature(4) > 0.0);
+
+    // the target keeps its direction at the start of the next round
+    gun.startRound();
+    gun.update(0, waves, null, 100.0, 300.0, 600.0, 300.0, 0.0, -8.0, 11.0);
+    assertEquals("no negative time", 0.0, gun.getFeature(4), EPSILON);
+    gun.update(10, waves, null, 100.0, 300.0, 600.0, 300.0, 0.0, -8.0, 11.0);
+    assertEquals("counts from the start of the round", 0.1, gun.getFeature(4), EPSILON);
+
+    // the target changes direction early, and is first scanned later in the next round
+    gun.update(12, waves, null, 100.0, 300.0, 600.0, 300.0, 0.0, 8.0, 11.0);
+    gun.startRound();
+    gun.update(20, waves, null, 100.0, 300.0, 600.0, 300.0, 0.0, 8.0, 11.0);
+    assertEquals("does not count from the previous round", 0.2, gun.getFeature(4), EPSILON);
+  }
+
+  /**
+   * Tests that the gun leads a target which orbits the shooter at full speed.
+   */
+  @Test
+  public void testOrbitingTarget() {
+    KdTree tree = new KdTree(DynamicClusteringGun.NUM_FEATURES, 1000, 10);
+    DynamicClusteringGun gun = new DynamicClusteringGun(tree);
+    WaveManager waves = new WaveManager(100);
+    double radius = 300.0;
+    double velocity = 8.0;
+    double bulletVelocity = 11.0;
+
+    // the target moves clockwise around the shooter at (400, 300)
+    double angle = 0.0;
+    for (long time = 0; time < 300; time++) {
+      double targetX = 400.0 + Math.sin(angle) * radius;
+      double targetY = 300.0 + Math.cos(angle) * radius;
+      waves.update(time, 400.0, 300.0, targetX, targetY);
+      Wave wave = waves.addOwnWave(time, 400.0, 300.0, bulletVelocity,
+          Utils.normalAbsoluteAngle(angle));
+      gun.update(time, waves, wave, 400.0, 300.0, targetX, targetY, angle + Math.PI / 2,
+          velocity, bulletVelocity);
+      angle += velocity / radius;
+    }
+    assertTrue("situations are recorded", tree.size() > 200);
+
+    double bearing = Utils.normalAbsoluteAngle(angle - velocity / radius);
+    double lead = Utils.normalRelativeAngle(gun.getFiringAngle() - bearing);
+    double maxEscapeAngle = GuessFactorGun.getMaxEscapeAngle(bulletVelocity);
+    assertTrue("leads the target clockwise", lead > 0.5 * maxEscapeAngle);
+    assertTrue("does not lead past the max escape angle", lead <= maxEscapeAngle + EPSILON);
+  }
+}
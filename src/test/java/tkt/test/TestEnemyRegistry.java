@@ -0,0 +1,107 @@
+package tkt.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+import robocode.ScannedRobotEvent;
+import tkt.util.EnemyRegistry;
+import tkt.util.RobotInfo;
+
+/**
+ * Tests the EnemyRegistry class.
+ *
+ * @author Todd Taomae
+ */
+public class TestEnemyRegistry {
+  private static final double EPSILON = 1e-9;
+
+  /**
+   * Tests the constructor of the EnemyRegistry class with an illegal argument.
+   */
+  @Test (expected = IllegalArgumentException.class)
+  public void testConstructorIllegalArgument() {
+    new EnemyRegistry(0);
+  }
+
+  /**
+   * Tests that every enemy keeps its own information, and that scanning an enemy again updates
+   * the same RobotInfo.
+   */
+  @Test
+  public void testUpdate() {
+    EnemyRegistry registry = new EnemyRegistry(2);
+    assertNull("not scanned", registry.get("first"));
+
+    RobotInfo first = registry.update(0.0, 0.0, 0.0, scan("first", 100.0, 1L));
+    RobotInfo second = registry.update(0.0, 0.0, 0.0, scan("second", 100.0, 2L));
+    assertEquals("two enemies", 2, registry.size());
+    assertSame("first enemy", first, registry.get("first"));
+    assertSame("second enemy", second, registry.get(1));
+
+    // the first enemy fires between scans
+    assertSame("same RobotInfo", first, registry.update(0.0, 0.0, 0.0, scan("first", 97.0, 3L)));
+    assertEquals("still two enemies", 2, registry.size());
+    assertTrue("energy drop is detected", first.justFired());
+    assertEquals("fire power", 3.0, first.getFirePower(), EPSILON);
+    assertEquals("last scan time", 3L, first.getTime());
+  }
+
+  /**
+   * Tests that the enemy which has gone the longest without being scanned is replaced when the
+   * registry is full.
+   */
+  @Test
+  public void testReplaceStalest() {
+    EnemyRegistry registry = new EnemyRegistry(2);
+    registry.update(0.0, 0.0, 0.0, scan("first", 100.0, 1L));
+    registry.update(0.0, 0.0, 0.0, scan("second", 100.0, 2L));
+    registry.update(0.0, 0.0, 0.0, scan("first", 100.0, 3L));
+    registry.update(0.0, 0.0, 0.0, scan("third", 100.0, 4L));
+
+    assertEquals("size does not exceed capacity", registry.capacity(), registry.size());
+    assertNull("stalest enemy is replaced", registry.get("second"));
+    assertEquals("first enemy is kept", 3L, registry.get("first").getTime());
+    assertEquals("third enemy is added", 4L, registry.get("third").getTime());
+  }
+
+  /**
+   * Tests that a removed enemy is no longer kept and the last enemy takes its place.
+   */
+  @Test
+  public void testRemove() {
+    EnemyRegistry registry = new EnemyRegistry(3);
+    registry.update(0.0, 0.0, 0.0, scan("first", 100.0, 1L));
+    registry.update(0.0, 0.0, 0.0, scan("second", 100.0, 2L));
+    RobotInfo third = registry.update(0.0, 0.0, 0.0, scan("third", 100.0, 3L));
+
+    assertTrue("removed", registry.remove("first"));
+    assertFalse("already removed", registry.remove("first"));
+    assertEquals("two enemies", 2, registry.size());
+    assertNull("first enemy is removed", registry.get("first"));
+    assertSame("last enemy takes its place", third, registry.get(0));
+  }
+
+  /**
+   * Tests the get method with an index which is out of range.
+   */
+  @Test (expected = IndexOutOfBoundsException.class)
+  public void testGetIndexOutOfBounds() {
+    new EnemyRegistry(2).get(0);
+  }
+
+  /**
+   * Returns a scan of the specified enemy at the specified time.
+   * @param name name of the enemy
+   * @param energy energy of the enemy
+   * @param time time of the scan
+   * @return the scan
+   */
+  private static ScannedRobotEvent scan(String name, double energy, long time) {
+    ScannedRobotEvent event = new ScannedRobotEvent(name, energy, 0.0, 100.0, 0.0, 0.0);
+    event.setTime(time);
+    return event;
+  }
+}
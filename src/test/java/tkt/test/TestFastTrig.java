@@ -0,0 +1,71 @@
+package tkt.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import java.util.Random;
+import org.junit.Test;
+import tkt.util.FastTrig;
+
+/**
+ * Tests the FastTrig class.
+ *
+ * @author Todd Taomae
+ */
+public class TestFastTrig {
+  private static final int NUM_SAMPLES = 100000;
+
+  /**
+   * Tests that the sin and cos methods are within their error bound of Math.sin and Math.cos,
+   * including for negative angles and angles greater than a full turn.
+   */
+  @Test
+  public void testSinCos() {
+    Random rng = new Random(0);
+    for (int i = 0; i < NUM_SAMPLES; i++) {
+      double angle = (rng.nextDouble() - 0.5) * 20.0 * Math.PI;
+      assertEquals("sin " + angle, Math.sin(angle), FastTrig.sin(angle), FastTrig.MAX_SIN_ERROR);
+      assertEquals("cos " + angle, Math.cos(angle), FastTrig.cos(angle), FastTrig.MAX_SIN_ERROR);
+    }
+
+    // table entries
+    for (int i = -8; i <= 8; i++) {
+      double angle = i * Math.PI / 4;
+      assertEquals("sin " + angle, Math.sin(angle), FastTrig.sin(angle), FastTrig.MAX_SIN_ERROR);
+      assertEquals("cos " + angle, Math.cos(angle), FastTrig.cos(angle), FastTrig.MAX_SIN_ERROR);
+    }
+  }
+
+  /**
+   * Tests that the atan2 method is within its error bound of Math.atan2 in every octant.
+   */
+  @Test
+  public void testAtan2() {
+    Random rng = new Random(0);
+    for (int i = 0; i < NUM_SAMPLES; i++) {
+      double y = (rng.nextDouble() - 0.5) * 2000.0;
+      double x = (rng.nextDouble() - 0.5) * 2000.0;
+      assertEquals("atan2 " + y + ", " + x, Math.atan2(y, x), FastTrig.atan2(y, x),
+          FastTrig.MAX_ATAN_ERROR);
+    }
+
+    // axes and diagonals
+    for (int i = -3; i <= 4; i++) {
+      double angle = i * Math.PI / 4;
+      double y = Math.sin(angle);
+      double x = Math.cos(angle);
+      assertEquals("atan2 " + y + ", " + x, Math.atan2(y, x), FastTrig.atan2(y, x),
+          FastTrig.MAX_ATAN_ERROR);
+    }
+    assertEquals("origin", 0.0, FastTrig.atan2(0.0, 0.0), 0.0);
+  }
+
+  /**
+   * Tests that NaN and infinite arguments return NaN.
+   */
+  @Test
+  public void testNotFinite() {
+    assertTrue("sin NaN", Double.isNaN(FastTrig.sin(Double.NaN)));
+    assertTrue("cos infinity", Double.isNaN(FastTrig.cos(Double.POSITIVE_INFINITY)));
+    assertTrue("atan2 NaN", Double.isNaN(FastTrig.atan2(Double.NaN, 1.0)));
+  }
+}
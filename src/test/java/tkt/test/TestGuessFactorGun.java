@@ -0,0 +1,93 @@
+package tkt.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+import robocode.util.Utils;
+import tkt.util.GuessFactorGun;
+import tkt.util.GuessFactorStats;
+import tkt.util.Wave;
+import tkt.util.WaveManager;
+
+/**
+ * Tests the GuessFactorGun class.
+ *
+ * @author Todd Taomae
+ */
+public class TestGuessFactorGun {
+  private static final double EPSILON = 1e-9;
+
+  /**
+   * Tests that the gun aims directly at a target which is not moving.
+   */
+  @Test
+  public void testStationaryTarget() {
+    GuessFactorGun gun = new GuessFactorGun(new GuessFactorStats(0.1));
+    WaveManager waves = new WaveManager(100);
+
+    for (long time = 0; time < 100; time++) {
+      waves.update(time, 100.0, 100.0, 400.0, 400.0);
+      gun.update(time, waves, 100.0, 100.0, 400.0, 400.0, 0.0, 0.0, 11.0);
+    }
+    assertEquals("aims directly at target", Math.PI / 4, gun.getFiringAngle(), EPSILON);
+    assertTrue("waves have reached the target", gun.getSegmentCount() > 50);
+  }
+
+  /**
+   * Tests that the gun leads a target which orbits the shooter at full speed.
+   */
+  @Test
+  public void testOrbitingTarget() {
+    GuessFactorGun gun = new GuessFactorGun(new GuessFactorStats(0.1));
+    WaveManager waves = new WaveManager(100);
+    double radius = 300.0;
+    double velocity = 8.0;
+    double bulletVelocity = 11.0;
+
+    // the target moves clockwise around the shooter at (400, 300)
+    double angle = 0.0;
+    for (long time = 0; time < 300; time++) {
+      double targetX = 400.0 + Math.sin(angle) * radius;
+      double targetY = 300.0 + Math.cos(angle) * radius;
+      waves.update(time, 400.0, 300.0, targetX, targetY);
+      gun.update(time, waves, 400.0, 300.0, targetX, targetY, angle + Math.PI / 2, velocity,
+          bulletVelocity);
+      angle += velocity / radius;
+    }
+
+    double bearing = Utils.normalAbsoluteAngle(angle - velocity / radius);
+    double lead = Utils.normalRelativeAngle(gun.getFiringAngle() - bearing);
+    double maxEscapeAngle = GuessFactorGun.getMaxEscapeAngle(bulletVelocity);
+    assertTrue("leads the target clockwise", lead > 0.5 * maxEscapeAngle);
+    assertTrue("does not lead past the max escape angle", lead <= maxEscapeAngle + EPSILON);
+  }
+
+  /**
+   * Tests the getMaxEscapeAngle method.
+   */
+  @Test
+  public void testMaxEscapeAngle() {
+    double actual = GuessFactorGun.getMaxEscapeAngle(16.0);
+    assertEquals("asin(8 / 16)", Math.PI / 6, actual, EPSILON);
+  }
+
+  /**
+   * Tests the getGuessFactor method.
+   */
+  @Test
+  public void testGetGuessFactor() {
+    WaveManager waves = new WaveManager(1);
+    Wave wave = waves.addOwnWave(0, 0.0, 0.0, 16.0, 0.0);
+    double maxEscapeAngle = GuessFactorGun.getMaxEscapeAngle(16.0);
+
+    assertEquals("direct angle", 0.0, GuessFactorGun.getGuessFactor(wave, 0.0, 100.0), EPSILON);
+    assertEquals("max escape angle clockwise", 1.0, GuessFactorGun.getGuessFactor(wave,
+        Math.sin(maxEscapeAngle) * 100.0, Math.cos(maxEscapeAngle) * 100.0), EPSILON);
+    assertEquals("past the max escape angle is clamped", -1.0,
+        GuessFactorGun.getGuessFactor(wave, -100.0, 0.0), EPSILON);
+
+    wave.setDirection(-1.0);
+    assertEquals("max escape angle counterclockwise", -1.0, GuessFactorGun.getGuessFactor(wave,
+        Math.sin(maxEscapeAngle) * 100.0, Math.cos(maxEscapeAngle) * 100.0), EPSILON);
+  }
+}
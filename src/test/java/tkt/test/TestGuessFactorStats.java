@@ -0,0 +1,88 @@
+package tkt.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+import tkt.util.GuessFactorStats;
+
+/**
+ * Tests the GuessFactorStats class.
+ *
+ * @author Todd Taomae
+ */
+public class TestGuessFactorStats {
+  private static final double EPSILON = 1e-9;
+
+  /**
+   * Tests the constructor of the GuessFactorStats class with an illegal argument.
+   */
+  @Test (expected = IllegalArgumentException.class)
+  public void testConstructorIllegalArgument() {
+    new GuessFactorStats(1.0);
+  }
+
+  /**
+   * Tests the getBin and getGuessFactor methods.
+   */
+  @Test
+  public void testBins() {
+    int last = GuessFactorStats.NUM_BINS - 1;
+
+    assertEquals("guess factor -1 is the first bin", 0, GuessFactorStats.getBin(-1.0));
+    assertEquals("guess factor 0 is the middle bin", last / 2, GuessFactorStats.getBin(0.0));
+    assertEquals("guess factor 1 is the last bin", last, GuessFactorStats.getBin(1.0));
+    assertEquals("guess factors are clamped", last, GuessFactorStats.getBin(1.5));
+
+    for (int bin = 0; bin <= last; bin++) {
+      assertEquals("bin of the guess factor of a bin is the same bin",
+          bin, GuessFactorStats.getBin(GuessFactorStats.getGuessFactor(bin)));
+    }
+    assertEquals("first bin is guess factor -1", -1.0, GuessFactorStats.getGuessFactor(0), EPSILON);
+  }
+
+  /**
+   * Tests the getSegment method.
+   */
+  @Test
+  public void testSegments() {
+    int close = GuessFactorStats.getSegment(100.0, 0.0);
+    int far = GuessFactorStats.getSegment(500.0, 0.0);
+    int closeFast = GuessFactorStats.getSegment(100.0, 8.0);
+
+    assertTrue("different distances are different segments", close != far);
+    assertTrue("different velocities are different segments", close != closeFast);
+    assertEquals("direction of lateral velocity does not matter",
+        closeFast, GuessFactorStats.getSegment(100.0, -8.0));
+    assertEquals("very large distances use the last segment",
+        GuessFactorStats.getSegment(5000.0, 8.0), GuessFactorStats.NUM_SEGMENTS - 1);
+    assertEquals("zero distance uses the first segment", 0, GuessFactorStats.getSegment(0.0, 0.0));
+  }
+
+  /**
+   * Tests the add and getBestGuessFactor methods.
+   */
+  @Test
+  public void testAdd() {
+    GuessFactorStats stats = new GuessFactorStats(0.1);
+    int segment = 3;
+
+    assertEquals("no observations", 0.0, stats.getBestGuessFactor(segment), EPSILON);
+    assertEquals("no observations", 0, stats.getCount(segment));
+
+    stats.add(segment, 0.8);
+    stats.add(segment, 0.8);
+    assertEquals("most common guess factor", GuessFactorStats.getGuessFactor(
+        GuessFactorStats.getBin(0.8)), stats.getBestGuessFactor(segment), EPSILON);
+    assertEquals("two observations", 2, stats.getCount(segment));
+    assertEquals("other segments are not affected", 0, stats.getCount(segment + 1));
+
+    // newer observations eventually outweigh older observations
+    for (int i = 0; i < 3; i++) {
+      stats.add(segment, -0.5);
+    }
+    assertEquals("newer guess factor", GuessFactorStats.getGuessFactor(
+        GuessFactorStats.getBin(-0.5)), stats.getBestGuessFactor(segment), EPSILON);
+    assertTrue("nearby bins are increased", stats.getValue(segment,
+        GuessFactorStats.getBin(-0.5) + 1) > 0.0);
+  }
+}
@@ -0,0 +1,129 @@
+package tkt.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import robocode.control.snapshot.RobotState;
+import tkt.util.VirtualGunArray;
+
+/**
+ * Tests the GunEvaluator, GunEvaluation, and Trajectory classes.
+ *
+ * @author Todd Taomae
+ */
+public class TestGunEvaluator {
+  private static final double EPSILON = 1e-3;
+
+  /** Folder for the replay files, which is deleted after each test. */
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  /**
+   * Tests that every gun hits a target which is not moving.
+   */
+  @Test
+  public void testStationaryTarget() {
+    Trajectory round = new Trajectory();
+    for (int t = 0; t < 300; t++) {
+      round.add(100.0, 100.0, 400.0, 400.0, 0.0, 0.0);
+    }
+    GunEvaluation evaluation = new GunEvaluator(800, 600).evaluate(new Trajectory[] {round});
+
+    assertTrue("waves reached the target", evaluation.getNumScored() > 200);
+    for (int gun = 0; gun < VirtualGunArray.NUM_GUNS; gun++) {
+      assertEquals("every virtual bullet hits", 1.0, evaluation.getHitRate(gun), 0.0);
+    }
+  }
+
+  /**
+   * Tests that evaluating battles in parallel gives the same result as evaluating them one at a
+   * time, and that linear targeting beats head-on targeting against a target moving back and
+   * forth.
+   */
+  @Test
+  public void testParallel() {
+    List<Trajectory[]> battles = new ArrayList<Trajectory[]>();
+    for (int b = 0; b < 8; b++) {
+      Trajectory[] rounds = new Trajectory[3];
+      for (int r = 0; r < rounds.length; r++) {
+        rounds[r] = newOscillatingTrajectory(20 + b + r, 400);
+      }
+      battles.add(rounds);
+    }
+
+    GunEvaluator evaluator = new GunEvaluator(800, 600);
+    GunEvaluation sequential = new GunEvaluation();
+    for (Trajectory[] battle : battles) {
+      sequential.add(evaluator.evaluate(battle));
+    }
+    GunEvaluation parallel = evaluator.evaluate(battles, new ForkJoinPool(4));
+
+    assertEquals("same number of waves", sequential.getNumScored(), parallel.getNumScored());
+    for (int gun = 0; gun < VirtualGunArray.NUM_GUNS; gun++) {
+      assertEquals("same hits for gun " + gun, sequential.getHits(gun), parallel.getHits(gun));
+    }
+    assertTrue("linear beats head-on", parallel.getHitRate(VirtualGunArray.LINEAR)
+        > parallel.getHitRate(VirtualGunArray.HEAD_ON));
+    assertEquals("no battles", 0,
+        evaluator.evaluate(new ArrayList<Trajectory[]>(), new ForkJoinPool(1)).getNumScored());
+  }
+
+  /**
+   * Tests that trajectories are read from a replay, one for each round, from the point of view of
+   * the shooter, and that a round ends when a robot dies.
+   * @throws IOException if the replay cannot be written or read
+   */
+  @Test
+  public void testReadReplay() throws IOException {
+    File file = this.folder.newFile("replay");
+    ReplayRecorder recorder = new ReplayRecorder(file);
+    recorder.writeRobotNames(new String[] {"sample.Crazy", "tkt.RedShift*"});
+    int active = RobotState.ACTIVE.ordinal();
+    int dead = RobotState.DEAD.ordinal();
+    for (int round = 0; round < 2; round++) {
+      for (int t = 0; t < 10; t++) {
+        recorder.beginTurn(round, t, 0);
+        // the target dies on tick 8 of the second round
+        recorder.addRobot(300.0 + t, 200.0, 8.0, 100.0, 1.0, 0.0, 0.0, 0.0,
+            round == 1 && t >= 8 ? dead : active);
+        recorder.addRobot(100.0, 100.0 + t, 0.0, 100.0, 0.0, 0.0, 0.0, 0.0, active);
+      }
+    }
+    recorder.close();
+
+    Trajectory[] rounds = Trajectory.read(new ReplayReader(file), "tkt.RedShift");
+    assertEquals("one trajectory for each round", 2, rounds.length);
+    assertEquals("whole round", 10, rounds[0].getLength());
+    assertEquals("round ends when a robot dies", 8, rounds[1].getLength());
+    assertEquals("shooter x", 100.0, rounds[0].getShooterX(3), EPSILON);
+    assertEquals("shooter y", 103.0, rounds[0].getShooterY(3), EPSILON);
+    assertEquals("target x", 303.0, rounds[0].getTargetX(3), EPSILON);
+    assertEquals("target heading", 1.0, rounds[0].getTargetHeading(3), EPSILON);
+    assertEquals("target velocity", 8.0, rounds[0].getTargetVelocity(3), EPSILON);
+  }
+
+  /**
+   * Returns the trajectory of a target which moves up and down at full speed, reversing after
+   * the specified number of ticks, in front of a shooter which is not moving.
+   * @param period number of ticks between reversals
+   * @param length number of ticks
+   * @return the trajectory
+   */
+  private static Trajectory newOscillatingTrajectory(int period, int length) {
+    Trajectory trajectory = new Trajectory();
+    double y = 300.0;
+    for (int t = 0; t < length; t++) {
+      double velocity = (t / period) % 2 == 0 ? 8.0 : -8.0;
+      y += velocity;
+      trajectory.add(100.0, 300.0, 450.0, y, 0.0, velocity);
+    }
+    return trajectory;
+  }
+}
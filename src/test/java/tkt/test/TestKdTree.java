@@ -0,0 +1,160 @@
+package tkt.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import java.util.Arrays;
+import java.util.Random;
+import org.junit.Test;
+import tkt.util.KdTree;
+
+/**
+ * Tests the KdTree class.
+ *
+ * @author Todd Taomae
+ */
+public class TestKdTree {
+  private static final double EPSILON = 1e-9;
+  private static final int DIMENSIONS = 3;
+
+  /**
+   * Tests the constructor of the KdTree class with an illegal argument.
+   */
+  @Test (expected = IllegalArgumentException.class)
+  public void testConstructorIllegalArgument() {
+    new KdTree(0, 10, 1);
+  }
+
+  /**
+   * Tests the search method with an illegal argument.
+   */
+  @Test (expected = IllegalArgumentException.class)
+  public void testSearchIllegalArgument() {
+    new KdTree(DIMENSIONS, 10, 5).search(new double[DIMENSIONS], 6);
+  }
+
+  /**
+   * Tests that the neighbors found by the tree are the same as the neighbors found by checking
+   * every point, including points which are added in sorted order.
+   */
+  @Test
+  public void testSearch() {
+    Random rng = new Random(1234);
+    int numPoints = 2000;
+    int k = 7;
+    KdTree tree = new KdTree(DIMENSIONS, numPoints, k);
+    double[][] points = new double[numPoints][DIMENSIONS];
+
+    for (int i = 0; i < numPoints; i++) {
+      for (int d = 0; d < DIMENSIONS; d++) {
+        // the first coordinate only increases, which unbalances the tree until it is rebuilt
+        points[i][d] = d == 0 ? i / (double)numPoints : rng.nextDouble();
+      }
+      tree.add(points[i], i);
+    }
+    assertEquals("size", numPoints, tree.size());
+
+    double[] query = new double[DIMENSIONS];
+    for (int trial = 0; trial < 200; trial++) {
+      for (int d = 0; d < DIMENSIONS; d++) {
+        query[d] = rng.nextDouble();
+      }
+      assertEquals("k neighbors found", k, tree.search(query, k));
+
+      double[] expected = nearestDistances(points, numPoints, query, k);
+      double[] actual = new double[k];
+      for (int i = 0; i < k; i++) {
+        actual[i] = tree.getNeighborDistance(i);
+        int index = (int)tree.getNeighborValue(i);
+        assertEquals("value matches distance", distance(points[index], query), actual[i], EPSILON);
+      }
+      Arrays.sort(actual);
+      for (int i = 0; i < k; i++) {
+        assertEquals("same distances as checking every point", expected[i], actual[i], EPSILON);
+      }
+    }
+  }
+
+  /**
+   * Tests that the oldest block of points is removed when the tree is full.
+   */
+  @Test
+  public void testCapacity() {
+    KdTree tree = new KdTree(1, 10, 10);
+    int blockSize = tree.getBlockSize();
+    for (int i = 0; i < 11; i++) {
+      tree.add(new double[] {i}, i);
+    }
+    assertEquals("oldest block is removed", 11 - blockSize, tree.size());
+    assertEquals("every remaining point is found", 11 - blockSize,
+        tree.search(new double[] {0.0}, 10));
+
+    // the nearest remaining point to 0 is the first point after the oldest block
+    assertEquals("one neighbor", 1, tree.search(new double[] {0.0}, 1));
+    assertEquals("nearest remaining point", blockSize, tree.getNeighborValue(0), EPSILON);
+
+    tree.clear();
+    assertEquals("cleared", 0, tree.size());
+    assertEquals("no neighbors", 0, tree.search(new double[] {0.0}, 1));
+  }
+
+  /**
+   * Tests that removing the oldest points does not rebuild the tree, and that no add rebuilds
+   * more points than a block holds, even after many times the capacity has been added.
+   */
+  @Test
+  public void testBoundedRebuild() {
+    Random rng = new Random(1234);
+    int capacity = 30000;
+    KdTree tree = new KdTree(5, capacity, 25);
+    double[] point = new double[5];
+    int maxRebuildSize = 0;
+    for (int i = 0; i < 4 * capacity; i++) {
+      for (int d = 0; d < point.length; d++) {
+        point[d] = rng.nextDouble();
+      }
+      int size = tree.size();
+      tree.add(point, i);
+      if (tree.size() <= size) {
+        assertEquals("removing the oldest block rebuilds nothing", 0,
+            tree.getLastRebuildSize());
+      }
+      maxRebuildSize = Math.max(maxRebuildSize, tree.getLastRebuildSize());
+    }
+    assertTrue("rebuilds are bounded by the block size",
+        maxRebuildSize <= tree.getBlockSize());
+    assertTrue("blocks are much smaller than the tree", tree.getBlockSize() <= capacity / 4);
+    assertEquals("k neighbors found", 25, tree.search(point, 25));
+  }
+
+  /**
+   * Returns the sorted squared distances of the k nearest points to the query.
+   * @param points points
+   * @param numPoints number of points
+   * @param query query
+   * @param k number of distances
+   * @return the k smallest squared distances
+   */
+  private static double[] nearestDistances(double[][] points, int numPoints, double[] query,
+      int k) {
+    double[] distances = new double[numPoints];
+    for (int i = 0; i < numPoints; i++) {
+      distances[i] = distance(points[i], query);
+    }
+    Arrays.sort(distances);
+    return Arrays.copyOf(distances, k);
+  }
+
+  /**
+   * Returns the squared distance between two points.
+   * @param a first point
+   * @param b second point
+   * @return the squared distance
+   */
+  private static double distance(double[] a, double[] b) {
+    double sum = 0.0;
+    for (int d = 0; d < a.length; d++) {
+      sum += (a[d] - b[d]) * (a[d] - b[d]);
+    }
+    return sum;
+  }
+}
@@ -0,0 +1,76 @@
+package tkt.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+import tkt.util.LatencyProfiler;
+
+/**
+ * Tests the LatencyProfiler class.
+ *
+ * @author Todd Taomae
+ */
+public class TestLatencyProfiler {
+  private static final double EPSILON = 1e-9;
+  private static final String[] SECTIONS = {"first", "second"};
+
+  /**
+   * Tests the constructor of the LatencyProfiler class with an illegal argument.
+   */
+  @Test (expected = IllegalArgumentException.class)
+  public void testConstructorIllegalArgument() {
+    new LatencyProfiler(SECTIONS, 10, 0);
+  }
+
+  /**
+   * Tests the getPercentile method with an illegal argument.
+   */
+  @Test (expected = IllegalArgumentException.class)
+  public void testGetPercentileIllegalArgument() {
+    new LatencyProfiler(SECTIONS, 10, 100).getPercentile(0, 101.0);
+  }
+
+  /**
+   * Tests the add method and the statistics of each section.
+   */
+  @Test
+  public void testAdd() {
+    LatencyProfiler profiler = new LatencyProfiler(SECTIONS, 10, 100);
+    assertEquals("nothing recorded", 0, profiler.getPercentile(0, 50.0));
+    assertEquals("nothing recorded", 0.0, profiler.getMean(0), EPSILON);
+
+    // latencies of 50, 150, ..., 950
+    for (int i = 0; i < 10; i++) {
+      profiler.add(0, i * 100 + 50);
+    }
+    assertEquals("count", 10, profiler.getCount(0));
+    assertEquals("mean", 500.0, profiler.getMean(0), EPSILON);
+    assertEquals("max", 950, profiler.getMax(0));
+    assertEquals("median is in the fifth bucket", 500, profiler.getPercentile(0, 50.0));
+    assertEquals("90th percentile is in the ninth bucket", 900, profiler.getPercentile(0, 90.0));
+    assertEquals("100th percentile is the max", 950, profiler.getPercentile(0, 100.0));
+    assertEquals("0th percentile is in the first bucket", 100, profiler.getPercentile(0, 0.0));
+    assertEquals("other sections are not affected", 0, profiler.getCount(1));
+
+    // latencies past the last bucket are counted in the last bucket
+    profiler.add(1, 100000);
+    assertEquals("long latency", 100000, profiler.getPercentile(1, 50.0));
+  }
+
+  /**
+   * Tests the record, addSkippedTurn, and clear methods.
+   */
+  @Test
+  public void testRecordAndClear() {
+    LatencyProfiler profiler = new LatencyProfiler(SECTIONS, 10, 100);
+    profiler.record(1, System.nanoTime());
+    profiler.addSkippedTurn();
+    assertEquals("one latency recorded", 1, profiler.getCount(1));
+    assertTrue("latency is not negative", profiler.getMax(1) >= 0);
+    assertEquals("one skipped turn", 1, profiler.getSkippedTurns());
+
+    profiler.clear();
+    assertEquals("cleared", 0, profiler.getCount(1));
+    assertEquals("cleared", 0, profiler.getSkippedTurns());
+  }
+}
@@ -1,8 +1,11 @@
 package tkt.test;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
 import java.awt.geom.Point2D;
+import java.util.Random;
 import org.junit.Test;
+import tkt.util.FastTrig;
 import tkt.util.MathUtility;
 
 /**
@@ -18,6 +21,24 @@ public class TestMathUtility {
   public void testConstructor() {
     new MathUtility();
   }
+
+  /**
+   * Tests that the getFastDirectionRadians method is within the error bound of the
+   * getDirectionRadians method.
+   */
+  @Test
+  public void testGetFastDirectionRadians() {
+    Random rng = new Random(0);
+    for (int i = 0; i < 1000; i++) {
+      double x1 = rng.nextDouble() * 800.0;
+      double y1 = rng.nextDouble() * 600.0;
+      double x2 = rng.nextDouble() * 800.0;
+      double y2 = rng.nextDouble() * 600.0;
+      assertEquals("same direction", MathUtility.getDirectionRadians(x1, y1, x2, y2),
+          MathUtility.getFastDirectionRadians(x1, y1, x2, y2), FastTrig.MAX_ATAN_ERROR);
+    }
+  }
+
   /**
    * Tests the getDirection methods.
    */
@@ -213,4 +234,93 @@ public class TestMathUtility {
     assertEquals(expectedX, actualX, 5 * Math.ulp(actualX));
     assertEquals(expectedY, actualY, 5 * Math.ulp(actualY));
   }
+
+  /**
+   * Tests that the getTargetPoint method which sets an existing point, and the getTargetX and
+   * getTargetY methods, return exactly the same coordinates as the getTargetPoint method which
+   * allocates a new point.
+   */
+  @Test
+  public void testGetTargetPointNoAllocation() {
+    Random rng = new Random(1234);
+    Point2D.Double result = new Point2D.Double();
+
+    for (int i = 0; i < 1000; i++) {
+      double x = rng.nextDouble() * 800.0;
+      double y = rng.nextDouble() * 600.0;
+      double bearing = (rng.nextDouble() - 0.5) * 4 * Math.PI;
+      double distance = rng.nextDouble() * 1000.0;
+
+      Point2D.Double expected = MathUtility.getTargetPoint(x, y, bearing, distance);
+      assertSame("result is the same point", result,
+          MathUtility.getTargetPoint(x, y, bearing, distance, result));
+      assertEquals("same x", expected.getX(), result.getX(), 0.0);
+      assertEquals("same y", expected.getY(), result.getY(), 0.0);
+      assertEquals("same x", expected.getX(), MathUtility.getTargetX(x, bearing, distance), 0.0);
+      assertEquals("same y", expected.getY(), MathUtility.getTargetY(y, bearing, distance), 0.0);
+    }
+  }
+
+  /**
+   * Tests the getInterceptTime method against a tick by tick simulation of the target and
+   * the bullet.
+   */
+  @Test
+  public void testGetInterceptTime() {
+    Random rng = new Random(1234);
+
+    for (int i = 0; i < 10000; i++) {
+      double shooterX = rng.nextDouble() * 800.0;
+      double shooterY = rng.nextDouble() * 600.0;
+      double targetX = rng.nextDouble() * 800.0;
+      double targetY = rng.nextDouble() * 600.0;
+      double heading = rng.nextDouble() * 2.0 * Math.PI;
+      double velocity = rng.nextDouble() * 16.0 - 8.0;
+      double bulletPower = 0.1 + rng.nextDouble() * 2.9;
+      double bulletVelocity = 20.0 - 3.0 * bulletPower;
+
+      double deltaX = Math.sin(heading) * velocity;
+      double deltaY = Math.cos(heading) * velocity;
+
+      // simulate each tick until the bullet reaches the target
+      double loopX = targetX;
+      double loopY = targetY;
+      double bulletTravelDistance = 0.0;
+      do {
+        loopX += deltaX;
+        loopY += deltaY;
+        bulletTravelDistance += bulletVelocity;
+      } while (bulletTravelDistance < Point2D.Double.distance(shooterX, shooterY, loopX, loopY));
+
+      double ticks = Math.ceil(MathUtility.getInterceptTime(shooterX, shooterY, targetX, targetY,
+          heading, velocity, bulletVelocity));
+      ticks = Math.max(1.0, ticks);
+      double solvedX = targetX + deltaX * ticks;
+      double solvedY = targetY + deltaY * ticks;
+
+      double expected = MathUtility.getDirectionRadians(shooterX, shooterY, loopX, loopY);
+      double actual = MathUtility.getDirectionRadians(shooterX, shooterY, solvedX, solvedY);
+      assertEquals("angle matches simulation", expected, actual, 1e-9);
+    }
+  }
+
+  /**
+   * Tests the getInterceptTime method with a target that cannot be reached.
+   */
+  @Test
+  public void testGetInterceptTimeUnreachable() {
+    double actual;
+
+    // target moving directly away faster than the bullet
+    actual = MathUtility.getInterceptTime(0.0, 0.0, 0.0, 100.0, 0.0, 8.0, 5.0);
+    assertEquals(Double.POSITIVE_INFINITY, actual, 0.0);
+
+    // target moving directly away at the same speed as the bullet
+    actual = MathUtility.getInterceptTime(0.0, 0.0, 0.0, 100.0, 0.0, 8.0, 8.0);
+    assertEquals(Double.POSITIVE_INFINITY, actual, 0.0);
+
+    // target moving directly toward the shooter at the same speed as the bullet
+    actual = MathUtility.getInterceptTime(0.0, 0.0, 0.0, 100.0, 0.0, -8.0, 8.0);
+    assertEquals(6.25, actual, 5 * Math.ulp(actual));
+  }
 }
@@ -0,0 +1,132 @@
+package tkt.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+import tkt.util.MathUtility;
+import tkt.util.MinimumRiskMovement;
+
+/**
+ * Tests the MinimumRiskMovement class.
+ *
+ * @author Todd Taomae
+ */
+public class TestMinimumRiskMovement {
+  private static final double EPSILON = 1e-9;
+
+  /**
+   * Tests the constructor of the MinimumRiskMovement class with an illegal number of candidates.
+   */
+  @Test (expected = IllegalArgumentException.class)
+  public void testConstructorIllegalCandidates() {
+    new MinimumRiskMovement(0, 4);
+  }
+
+  /**
+   * Tests the constructor of the MinimumRiskMovement class with an illegal number of enemies.
+   */
+  @Test (expected = IllegalArgumentException.class)
+  public void testConstructorIllegalEnemies() {
+    new MinimumRiskMovement(8, 0);
+  }
+
+  /**
+   * Tests that clearing the enemies makes room for new enemies.
+   */
+  @Test
+  public void testClearEnemies() {
+    MinimumRiskMovement movement = new MinimumRiskMovement(8, 2);
+    movement.addEnemy(100.0, 100.0, 100.0);
+    movement.addEnemy(200.0, 200.0, 100.0);
+    movement.clearEnemies();
+    movement.addEnemy(300.0, 300.0, 100.0);
+    assertEquals("one enemy", 1, movement.getNumEnemies());
+  }
+
+  /**
+   * Tests that adding more than the maximum number of enemies throws an exception.
+   */
+  @Test (expected = IllegalStateException.class)
+  public void testAddTooManyEnemies() {
+    MinimumRiskMovement movement = new MinimumRiskMovement(8, 2);
+    movement.addEnemy(100.0, 100.0, 100.0);
+    movement.addEnemy(200.0, 200.0, 100.0);
+    movement.addEnemy(300.0, 300.0, 100.0);
+  }
+
+  /**
+   * Tests that the risk of each enemy is its energy divided by the square of its distance.
+   */
+  @Test
+  public void testGetRisk() {
+    MinimumRiskMovement movement = new MinimumRiskMovement(8, 2);
+    movement.addEnemy(0.0, 10.0, 100.0);
+    movement.addEnemy(20.0, 0.0, 50.0);
+    double positionRisk = movement.getRisk(0.0, 0.0, 1e9, 0.0);
+    assertEquals("inverse square", 100.0 / 100 + 50.0 / 400, positionRisk, 1e-6);
+    assertTrue("the position of the robot is a risk",
+        movement.getRisk(0.0, 0.0, 0.0, 5.0) > positionRisk);
+  }
+
+  /**
+   * Tests that the robot moves away from a single enemy, and stays inside the battlefield.
+   */
+  @Test
+  public void testMoveAway() {
+    MinimumRiskMovement movement = new MinimumRiskMovement(16, 1);
+    movement.setBattleField(800.0, 600.0);
+    movement.addEnemy(500.0, 300.0, 100.0);
+    movement.update(400.0, 300.0);
+
+    assertTrue("destination is chosen", movement.hasDestination());
+    assertTrue("moves away from the enemy", movement.getDestinationX() < 400.0);
+    assertTrue("farther from the enemy", MathUtility.getDistance(500.0, 300.0,
+        movement.getDestinationX(), movement.getDestinationY()) > 100.0);
+    for (int i = 0; i < movement.getNumCandidates(); i++) {
+      assertEquals("candidate at the same distance", 50.0, MathUtility.getDistance(400.0, 300.0,
+          movement.getCandidateX(i), movement.getCandidateY(i)), 1e-5);
+    }
+
+    // a robot in a corner is not sent outside of the battlefield
+    movement.clearEnemies();
+    movement.addEnemy(300.0, 300.0, 100.0);
+    movement.update(50.0, 50.0);
+    assertTrue("inside the battlefield", movement.getDestinationX() >= 40.0
+        && movement.getDestinationY() >= 40.0);
+  }
+
+  /**
+   * Tests that the robot keeps its destination until a safer point is found.
+   */
+  @Test
+  public void testKeepDestination() {
+    MinimumRiskMovement movement = new MinimumRiskMovement(4, 1);
+    movement.setBattleField(800.0, 600.0);
+    movement.addEnemy(500.0, 300.0, 100.0);
+    movement.update(400.0, 300.0);
+    double x = movement.getDestinationX();
+    double y = movement.getDestinationY();
+    double risk = movement.getDestinationRisk();
+
+    // with the enemy still there, nothing is safer than the same destination
+    movement.update(400.0, 300.0);
+    assertTrue("risk does not increase", movement.getDestinationRisk() <= risk + EPSILON);
+    assertFalse("not outside the battlefield", movement.getDestinationX() > 760.0);
+
+    // an enemy next to the destination makes it unsafe
+    movement.clearEnemies();
+    movement.addEnemy(x, y + 1.0, 100.0);
+    movement.update(400.0, 300.0);
+    assertTrue("new destination", MathUtility.getDistance(x, y,
+        movement.getDestinationX(), movement.getDestinationY()) > 1.0);
+  }
+
+  /**
+   * Tests the getCandidateX method with an index which is out of range.
+   */
+  @Test (expected = IndexOutOfBoundsException.class)
+  public void testGetCandidateIndexOutOfBounds() {
+    new MinimumRiskMovement(4, 1).getCandidateX(4);
+  }
+}
@@ -0,0 +1,152 @@
+package tkt.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+import tkt.util.MovementPredictor;
+
+/**
+ * Tests the MovementPredictor class.
+ *
+ * @author Todd Taomae
+ */
+public class TestMovementPredictor {
+  private static final double EPSILON = 1e-9;
+
+  /**
+   * Tests that a robot accelerates by 1 per tick up to the maximum velocity.
+   */
+  @Test
+  public void testAcceleration() {
+    MovementPredictor predictor = new MovementPredictor();
+    predictor.setState(100.0, 100.0, 0.0, 0.0);
+    predictor.setAhead(Double.POSITIVE_INFINITY);
+
+    double y = 100.0;
+    for (int tick = 1; tick <= 10; tick++) {
+      predictor.advance();
+      double velocity = Math.min(tick, MovementPredictor.MAX_VELOCITY);
+      y += velocity;
+      assertEquals("velocity on tick " + tick, velocity, predictor.getVelocity(), EPSILON);
+      assertEquals("y on tick " + tick, y, predictor.getY(), EPSILON);
+    }
+    assertEquals("x", 100.0, predictor.getX(), EPSILON);
+    assertEquals("ticks", 10, predictor.getTicks());
+  }
+
+  /**
+   * Tests that a robot which reverses decelerates by 2 per tick until it stops, then
+   * accelerates by 1 per tick in the other direction.
+   */
+  @Test
+  public void testReverse() {
+    MovementPredictor predictor = new MovementPredictor();
+    predictor.setState(100.0, 100.0, 0.0, 8.0);
+    predictor.setAhead(Double.NEGATIVE_INFINITY);
+
+    double[] expected = {6.0, 4.0, 2.0, 0.0, -1.0, -2.0};
+    for (int tick = 0; tick < expected.length; tick++) {
+      predictor.advance();
+      assertEquals("velocity on tick " + tick, expected[tick], predictor.getVelocity(), EPSILON);
+    }
+
+    // from a velocity of 1, the robot stops in half a tick and accelerates for the other half
+    assertEquals("new velocity", 0.5, MovementPredictor.getNewVelocity(-1.0, 100.0, 8.0), EPSILON);
+  }
+
+  /**
+   * Tests that a robot slows down in time to stop exactly at the end of the distance to move.
+   */
+  @Test
+  public void testStopAtDistance() {
+    double[] distances = {1.0, 7.5, 20.0, 100.0, 123.4};
+    for (double distance : distances) {
+      MovementPredictor predictor = new MovementPredictor();
+      predictor.setState(100.0, 100.0, Math.PI / 2, 0.0);
+      predictor.setAhead(distance);
+      predictor.advance(100);
+      assertEquals("x after " + distance, 100.0 + distance, predictor.getX(), 1e-6);
+      assertEquals("stopped after " + distance, 0.0, predictor.getVelocity(), 1e-6);
+      assertEquals("no distance remaining", 0.0, predictor.getDistanceRemaining(), 1e-6);
+    }
+  }
+
+  /**
+   * Tests that the turn rate decreases with velocity.
+   */
+  @Test
+  public void testTurnRate() {
+    MovementPredictor predictor = new MovementPredictor();
+    predictor.setState(100.0, 100.0, 0.0, 0.0);
+    predictor.setTurnRightRadians(Math.PI);
+    predictor.advance();
+    assertEquals("turn when not moving", Math.toRadians(10.0), predictor.getHeading(), EPSILON);
+
+    predictor.setState(100.0, 100.0, 0.0, 8.0);
+    predictor.setAhead(Double.POSITIVE_INFINITY);
+    predictor.setTurnRightRadians(-Math.PI);
+    predictor.advance();
+    assertEquals("turn at full speed", 2 * Math.PI - Math.toRadians(4.0), predictor.getHeading(),
+        EPSILON);
+    assertEquals("turn remaining", -Math.PI + Math.toRadians(4.0), predictor.getTurnRemaining(),
+        EPSILON);
+    assertEquals("moves along the new heading", 100.0 - 8.0 * Math.sin(Math.toRadians(4.0)),
+        predictor.getX(), EPSILON);
+
+    predictor.setState(100.0, 100.0, 0.0, 0.0);
+    predictor.setTurnToHeading(Math.toRadians(355.0));
+    predictor.advance();
+    assertEquals("turns the shortest way", Math.toRadians(355.0), predictor.getHeading(), EPSILON);
+    assertEquals("no turn remaining", 0.0, predictor.getTurnRemaining(), EPSILON);
+  }
+
+  /**
+   * Tests that a robot which runs into a wall stops at the wall.
+   */
+  @Test
+  public void testHitWall() {
+    MovementPredictor predictor = new MovementPredictor();
+    predictor.setBattleField(800.0, 600.0);
+    predictor.setState(100.0, 50.0, Math.PI, 8.0);
+    predictor.setAhead(Double.POSITIVE_INFINITY);
+    predictor.advance(10);
+    assertTrue("hit the wall", predictor.hasHitWall());
+    assertEquals("at the wall", 18.0, predictor.getY(), EPSILON);
+    assertEquals("x", 100.0, predictor.getX(), EPSILON);
+    assertEquals("stopped", 0.0, predictor.getVelocity(), 0.0);
+
+    // moving back diagonally into a corner stays on the path
+    predictor.setState(30.0, 40.0, Math.PI / 4, -8.0);
+    predictor.setAhead(Double.NEGATIVE_INFINITY);
+    predictor.advance(5);
+    assertTrue("hit the wall", predictor.hasHitWall());
+    assertEquals("at the left wall", 18.0, predictor.getX(), EPSILON);
+    assertEquals("on the path", 28.0, predictor.getY(), EPSILON);
+  }
+
+  /**
+   * Tests that copying a predictor continues the same path.
+   */
+  @Test
+  public void testCopy() {
+    MovementPredictor predictor = new MovementPredictor();
+    predictor.setBattleField(800.0, 600.0);
+    predictor.setState(400.0, 300.0, 1.0, 3.0);
+    predictor.setAhead(200.0);
+    predictor.setTurnRightRadians(0.5);
+    predictor.setMaxVelocity(6.0);
+    predictor.advance(3);
+
+    MovementPredictor branch = new MovementPredictor();
+    branch.copy(predictor);
+    predictor.advance(20);
+    branch.advance(20);
+    assertEquals("x", predictor.getX(), branch.getX(), 0.0);
+    assertEquals("y", predictor.getY(), branch.getY(), 0.0);
+    assertEquals("heading", predictor.getHeading(), branch.getHeading(), 0.0);
+    assertEquals("ticks", 23, branch.getTicks());
+    assertTrue("limited velocity", Math.abs(branch.getVelocity()) <= 6.0);
+    assertFalse("did not hit a wall", branch.hasHitWall());
+  }
+}
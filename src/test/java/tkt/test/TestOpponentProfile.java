@@ -0,0 +1,70 @@
+package tkt.test;
+
+import static org.junit.Assert.assertEquals;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import org.junit.Test;
+import tkt.util.OpponentProfile;
+
+/**
+ * Tests the OpponentProfile class.
+ *
+ * @author Todd Taomae
+ */
+public class TestOpponentProfile {
+  private static final double EPSILON = 1e-9;
+
+  /**
+   * Tests that a profile which is written and read back is unchanged.
+   * @throws IOException if the profile cannot be written or read
+   */
+  @Test
+  public void testReadWrite() throws IOException {
+    OpponentProfile profile = new OpponentProfile();
+    profile.setNumBattles(3);
+    profile.setNumVelocities(42);
+    profile.setAccuracyWithDodge(0.25);
+    profile.setAccuracyWithoutDodge(0.5);
+
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    profile.write(new DataOutputStream(bytes));
+    assertEquals("size", OpponentProfile.SIZE, bytes.size());
+
+    OpponentProfile read = OpponentProfile.read(
+        new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+    assertEquals("number of battles", 3, read.getNumBattles());
+    assertEquals("number of velocities", 42, read.getNumVelocities());
+    assertEquals("accuracy with dodge", 0.25, read.getAccuracyWithDodge(), EPSILON);
+    assertEquals("accuracy without dodge", 0.5, read.getAccuracyWithoutDodge(), EPSILON);
+  }
+
+  /**
+   * Tests that a profile written in a different version is rejected.
+   * @throws IOException if the profile cannot be read
+   */
+  @Test (expected = IOException.class)
+  public void testReadDifferentVersion() throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    DataOutputStream out = new DataOutputStream(bytes);
+    out.writeInt(OpponentProfile.VERSION + 1);
+    out.write(new byte[OpponentProfile.SIZE]);
+
+    OpponentProfile.read(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+  }
+
+  /**
+   * Tests the getOpponentName method.
+   */
+  @Test
+  public void testGetOpponentName() {
+    assertEquals("plain name", "sample.Corners",
+        OpponentProfile.getOpponentName("sample.Corners"));
+    assertEquals("instance number is removed", "sample.Corners",
+        OpponentProfile.getOpponentName("sample.Corners (2)"));
+    assertEquals("version is kept", "tkt.RedShift 1.0",
+        OpponentProfile.getOpponentName("tkt.RedShift 1.0 (1)"));
+  }
+}
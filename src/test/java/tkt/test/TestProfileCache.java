@@ -0,0 +1,110 @@
+package tkt.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import org.junit.Test;
+import tkt.util.OpponentProfile;
+import tkt.util.ProfileCache;
+
+/**
+ * Tests the ProfileCache class.
+ *
+ * @author Todd Taomae
+ */
+public class TestProfileCache {
+  /** Number of bytes for the profile of an opponent with a two character name. */
+  private static final int ENTRY_SIZE = 2 + 2 + OpponentProfile.SIZE;
+
+  /**
+   * Tests the constructor of the ProfileCache class with an illegal argument.
+   */
+  @Test (expected = IllegalArgumentException.class)
+  public void testConstructorIllegalArgument() {
+    new ProfileCache(ProfileCache.HEADER_SIZE - 1);
+  }
+
+  /**
+   * Tests that the least recently fought opponent is removed when the quota is exceeded.
+   */
+  @Test
+  public void testEviction() {
+    ProfileCache cache = new ProfileCache(ProfileCache.HEADER_SIZE + 2 * ENTRY_SIZE);
+    cache.put("r1", profile(1));
+    cache.put("r2", profile(2));
+    assertEquals("size in bytes", ProfileCache.HEADER_SIZE + 2 * ENTRY_SIZE, cache.getSizeBytes());
+
+    // r1 is fought again, so r2 is the least recently fought
+    assertEquals("profile", 1, cache.get("r1").getNumVelocities());
+    cache.put("r3", profile(3));
+
+    assertEquals("two profiles fit", 2, cache.size());
+    assertTrue("recently fought opponent is kept", cache.contains("r1"));
+    assertFalse("least recently fought opponent is removed", cache.contains("r2"));
+    assertNull("removed profile", cache.get("r2"));
+    assertTrue("size is within the quota", cache.getSizeBytes() <= cache.getQuota());
+
+    // replacing a profile does not change the size
+    cache.put("r3", profile(4));
+    assertEquals("same size", ProfileCache.HEADER_SIZE + 2 * ENTRY_SIZE, cache.getSizeBytes());
+  }
+
+  /**
+   * Tests that a cache which is written and read back has the same profiles in the same order,
+   * and that it is written in the number of bytes it tracks.
+   * @throws IOException if the cache cannot be written or read
+   */
+  @Test
+  public void testReadWrite() throws IOException {
+    ProfileCache cache = new ProfileCache(10000);
+    for (int i = 0; i < 100; i++) {
+      cache.put("robot" + i, profile(i));
+    }
+    cache.get("robot0");
+
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    cache.write(new DataOutputStream(bytes));
+    assertEquals("written size", cache.getSizeBytes(), bytes.size());
+
+    // a smaller quota keeps the most recently fought opponents
+    long quota = bytes.size() / 2;
+    ProfileCache read = ProfileCache.read(
+        new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())), quota);
+    assertTrue("size is within the quota", read.getSizeBytes() <= quota);
+    assertTrue("most recently fought opponent is kept", read.contains("robot0"));
+    assertTrue("recently fought opponent is kept", read.contains("robot99"));
+    assertFalse("least recently fought opponent is removed", read.contains("robot1"));
+    assertEquals("profile", 99, read.get("robot99").getNumVelocities());
+  }
+
+  /**
+   * Tests that a cache written in a different version is rejected.
+   * @throws IOException if the cache cannot be read
+   */
+  @Test (expected = IOException.class)
+  public void testReadDifferentVersion() throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    DataOutputStream out = new DataOutputStream(bytes);
+    out.writeInt(ProfileCache.VERSION + 1);
+    out.writeInt(0);
+
+    ProfileCache.read(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())), 1000);
+  }
+
+  /**
+   * Returns a profile with the specified number of velocities.
+   * @param numVelocities number of velocities
+   * @return the profile
+   */
+  private static OpponentProfile profile(int numVelocities) {
+    OpponentProfile profile = new OpponentProfile();
+    profile.setNumVelocities(numVelocities);
+    return profile;
+  }
+}
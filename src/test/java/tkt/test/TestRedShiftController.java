@@ -0,0 +1,249 @@
+package tkt.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+import robocode.ScannedRobotEvent;
+import tkt.RedShiftController;
+import tkt.RobotControl;
+import tkt.util.DynamicClusteringGun;
+import tkt.util.EnemyRegistry;
+import tkt.util.GuessFactorStats;
+import tkt.util.KdTree;
+import tkt.util.MinimumRiskMovement;
+import tkt.util.RobotInfo;
+import tkt.util.VelocityWindowSelector;
+import tkt.util.VirtualGunArray;
+
+/**
+ * Tests the RedShiftController class without the robocode engine.
+ *
+ * @author Todd Taomae
+ */
+public class TestRedShiftController {
+  private static final double EPSILON = 1e-9;
+  private static final double MY_X = 400.0;
+  private static final double MY_Y = 300.0;
+
+  /**
+   * Tests that the robot turns perpendicular to a target at the preferred distance, and turns
+   * toward or away from a target which is too far or too close.
+   */
+  @Test
+  public void testSetTurn() {
+    SimulatedRobot robot = new SimulatedRobot();
+    RedShiftController controller = newController(robot, false);
+
+    RobotInfo target = scan(0, 100.0, 0.0, RedShiftController.PREFERRED_DISTANCE);
+    controller.setTurn(target, RedShiftController.PREFERRED_DISTANCE);
+    assertEquals("perpendicular", Math.PI / 2, robot.turn, EPSILON);
+
+    target = scan(1, 100.0, 0.0, 400.0);
+    controller.setTurn(target, 400.0);
+    assertEquals("toward the target", Math.PI / 2 - Math.PI / 8, robot.turn, EPSILON);
+
+    target = scan(2, 100.0, 0.0, 100.0);
+    controller.setTurn(target, 100.0);
+    assertEquals("away from the target", Math.PI / 2 + Math.PI / 8, robot.turn, EPSILON);
+
+    controller.reverseDirection();
+    controller.setTurn(target, 100.0);
+    assertEquals("away from the target backward", Math.PI / 2 - Math.PI / 8, robot.turn, EPSILON);
+  }
+
+  /**
+   * Tests that the direction only changes when the target fires if the controller dodges.
+   */
+  @Test
+  public void testDodge() {
+    SimulatedRobot robot = new SimulatedRobot();
+    RedShiftController controller = newController(robot, false);
+    RobotInfo target = new RobotInfo("target");
+    target.updateInfo(MY_X, MY_Y, 0.0, 0, 100.0, 0.0, 200.0, 0.0, 0.0);
+    target.updateInfo(MY_X, MY_Y, 0.0, 1, 98.0, 0.0, 200.0, 0.0, 0.0);
+    assertTrue("target fired", target.justFired());
+
+    controller.setTurn(target, 200.0);
+    controller.setAhead();
+    assertEquals("does not dodge", 100.0, robot.ahead, 0.0);
+
+    controller.setDodge(true);
+    controller.setTurn(target, 200.0);
+    controller.setAhead();
+    assertEquals("dodges", -100.0, robot.ahead, 0.0);
+    assertEquals("direction", -1, controller.getDirection());
+  }
+
+  /**
+   * Tests that the gun aims directly at a target which is not moving, and only fires within the
+   * maximum firing distance in a 1-vs-1 battle.
+   */
+  @Test
+  public void testStationaryTarget() {
+    SimulatedRobot robot = new SimulatedRobot();
+    RedShiftController controller = newController(robot, false);
+
+    // east of the robot
+    RobotInfo target = new RobotInfo("target");
+    for (long time = 0; time < 100; time++) {
+      target.updateInfo(MY_X, MY_Y, 0.0, time, 100.0, Math.PI / 2, 300.0, 0.0, 0.0);
+      controller.onScan(target, time, 300.0);
+    }
+    assertEquals("aims at the target", Math.PI / 2, robot.gunTurn, 1e-6);
+    assertEquals("fires", RedShiftController.getBulletPower(300.0), robot.firePower, 0.0);
+
+    robot.firePower = 0.0;
+    target.updateInfo(MY_X, MY_Y, 0.0, 100, 100.0, Math.PI / 2, 500.0, 0.0, 0.0);
+    controller.onScan(target, 100, 500.0);
+    assertEquals("does not fire", 0.0, robot.firePower, 0.0);
+  }
+
+  /**
+   * Tests that a melee controller leads a target moving in a straight line and always fires.
+   */
+  @Test
+  public void testMeleeLinearTarget() {
+    SimulatedRobot robot = new SimulatedRobot();
+    RedShiftController controller = newController(robot, true);
+
+    // north of the robot, moving east
+    RobotInfo target = new RobotInfo("target");
+    target.updateInfo(MY_X, MY_Y, 0.0, 0, 100.0, 0.0, 250.0, Math.PI / 2, 8.0);
+    target.updateInfo(MY_X, MY_Y, 0.0, 1, 100.0, 0.0, 250.0, Math.PI / 2, 8.0);
+    controller.onScan(target, 1, 250.0);
+    assertTrue("leads the target", robot.gunTurn > 0.0 && robot.gunTurn < Math.PI / 2);
+    assertEquals("velocity of the scan", 8.0, controller.getAverageEnemyVelocity(target), 0.0);
+    assertEquals("fires", RedShiftController.getBulletPower(250.0), robot.firePower, 0.0);
+  }
+
+  /**
+   * Tests that the melee movement backs away from an enemy which is ahead of the robot.
+   */
+  @Test
+  public void testMinimumRiskMove() {
+    SimulatedRobot robot = new SimulatedRobot();
+    RedShiftController controller = newController(robot, true);
+    EnemyRegistry enemies = new EnemyRegistry(2);
+    ScannedRobotEvent event = new ScannedRobotEvent("enemy", 100.0, 0.0, 100.0, 0.0, 0.0);
+    enemies.update(MY_X, MY_Y, 0.0, event);
+
+    controller.setMinimumRiskMove(enemies);
+    MinimumRiskMovement movement = controller.getRiskMovement();
+    assertEquals("every enemy is avoided", 1, movement.getNumEnemies());
+    assertTrue("destination is behind", movement.getDestinationY() < MY_Y);
+    assertTrue("backs up", robot.ahead < 0.0);
+    assertTrue("turns less than a quarter turn", Math.abs(robot.turn) <= Math.PI / 2);
+  }
+
+  /**
+   * Tests that the controller keeps aiming at a target which orbits the robot for many rounds.
+   */
+  @Test
+  public void testOrbitingTarget() {
+    SimulatedRobot robot = new SimulatedRobot();
+    RedShiftController controller = newController(robot, false);
+    RobotInfo target = new RobotInfo("target");
+    double distance = 250.0;
+    double angle = 0.0;
+    double velocity = 8.0;
+    for (long time = 0; time < 10000; time++) {
+      if (time % 40 == 0) {
+        velocity = -velocity;
+      }
+      angle += velocity / distance;
+      target.updateInfo(MY_X, MY_Y, 0.0, time, 100.0, angle, distance, angle + Math.PI / 2,
+          velocity);
+      robot.firePower = 0.0;
+      controller.onScan(target, time, distance);
+      assertFalse("gun turn is a number", Double.isNaN(robot.gunTurn));
+      assertTrue("gun turns at most half a turn", Math.abs(robot.gunTurn) <= Math.PI);
+      assertEquals("fires", RedShiftController.getBulletPower(distance), robot.firePower, 0.0);
+    }
+    assertTrue("predictions are scored", controller.getBestNumVelocities() >= 1);
+  }
+
+  /**
+   * Returns information about a target which has been scanned once, from the robot with a
+   * heading of 0.
+   * @param time time of the scan
+   * @param energy energy of the target
+   * @param bearing bearing of the target in radians
+   * @param distance distance to the target
+   * @return the information about the target
+   */
+  private static RobotInfo scan(long time, double energy, double bearing, double distance) {
+    RobotInfo target = new RobotInfo("target");
+    target.updateInfo(MY_X, MY_Y, 0.0, time, energy, bearing, distance, 0.0, 0.0);
+    return target;
+  }
+
+  /**
+   * Returns a new controller on an 800 by 600 battlefield.
+   * @param robot robot which is controlled
+   * @param melee true if the battle is a melee battle
+   * @return the new controller
+   */
+  private static RedShiftController newController(RobotControl robot, boolean melee) {
+    KdTree situations = new KdTree(DynamicClusteringGun.NUM_FEATURES, 1000, 10);
+    VirtualGunArray guns = new VirtualGunArray(new GuessFactorStats(0.05), situations, 0.02);
+    return new RedShiftController(robot, melee, new VelocityWindowSelector(20), guns,
+        800.0, 600.0);
+  }
+
+  /**
+   * A robot which stands still with every heading 0 and remembers the last command of each
+   * kind.
+   */
+  private static class SimulatedRobot implements RobotControl {
+    private double turn;
+    private double gunTurn;
+    private double ahead;
+    private double firePower;
+
+    @Override
+    public double getX() {
+      return MY_X;
+    }
+
+    @Override
+    public double getY() {
+      return MY_Y;
+    }
+
+    @Override
+    public double getHeadingRadians() {
+      return 0.0;
+    }
+
+    @Override
+    public double getGunHeadingRadians() {
+      return 0.0;
+    }
+
+    @Override
+    public double getGunHeat() {
+      return 0.0;
+    }
+
+    @Override
+    public void setTurnRightRadians(double radians) {
+      this.turn = radians;
+    }
+
+    @Override
+    public void setTurnGunRightRadians(double radians) {
+      this.gunTurn = radians;
+    }
+
+    @Override
+    public void setAhead(double distance) {
+      this.ahead = distance;
+    }
+
+    @Override
+    public void setFire(double power) {
+      this.firePower = power;
+    }
+  }
+}
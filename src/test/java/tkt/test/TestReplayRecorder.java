@@ -0,0 +1,117 @@
+package tkt.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Tests the ReplayRecorder and ReplayReader classes.
+ *
+ * @author Todd Taomae
+ */
+public class TestReplayRecorder {
+  private static final double EPSILON = 1e-3;
+
+  /** Folder for the replay files, which is deleted after each test. */
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  /**
+   * Tests that adding a robot before the robot names are written throws an exception.
+   * @throws IOException if the file cannot be written
+   */
+  @Test (expected = IllegalStateException.class)
+  public void testBeginTurnWithoutNames() throws IOException {
+    ReplayRecorder recorder = new ReplayRecorder(this.folder.newFile("replay"));
+    try {
+      recorder.beginTurn(0, 0, 0);
+    }
+    finally {
+      recorder.close();
+    }
+  }
+
+  /**
+   * Tests that a file which is not a replay is rejected.
+   * @throws IOException if the file cannot be written
+   */
+  @Test (expected = IOException.class)
+  public void testReadNotReplay() throws IOException {
+    File file = this.folder.newFile("replay");
+    RandomAccessFile out = new RandomAccessFile(file, "rw");
+    out.write(new byte[ReplayRecorder.HEADER_SIZE]);
+    out.close();
+    new ReplayReader(file);
+  }
+
+  /**
+   * Tests that every turn, robot, and bullet which is recorded is read back, including more
+   * turns than fit in one mapped region.
+   * @throws IOException if the file cannot be written or read
+   */
+  @Test
+  public void testRecordAndRead() throws IOException {
+    File file = this.folder.newFile("replay");
+    ReplayRecorder recorder = new ReplayRecorder(file);
+    recorder.writeRobotNames(new String[] {"tkt.RedShift", "sample.Crazy \u00e9"});
+
+    // enough turns to fill several 4 MB regions
+    int numTurns = 200000;
+    for (int t = 0; t < numTurns; t++) {
+      int numBullets = t % 4;
+      recorder.beginTurn(t / 1000, t % 1000, numBullets);
+      for (int r = 0; r < 2; r++) {
+        recorder.addRobot(t % 800 + r, t % 600 + r, 8.0 - r, 100.0 - r, 0.5 + r, 1.5 + r,
+            2.5 + r, 0.1 * r, r);
+      }
+      for (int b = 0; b < numBullets; b++) {
+        recorder.addBullet(t * 4 + b, b, b * 10.0, t % 600, 0.1 + b);
+      }
+    }
+    // an incomplete turn is not kept
+    recorder.beginTurn(numTurns / 1000, 0, 1);
+    assertEquals("complete turns", numTurns, recorder.getNumTurns());
+    recorder.close();
+
+    ReplayReader reader = new ReplayReader(file);
+    assertEquals("number of turns", numTurns, reader.getNumTurns());
+    assertEquals("number of robots", 2, reader.getNumRobots());
+    assertEquals("robot name", "sample.Crazy \u00e9", reader.getRobotName(1));
+
+    for (int t = 0; t < numTurns; t++) {
+      assertTrue("turn " + t, reader.next());
+      assertEquals("round", t / 1000, reader.getRound());
+      assertEquals("turn", t % 1000, reader.getTurn());
+      assertEquals("number of bullets", t % 4, reader.getNumBullets());
+      for (int r = 0; r < 2; r++) {
+        assertEquals("x", t % 800 + r, reader.getRobotX(r), EPSILON);
+        assertEquals("y", t % 600 + r, reader.getRobotY(r), EPSILON);
+        assertEquals("velocity", 8.0 - r, reader.getRobotVelocity(r), EPSILON);
+        assertEquals("energy", 100.0 - r, reader.getRobotEnergy(r), EPSILON);
+        assertEquals("body heading", 0.5 + r, reader.getRobotBodyHeading(r), EPSILON);
+        assertEquals("gun heading", 1.5 + r, reader.getRobotGunHeading(r), EPSILON);
+        assertEquals("radar heading", 2.5 + r, reader.getRobotRadarHeading(r), EPSILON);
+        assertEquals("gun heat", 0.1 * r, reader.getRobotGunHeat(r), EPSILON);
+        assertEquals("state", r, reader.getRobotState(r));
+      }
+      for (int b = 0; b < t % 4; b++) {
+        assertEquals("bullet id", t * 4 + b, reader.getBulletId(b));
+        assertEquals("bullet state", b, reader.getBulletState(b));
+        assertEquals("bullet x", b * 10.0, reader.getBulletX(b), EPSILON);
+        assertEquals("bullet y", t % 600, reader.getBulletY(b), EPSILON);
+        assertEquals("bullet power", 0.1 + b, reader.getBulletPower(b), EPSILON);
+      }
+    }
+    assertFalse("no more turns", reader.next());
+
+    reader.rewind();
+    assertTrue("first turn again", reader.next());
+    assertEquals("first turn", 0, reader.getTurn());
+  }
+}
@@ -0,0 +1,140 @@
+package tkt.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import java.awt.geom.Point2D;
+import org.junit.Test;
+import robocode.Robot;
+import robocode.ScannedRobotEvent;
+import tkt.util.RobotInfo;
+
+/**
+ * Tests the RobotInfo class.
+ *
+ * @author Todd Taomae
+ */
+public class TestRobotInfo {
+  private static final double EPSILON = 1e-9;
+
+  /**
+   * Tests that updating with the position and heading of the scanning robot gives the same
+   * information as updating with the scanning robot.
+   */
+  @Test
+  public void testUpdateInfo() {
+    Robot robot = new FixedRobot(300.0, 200.0, 30.0);
+    // bearing and heading are in radians
+    ScannedRobotEvent first = new ScannedRobotEvent("target", 100.0, 1.0, 150.0, 0.5, 8.0);
+    ScannedRobotEvent second = new ScannedRobotEvent("target", 98.0, -2.5, 250.0, 0.5, -8.0);
+
+    RobotInfo fromRobot = new RobotInfo(robot, first);
+    RobotInfo fromPosition = new RobotInfo(robot, first);
+    fromRobot.updateInfo(robot, second);
+    fromPosition.updateInfo(300.0, 200.0, Math.toRadians(30.0), second);
+
+    double bearing = Math.toRadians(30.0) - 2.5;
+    assertEquals("absolute bearing", bearing, fromPosition.getAbsoluteBearing(), EPSILON);
+    assertEquals("same absolute bearing",
+        fromRobot.getAbsoluteBearing(), fromPosition.getAbsoluteBearing(), 0.0);
+    assertEquals("x", 300.0 + 250.0 * Math.sin(bearing), fromPosition.getX(), EPSILON);
+    assertEquals("y", 200.0 + 250.0 * Math.cos(bearing), fromPosition.getY(), EPSILON);
+    assertEquals("same x", fromRobot.getX(), fromPosition.getX(), 0.0);
+    assertEquals("same y", fromRobot.getY(), fromPosition.getY(), 0.0);
+    assertTrue("robot fired", fromPosition.justFired());
+    assertEquals("fire power", 2.0, fromPosition.getFirePower(), EPSILON);
+  }
+
+  /**
+   * Tests that updating with the values of a scan gives the same information as updating with
+   * the event.
+   */
+  @Test
+  public void testUpdateInfoWithoutEvent() {
+    ScannedRobotEvent first = new ScannedRobotEvent("target", 100.0, 1.0, 150.0, 0.5, 8.0);
+    ScannedRobotEvent second = new ScannedRobotEvent("target", 98.0, -2.5, 250.0, 0.7, -8.0);
+    first.setTime(10);
+    second.setTime(12);
+
+    RobotInfo fromEvent = new RobotInfo(300.0, 200.0, 0.5, first);
+    fromEvent.updateInfo(300.0, 200.0, 0.5, second);
+    RobotInfo fromValues = new RobotInfo("target");
+    fromValues.updateInfo(300.0, 200.0, 0.5, 10, 100.0, 1.0, 150.0, 0.5, 8.0);
+    fromValues.updateInfo(300.0, 200.0, 0.5, 12, 98.0, -2.5, 250.0, 0.7, -8.0);
+
+    assertEquals("name", "target", fromValues.getRobotName());
+    assertEquals("x of the scan", 300.0 + 250.0 * Math.sin(-2.0), fromValues.getX(), EPSILON);
+    assertEquals("y of the scan", 200.0 + 250.0 * Math.cos(-2.0), fromValues.getY(), EPSILON);
+    assertEquals("x", fromEvent.getX(), fromValues.getX(), 0.0);
+    assertEquals("y", fromEvent.getY(), fromValues.getY(), 0.0);
+    assertEquals("heading change", 0.1, fromValues.getHeadingChange(), EPSILON);
+    assertEquals("velocity", -8.0, fromValues.getVelocity(), 0.0);
+    assertEquals("time", 12, fromValues.getTime());
+    assertTrue("robot fired", fromValues.justFired());
+    assertEquals("shots fired", 1, fromValues.getShotsFired());
+  }
+
+  /**
+   * Tests the getLocation methods.
+   */
+  @Test
+  public void testGetLocation() {
+    Robot robot = new FixedRobot(0.0, 0.0, 0.0);
+    RobotInfo info = new RobotInfo(robot,
+        new ScannedRobotEvent("target", 100.0, Math.PI / 2, 100.0, 0.0, 0.0));
+    assertFalse("robot did not fire", info.justFired());
+
+    Point2D.Double result = new Point2D.Double();
+    assertSame("result is the same point", result, info.getLocation(result));
+    assertEquals("x", 100.0, result.getX(), EPSILON);
+    assertEquals("y", 0.0, result.getY(), EPSILON);
+    assertEquals("same location", info.getLocation(), result);
+  }
+
+  /**
+   * Tests that updating with an event which describes a different robot throws an exception.
+   */
+  @Test (expected = IllegalArgumentException.class)
+  public void testUpdateInfoDifferentRobot() {
+    RobotInfo info = new RobotInfo(new FixedRobot(0.0, 0.0, 0.0),
+        new ScannedRobotEvent("target", 100.0, 0.0, 100.0, 0.0, 0.0));
+    info.updateInfo(0.0, 0.0, 0.0, new ScannedRobotEvent("other", 100.0, 0.0, 100.0, 0.0, 0.0));
+  }
+
+  /**
+   * A robot with a fixed position and heading, which can be used outside of a battle.
+   */
+  private static class FixedRobot extends Robot {
+    private final double x;
+    private final double y;
+    private final double heading;
+
+    /**
+     * Constructs a new FixedRobot.
+     * @param x x-coordinate of the robot
+     * @param y y-coordinate of the robot
+     * @param heading heading of the robot in degrees
+     */
+    FixedRobot(double x, double y, double heading) {
+      this.x = x;
+      this.y = y;
+      this.heading = heading;
+    }
+
+    @Override
+    public double getX() {
+      return this.x;
+    }
+
+    @Override
+    public double getY() {
+      return this.y;
+    }
+
+    @Override
+    public double getHeading() {
+      return this.heading;
+    }
+  }
+}
@@ -0,0 +1,137 @@
+package tkt.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+import tkt.util.MathUtility;
+import tkt.util.TargetPredictor;
+
+/**
+ * Tests the TargetPredictor class.
+ *
+ * @author Todd Taomae
+ */
+public class TestTargetPredictor {
+  private static final double EPSILON = 1e-9;
+
+  /**
+   * Tests circular prediction of a target which is not moving.
+   */
+  @Test
+  public void testCircularStationary() {
+    TargetPredictor predictor = new TargetPredictor();
+
+    predictor.predictCircular(0.0, 0.0, 0.0, 100.0, 0.0, 0.1, 0.0, 11.0);
+    assertEquals("x does not change", 0.0, predictor.getX(), EPSILON);
+    assertEquals("y does not change", 100.0, predictor.getY(), EPSILON);
+    assertEquals("ticks until the bullet travels 100", 10, predictor.getTicks());
+  }
+
+  /**
+   * Tests that circular prediction with no change in heading matches linear targeting.
+   */
+  @Test
+  public void testCircularNoHeadingChange() {
+    TargetPredictor predictor = new TargetPredictor();
+    double heading = Math.PI / 3;
+
+    predictor.predictCircular(50.0, 50.0, 400.0, 300.0, heading, 0.0, 8.0, 14.0);
+
+    double ticks = Math.ceil(MathUtility.getInterceptTime(50.0, 50.0, 400.0, 300.0,
+        heading, 8.0, 14.0));
+    assertEquals("same number of ticks as linear targeting", (int)ticks, predictor.getTicks());
+    assertEquals("same x as linear targeting",
+        400.0 + Math.sin(heading) * 8.0 * ticks, predictor.getX(), EPSILON);
+    assertEquals("same y as linear targeting",
+        300.0 + Math.cos(heading) * 8.0 * ticks, predictor.getY(), EPSILON);
+    assertEquals("heading does not change", heading, predictor.getHeading(), EPSILON);
+  }
+
+  /**
+   * Tests that a target turning right is the mirror image of a target turning left.
+   */
+  @Test
+  public void testCircularSymmetry() {
+    TargetPredictor predictor = new TargetPredictor();
+
+    predictor.predictCircular(400.0, 100.0, 400.0, 300.0, 0.0, 0.1, 8.0, 11.0);
+    double rightX = predictor.getX();
+    double rightY = predictor.getY();
+    int rightTicks = predictor.getTicks();
+
+    predictor.predictCircular(400.0, 100.0, 400.0, 300.0, 0.0, -0.1, 8.0, 11.0);
+    assertEquals("same number of ticks", rightTicks, predictor.getTicks());
+    assertEquals("x is mirrored", 400.0 - rightX, predictor.getX() - 400.0, EPSILON);
+    assertEquals("y is the same", rightY, predictor.getY(), EPSILON);
+    assertEquals("heading is mirrored", -0.1 * rightTicks, predictor.getHeading(), EPSILON);
+  }
+
+  /**
+   * Tests the isInBattleField method.
+   */
+  @Test
+  public void testIsInBattleField() {
+    TargetPredictor predictor = new TargetPredictor();
+    assertTrue("no battlefield set", predictor.isInBattleField(-1000.0, 5000.0));
+
+    predictor.setBattleField(800.0, 600.0);
+    assertTrue("center of battlefield", predictor.isInBattleField(400.0, 300.0));
+    assertTrue("touching bottom left walls", predictor.isInBattleField(18.0, 18.0));
+    assertTrue("touching top right walls", predictor.isInBattleField(782.0, 582.0));
+    assertFalse("overlapping left wall", predictor.isInBattleField(17.0, 300.0));
+    assertFalse("overlapping top wall", predictor.isInBattleField(400.0, 583.0));
+  }
+
+  /**
+   * Tests that linear prediction of a target moving into a wall stops at the wall.
+   */
+  @Test
+  public void testLinearWall() {
+    TargetPredictor predictor = new TargetPredictor();
+    predictor.setBattleField(800.0, 600.0);
+
+    // target moving east toward the right wall, shooter far to the west
+    predictor.predictLinear(50.0, 300.0, 700.0, 300.0, Math.PI / 2, 8.0, 11.0);
+    assertEquals("x stops at the wall", 782.0, predictor.getX(), EPSILON);
+    assertEquals("y does not change", 300.0, predictor.getY(), EPSILON);
+    assertTrue("bullet reaches target",
+        predictor.getTicks() * 11.0 >= MathUtility.getDistance(50.0, 300.0, 782.0, 300.0));
+
+    // same target without walls keeps going
+    predictor = new TargetPredictor();
+    predictor.predictLinear(50.0, 300.0, 700.0, 300.0, Math.PI / 2, 8.0, 11.0);
+    assertTrue("x goes past the wall", predictor.getX() > 782.0);
+  }
+
+  /**
+   * Tests that linear prediction far from the walls is not affected by the battlefield.
+   */
+  @Test
+  public void testLinearNoWall() {
+    TargetPredictor clipped = new TargetPredictor();
+    clipped.setBattleField(800.0, 600.0);
+    TargetPredictor unclipped = new TargetPredictor();
+
+    clipped.predictLinear(100.0, 100.0, 400.0, 300.0, 1.0, -6.0, 17.0);
+    unclipped.predictLinear(100.0, 100.0, 400.0, 300.0, 1.0, -6.0, 17.0);
+    assertEquals("same x", unclipped.getX(), clipped.getX(), EPSILON);
+    assertEquals("same y", unclipped.getY(), clipped.getY(), EPSILON);
+    assertEquals("same ticks", unclipped.getTicks(), clipped.getTicks());
+  }
+
+  /**
+   * Tests that circular prediction of a target turning into a wall stays inside the battlefield.
+   */
+  @Test
+  public void testCircularWall() {
+    TargetPredictor predictor = new TargetPredictor();
+    predictor.setBattleField(800.0, 600.0);
+
+    // target near the top wall, heading north-east and turning slowly
+    predictor.predictCircular(400.0, 50.0, 400.0, 550.0, Math.PI / 4, 0.01, 8.0, 11.0);
+    assertTrue("target stays inside the battlefield",
+        predictor.isInBattleField(predictor.getX(), predictor.getY()));
+    assertEquals("target stops at the top wall", 582.0, predictor.getY(), EPSILON);
+  }
+}
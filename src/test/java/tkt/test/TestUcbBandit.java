@@ -0,0 +1,115 @@
+package tkt.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import java.util.Random;
+import org.junit.Test;
+import tkt.util.UcbBandit;
+
+/**
+ * Tests the UcbBandit class.
+ *
+ * @author Todd Taomae
+ */
+public class TestUcbBandit {
+  private static final double EPSILON = 1e-9;
+
+  /**
+   * Tests the constructor of the UcbBandit class with an illegal argument.
+   */
+  @Test (expected = IllegalArgumentException.class)
+  public void testConstructorIllegalArgument() {
+    new UcbBandit(0, 1.0);
+  }
+
+  /**
+   * Tests the update method with a reward greater than the number of trials.
+   */
+  @Test (expected = IllegalArgumentException.class)
+  public void testUpdateIllegalArgument() {
+    new UcbBandit(2, 1.0).update(0, 3.0, 2);
+  }
+
+  /**
+   * Tests the update method with a reward which is not a number.
+   */
+  @Test (expected = IllegalArgumentException.class)
+  public void testUpdateNaN() {
+    new UcbBandit(2, 1.0).update(0, Double.NaN, 2);
+  }
+
+  /**
+   * Tests the update method with an arm which does not exist.
+   */
+  @Test (expected = IndexOutOfBoundsException.class)
+  public void testUpdateIndexOutOfBounds() {
+    new UcbBandit(2, 1.0).update(2, 0.0, 1);
+  }
+
+  /**
+   * Tests that every arm is tried once, in order, before any arm is tried again.
+   */
+  @Test
+  public void testSelectUntriedArms() {
+    UcbBandit bandit = new UcbBandit(3, Math.sqrt(2.0));
+    assertEquals("best arm of an untried bandit", 0, bandit.getBestArm());
+    for (int arm = 0; arm < 3; arm++) {
+      assertEquals("untried arm", arm, bandit.select());
+      bandit.update(arm, arm == 1 ? 1.0 : 0.0, 1);
+    }
+    assertEquals("best arm", 1, bandit.getBestArm());
+    assertEquals("mean", 1.0, bandit.getMean(1), EPSILON);
+    assertEquals("total trials", 3, bandit.getTotalTrials());
+  }
+
+  /**
+   * Tests that without exploration, the arm with the best mean is chosen, and that several trials
+   * may be added at once.
+   */
+  @Test
+  public void testGreedy() {
+    UcbBandit bandit = new UcbBandit(2, 0.0);
+    bandit.update(0, 3.0, 10);
+    bandit.update(1, 7.0, 10);
+    assertEquals("best mean", 1, bandit.select());
+    assertEquals("mean of several trials", 0.3, bandit.getMean(0), EPSILON);
+    assertEquals("trials", 10, bandit.getTrials(0));
+  }
+
+  /**
+   * Tests that a rarely tried arm is explored even if its mean is lower.
+   */
+  @Test
+  public void testExploration() {
+    UcbBandit bandit = new UcbBandit(2, Math.sqrt(2.0));
+    bandit.update(0, 60.0, 100);
+    bandit.update(1, 0.5, 1);
+    assertEquals("uncertain arm is explored", 1, bandit.select());
+  }
+
+  /**
+   * Tests that the bandit chooses the best of several arms with random rewards almost every time,
+   * like a robot choosing between strategies over the rounds of a battle.
+   */
+  @Test
+  public void testConvergence() {
+    double[] rates = {0.6, 0.7, 0.8};
+    UcbBandit bandit = new UcbBandit(rates.length, Math.sqrt(2.0));
+    Random rng = new Random(0);
+
+    // each round has 20 trials of the chosen arm
+    int rounds = 200;
+    int best = 0;
+    for (int round = 0; round < rounds; round++) {
+      int arm = bandit.select();
+      int reward = 0;
+      for (int i = 0; i < 20; i++) {
+        reward += rng.nextDouble() < rates[arm] ? 1 : 0;
+      }
+      bandit.update(arm, reward, 20);
+      best += arm == 2 ? 1 : 0;
+    }
+    assertEquals("best arm", 2, bandit.getBestArm());
+    assertTrue("best arm is chosen most often: " + best, best > rounds * 0.7);
+  }
+}
@@ -0,0 +1,128 @@
+package tkt.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import java.util.Random;
+import org.junit.Test;
+import tkt.util.VelocityWindowSelector;
+
+/**
+ * Tests the VelocityWindowSelector class.
+ *
+ * @author Todd Taomae
+ */
+public class TestVelocityWindowSelector {
+  private static final double EPSILON = 1e-6;
+
+  /**
+   * Tests the constructor of the VelocityWindowSelector class with an illegal argument.
+   */
+  @Test (expected = IllegalArgumentException.class)
+  public void testConstructorIllegalArgument() {
+    new VelocityWindowSelector(0);
+  }
+
+  /**
+   * Tests the getAverage method with an illegal argument.
+   */
+  @Test (expected = IllegalArgumentException.class)
+  public void testGetAverageIllegalArgument() {
+    VelocityWindowSelector selector = new VelocityWindowSelector(10);
+    assertEquals("average of no velocities is 0", 0.0, selector.getAverage(10), 0.0);
+
+    // should throw exception
+    selector.getAverage(11);
+  }
+
+  /**
+   * Tests that the average for every window size matches a WeightedMovingAverage of the same
+   * size, including after the prefix sums have wrapped around several times.
+   */
+  @Test
+  public void testGetAverage() {
+    int maxWindow = 20;
+    VelocityWindowSelector selector = new VelocityWindowSelector(maxWindow);
+    WeightedMovingAverage[] averages = new WeightedMovingAverage[maxWindow + 1];
+    for (int n = 1; n <= maxWindow; n++) {
+      averages[n] = new WeightedMovingAverage(n);
+    }
+
+    Random rng = new Random(7);
+    for (int t = 0; t < 1000; t++) {
+      double v = rng.nextDouble() * 16.0 - 8.0;
+      selector.addScan(t, 0.0, 0.0, 0.0, v, 10.0);
+
+      for (int n = 1; n <= maxWindow; n++) {
+        averages[n].add(v);
+        assertEquals("average of window " + n + " at time " + t,
+            averages[n].getAverage(), selector.getAverage(n), EPSILON);
+      }
+    }
+  }
+
+  /**
+   * Tests that every window size predicts a robot moving at a constant velocity, and that ties
+   * are broken in favor of the smallest window.
+   */
+  @Test
+  public void testConstantVelocity() {
+    VelocityWindowSelector selector = new VelocityWindowSelector(50);
+
+    double y = 100.0;
+    for (int t = 0; t < 200; t++) {
+      selector.addScan(t, 100.0, y, 0.0, 5.0, 15.0);
+      y += 5.0;
+    }
+
+    assertTrue("predictions have been scored", selector.getNumScored() > 100);
+    assertEquals("every window hits", selector.getNumScored(), selector.getHits(50));
+    assertEquals("ties are broken by the smallest window", 1, selector.getBestWindow());
+  }
+
+  /**
+   * Tests that a larger window is chosen for a robot which oscillates back and forth.
+   */
+  @Test
+  public void testOscillatingVelocity() {
+    VelocityWindowSelector selector = new VelocityWindowSelector(50);
+
+    // move forward at full speed for 8 ticks, then backward for 8 ticks
+    double y = 300.0;
+    for (int t = 0; t < 400; t++) {
+      double v = (t / 8) % 2 == 0 ? 8.0 : -8.0;
+      y += v;
+      selector.addScan(t, 300.0, y, 0.0, v, 20.0);
+    }
+
+    assertTrue("the most recent velocity is not the best predictor",
+        selector.getBestWindow() > 1);
+    assertTrue("the best window hits more often than a window of 1",
+        selector.getHits(selector.getBestWindow()) > selector.getHits(1));
+  }
+
+  /**
+   * Tests that starting a new round discards the velocity history and the pending predictions,
+   * but keeps the hits of each window size.
+   */
+  @Test
+  public void testStartRound() {
+    VelocityWindowSelector selector = new VelocityWindowSelector(10);
+
+    double y = 100.0;
+    for (int t = 0; t < 100; t++) {
+      selector.addScan(t, 100.0, y, 0.0, 5.0, 15.0);
+      y += 5.0;
+    }
+    int numScored = selector.getNumScored();
+    int hits = selector.getHits(10);
+
+    selector.startRound();
+    assertEquals("no velocities", 0.0, selector.getAverage(10), 0.0);
+    assertEquals("hits are kept", hits, selector.getHits(10));
+
+    // the robot starts somewhere else, which would miss every pending prediction
+    selector.addScan(0, 500.0, 500.0, 0.0, -3.0, 15.0);
+    assertEquals("pending predictions are discarded", numScored, selector.getNumScored());
+    assertEquals("average of the new round", -3.0, selector.getAverage(10), EPSILON);
+  }
+}
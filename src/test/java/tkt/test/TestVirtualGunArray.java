@@ -0,0 +1,99 @@
+package tkt.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+import tkt.util.DynamicClusteringGun;
+import tkt.util.GuessFactorStats;
+import tkt.util.KdTree;
+import tkt.util.VirtualGunArray;
+import tkt.util.Wave;
+import tkt.util.WaveManager;
+
+/**
+ * Tests the VirtualGunArray class.
+ *
+ * @author Todd Taomae
+ */
+public class TestVirtualGunArray {
+  private static final double EPSILON = 1e-9;
+
+  /**
+   * Tests the constructor of the VirtualGunArray class with an illegal argument.
+   */
+  @Test (expected = IllegalArgumentException.class)
+  public void testConstructorIllegalArgument() {
+    new VirtualGunArray(new GuessFactorStats(0.1), newTree(), 0.0);
+  }
+
+  /**
+   * Tests that every gun aims directly at a target which is not moving, and that every virtual
+   * bullet is recorded in the new wave.
+   */
+  @Test
+  public void testStationaryTarget() {
+    VirtualGunArray guns = new VirtualGunArray(new GuessFactorStats(0.1), newTree(), 0.1);
+    WaveManager waves = new WaveManager(100);
+
+    Wave wave = null;
+    for (long time = 0; time < 100; time++) {
+      waves.update(time, 100.0, 100.0, 400.0, 400.0);
+      wave = guns.update(time, waves, 100.0, 100.0, 400.0, 400.0, 0.0, 0.0, 0.0, 0.0, 11.0);
+    }
+
+    for (int gun = 0; gun < VirtualGunArray.NUM_GUNS; gun++) {
+      assertEquals("aims directly at target", Math.PI / 4, guns.getFiringAngle(gun), EPSILON);
+      assertEquals("virtual bullet is recorded", Math.PI / 4, wave.getAngle(gun), EPSILON);
+      assertEquals("every virtual bullet hits", 1.0, guns.getScore(gun), 0.01);
+      assertEquals("every hit is counted", guns.getNumScored(), guns.getHits(gun));
+    }
+    assertTrue("waves have been scored", guns.getNumScored() > 50);
+    assertEquals("ties go to the first gun", VirtualGunArray.AVERAGED_LINEAR, guns.getBestGun());
+  }
+
+  /**
+   * Tests that linear targeting hits a target moving in a straight line at a constant velocity
+   * more often than the guns which ignore its velocity, and that the real gun follows the gun
+   * with the best score.
+   */
+  @Test
+  public void testLinearTarget() {
+    VirtualGunArray guns = new VirtualGunArray(new GuessFactorStats(0.1), newTree(), 0.1);
+    WaveManager waves = new WaveManager(100);
+    guns.setBattleField(800.0, 600.0);
+
+    // the target moves up and down in a straight line, away from the walls
+    double targetY = 100.0;
+    double velocity = 8.0;
+    for (long time = 0; time < 400; time++) {
+      if (targetY > 500.0 || targetY < 100.0) {
+        velocity = -velocity;
+      }
+      targetY += velocity;
+      waves.update(time, 100.0, 300.0, 500.0, targetY);
+      guns.update(time, waves, 100.0, 300.0, 500.0, targetY, 0.0, 0.0, velocity, 0.0, 14.0);
+    }
+
+    assertTrue("linear targeting hits more than head-on targeting",
+        guns.getScore(VirtualGunArray.LINEAR) > guns.getScore(VirtualGunArray.HEAD_ON));
+    assertTrue("linear targeting hits more than the averaged velocity",
+        guns.getScore(VirtualGunArray.LINEAR) > guns.getScore(VirtualGunArray.AVERAGED_LINEAR));
+    assertEquals("circular is the same as linear with no heading change",
+        guns.getFiringAngle(VirtualGunArray.LINEAR),
+        guns.getFiringAngle(VirtualGunArray.CIRCULAR), EPSILON);
+    int best = guns.getBestGun();
+    for (int gun = 0; gun < VirtualGunArray.NUM_GUNS; gun++) {
+      assertTrue("real gun follows the best gun", guns.getScore(best) >= guns.getScore(gun));
+    }
+    assertEquals("firing angle is the best gun's",
+        guns.getFiringAngle(best), guns.getFiringAngle(), EPSILON);
+  }
+
+  /**
+   * Returns a new tree of situations.
+   * @return a new tree of situations
+   */
+  private static KdTree newTree() {
+    return new KdTree(DynamicClusteringGun.NUM_FEATURES, 1000, 10);
+  }
+}
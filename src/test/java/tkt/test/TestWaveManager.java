@@ -0,0 +1,109 @@
+package tkt.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+import tkt.util.Wave;
+import tkt.util.WaveManager;
+
+/**
+ * Tests the WaveManager class.
+ *
+ * @author Todd Taomae
+ */
+public class TestWaveManager {
+  private static final double EPSILON = 1e-9;
+
+  /**
+   * Tests the constructor of the WaveManager class with an illegal argument.
+   */
+  @Test (expected = IllegalArgumentException.class)
+  public void testConstructorIllegalArgument() {
+    new WaveManager(0);
+  }
+
+  /**
+   * Tests that own waves are retired once they reach the enemy.
+   */
+  @Test
+  public void testOwnWaves() {
+    WaveManager waves = new WaveManager(10);
+
+    // enemy 100 units north of this robot; wave travels 20 per tick
+    Wave wave = waves.addOwnWave(0, 0.0, 0.0, 20.0, 0.0);
+    assertEquals("one own wave", 1, waves.getNumOwnWaves());
+    assertSame("get returns the added wave", wave, waves.getOwnWave(0));
+    assertEquals("distance traveled", 60.0, wave.getDistanceTraveled(3), EPSILON);
+
+    waves.update(4, 0.0, 0.0, 0.0, 100.0);
+    assertEquals("wave has not reached the enemy", 1, waves.getNumOwnWaves());
+    assertEquals("no broken waves", 0, waves.getNumBrokenOwnWaves());
+
+    waves.update(5, 0.0, 0.0, 0.0, 100.0);
+    assertEquals("wave has reached the enemy", 0, waves.getNumOwnWaves());
+    assertEquals("one broken wave", 1, waves.getNumBrokenOwnWaves());
+    assertSame("broken wave is the added wave", wave, waves.getBrokenOwnWave(0));
+    assertEquals("break location", 100.0, wave.getBreakY(), EPSILON);
+
+    // broken waves are released on the next update
+    waves.update(6, 0.0, 0.0, 0.0, 100.0);
+    assertEquals("broken waves are released", 0, waves.getNumBrokenOwnWaves());
+  }
+
+  /**
+   * Tests that enemy waves are retired once they have completely passed this robot.
+   */
+  @Test
+  public void testEnemyWaves() {
+    WaveManager waves = new WaveManager(10);
+
+    // this robot is 100 units north of the enemy; wave travels 10 per tick
+    waves.addEnemyWave(0, 0.0, 0.0, 10.0, 0.0);
+    assertEquals("one enemy wave", 1, waves.getNumEnemyWaves());
+
+    waves.update(11, 0.0, 100.0, 0.0, 0.0);
+    assertEquals("wave is still passing this robot", 1, waves.getNumEnemyWaves());
+
+    waves.update(12, 0.0, 100.0, 0.0, 0.0);
+    assertEquals("wave has passed this robot", 0, waves.getNumEnemyWaves());
+    assertEquals("one broken enemy wave", 1, waves.getNumBrokenEnemyWaves());
+  }
+
+  /**
+   * Tests that waves are reused instead of allocated once the pool is exhausted.
+   */
+  @Test
+  public void testPool() {
+    WaveManager waves = new WaveManager(2);
+
+    Wave first = waves.addOwnWave(0, 0.0, 0.0, 20.0, 0.0);
+    Wave second = waves.addEnemyWave(0, 0.0, 0.0, 20.0, 0.0);
+    assertNull("every wave is in use", waves.addOwnWave(0, 0.0, 0.0, 20.0, 0.0));
+
+    // own wave reaches enemy and is released on the following update
+    waves.update(10, 0.0, 1000.0, 0.0, 100.0);
+    waves.update(11, 0.0, 1000.0, 0.0, 100.0);
+
+    Wave third = waves.addOwnWave(11, 5.0, 5.0, 11.0, 1.0);
+    assertSame("released wave is reused", first, third);
+    assertEquals("reused wave is reset", 5.0, third.getX(), EPSILON);
+    assertTrue("reused wave is not real", !third.isReal());
+
+    waves.clear();
+    assertEquals("no own waves after clear", 0, waves.getNumOwnWaves());
+    assertEquals("no enemy waves after clear", 0, waves.getNumEnemyWaves());
+    assertSame("cleared waves are reused", second, waves.addEnemyWave(0, 0.0, 0.0, 1.0, 0.0));
+  }
+
+  /**
+   * Tests getting a wave with an index out of range.
+   */
+  @Test (expected = IndexOutOfBoundsException.class)
+  public void testIndexOutOfBounds() {
+    WaveManager waves = new WaveManager(2);
+    waves.addOwnWave(0, 0.0, 0.0, 20.0, 0.0);
+    waves.getOwnWave(1);
+  }
+}
@@ -0,0 +1,108 @@
+package tkt.test;
+
+import static org.junit.Assert.assertEquals;
+import java.util.Random;
+import org.junit.Test;
+import tkt.util.BoundedQueue;
+
+/**
+ * Tests the WeightedMovingAverage class.
+ *
+ * @author Todd Taomae
+ */
+public class TestWeightedMovingAverage {
+  private static final double EPSILON = 1e-9;
+
+  /**
+   * Tests the constructor of the WeightedMovingAverage class with an illegal argument.
+   */
+  @Test (expected = IllegalArgumentException.class)
+  public void testConstructorIllegalArgument() {
+    new WeightedMovingAverage(0);
+  }
+
+  /**
+   * Tests the average of an empty WeightedMovingAverage.
+   */
+  @Test
+  public void testEmpty() {
+    WeightedMovingAverage wma = new WeightedMovingAverage(5);
+    assertEquals("average of no values is 0", 0.0, wma.getAverage(), 0.0);
+
+    wma.add(4.0);
+    wma.clear();
+    assertEquals("average of cleared values is 0", 0.0, wma.getAverage(), 0.0);
+    assertEquals("size of cleared average is 0", 0, wma.size());
+  }
+
+  /**
+   * Tests the weights of a small WeightedMovingAverage.
+   */
+  @Test
+  public void testWeights() {
+    WeightedMovingAverage wma = new WeightedMovingAverage(3);
+
+    wma.add(3.0);
+    assertEquals("average of one value", 3.0, wma.getAverage(), EPSILON);
+
+    // (2 * 6 + 1 * 3) / 3
+    wma.add(6.0);
+    assertEquals("average of two values", 5.0, wma.getAverage(), EPSILON);
+
+    // (3 * 0 + 2 * 6 + 1 * 3) / 6
+    wma.add(0.0);
+    assertEquals("average of three values", 2.5, wma.getAverage(), EPSILON);
+
+    // 3.0 is dequeued; (3 * 12 + 2 * 0 + 1 * 6) / 6
+    wma.add(12.0);
+    assertEquals("oldest value is dequeued", 7.0, wma.getAverage(), EPSILON);
+  }
+
+  /**
+   * Tests that the WeightedMovingAverage matches the loop which RedShift previously used to
+   * compute the weighted average of a BoundedQueue, for several window sizes.
+   */
+  @Test
+  public void testMatchesLoop() {
+    Random rng = new Random(42);
+    int[] sizes = {1, 2, 7, 50, 100};
+
+    for (int size : sizes) {
+      WeightedMovingAverage wma = new WeightedMovingAverage(size);
+      BoundedQueue<Double> bq = new BoundedQueue<Double>(size);
+
+      for (int i = 0; i < 1000; i++) {
+        // robocode velocities are between -8 and 8
+        double v = rng.nextDouble() * 16.0 - 8.0;
+        wma.add(v);
+        bq.add(v);
+
+        assertEquals("average with window " + size + " after " + (i + 1) + " values",
+            loopAverage(bq), wma.getAverage(), EPSILON);
+      }
+    }
+  }
+
+  /**
+   * Computes the weighted average using a loop over every element.
+   * @param velocities velocities to average
+   * @return the weighted average
+   */
+  private static double loopAverage(BoundedQueue<Double> velocities) {
+    double result = 0.0;
+
+    // weight equal to the number of elements
+    int weight = velocities.size();
+    int totalWeight = 0;
+    for (double v : velocities) {
+      result += weight * v;
+      // decrease weights for older elements
+      totalWeight += weight--;
+    }
+
+    // divide by the sum of weights which is a triangle number
+    result /= (double)totalWeight;
+
+    return result;
+  }
+}
@@ -0,0 +1,118 @@
+package tkt.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import java.util.Random;
+import org.junit.Test;
+
+/**
+ * Tests the WinRateSprt class.
+ *
+ * @author Todd Taomae
+ */
+public class TestWinRateSprt {
+  private static final double EPSILON = 1e-9;
+
+  /**
+   * Tests the constructor of the WinRateSprt class with rates in the wrong order.
+   */
+  @Test (expected = IllegalArgumentException.class)
+  public void testConstructorIllegalRates() {
+    new WinRateSprt(0.95, 0.8, 0.05, 0.05);
+  }
+
+  /**
+   * Tests the constructor of the WinRateSprt class with an illegal error probability.
+   */
+  @Test (expected = IllegalArgumentException.class)
+  public void testConstructorIllegalAlpha() {
+    new WinRateSprt(0.8, 0.95, 0.0, 0.05);
+  }
+
+  /**
+   * Tests the add method with a negative number of rounds.
+   */
+  @Test (expected = IllegalArgumentException.class)
+  public void testAddIllegalArgument() {
+    new WinRateSprt(0.8, 0.95, 0.05, 0.05).add(-1, 0);
+  }
+
+  /**
+   * Tests that a robot which wins every round passes after the number of rounds given by the
+   * log-likelihood ratio, and that a batch of rounds is the same as adding them one at a time.
+   */
+  @Test
+  public void testPass() {
+    WinRateSprt sprt = new WinRateSprt(0.8, 0.95, 0.05, 0.05);
+    // each win adds log(0.95 / 0.8); the test passes at log(0.95 / 0.05)
+    int rounds = (int)Math.ceil(Math.log(0.95 / 0.05) / Math.log(0.95 / 0.8));
+    for (int i = 0; i < rounds - 1; i++) {
+      sprt.addWin();
+      assertEquals("not enough wins", WinRateSprt.UNDECIDED, sprt.getDecision());
+    }
+    sprt.addWin();
+    assertEquals("enough wins", WinRateSprt.PASS, sprt.getDecision());
+    assertEquals("number of rounds", rounds, sprt.getNumRounds());
+
+    WinRateSprt batch = new WinRateSprt(0.8, 0.95, 0.05, 0.05);
+    batch.add(rounds, 0);
+    assertEquals("same as one at a time", sprt.getLogLikelihoodRatio(),
+        batch.getLogLikelihoodRatio(), EPSILON);
+    assertEquals("batch passes", WinRateSprt.PASS, batch.getDecision());
+  }
+
+  /**
+   * Tests that a few losses fail the test quickly.
+   */
+  @Test
+  public void testFail() {
+    WinRateSprt sprt = new WinRateSprt(0.8, 0.95, 0.05, 0.05);
+    sprt.addLoss();
+    assertEquals("one loss", WinRateSprt.UNDECIDED, sprt.getDecision());
+    sprt.addLoss();
+    sprt.addLoss();
+    assertEquals("three losses", WinRateSprt.FAIL, sprt.getDecision());
+    assertEquals("no wins", 0, sprt.getNumWins());
+  }
+
+  /**
+   * Tests that simulated robots with a high win rate usually pass and robots with a low win rate
+   * usually fail, within the error probabilities, and that a robot which almost always wins
+   * uses far fewer rounds than a fixed-length test on average.
+   */
+  @Test
+  public void testErrorRates() {
+    Random rng = new Random(0);
+    int trials = 2000;
+    int falsePasses = 0;
+    int falseFails = 0;
+    int totalRounds = 0;
+    for (int i = 0; i < trials; i++) {
+      falsePasses += simulate(rng, 0.8).getDecision() == WinRateSprt.PASS ? 1 : 0;
+      falseFails += simulate(rng, 0.95).getDecision() == WinRateSprt.FAIL ? 1 : 0;
+      totalRounds += simulate(rng, 0.99).getNumRounds();
+    }
+    assertTrue("few false passes: " + falsePasses, falsePasses < trials * 0.05);
+    assertTrue("few false fails: " + falseFails, falseFails < trials * 0.05);
+    assertTrue("far fewer rounds than 50", totalRounds < trials * 25);
+  }
+
+  /**
+   * Simulates a robot with the specified win rate until the test decides.
+   * @param rng random number generator
+   * @param winRate win rate of the robot
+   * @return the test after it has decided
+   */
+  private static WinRateSprt simulate(Random rng, double winRate) {
+    WinRateSprt sprt = new WinRateSprt(0.8, 0.95, 0.05, 0.05);
+    while (sprt.getDecision() == WinRateSprt.UNDECIDED) {
+      if (rng.nextDouble() < winRate) {
+        sprt.addWin();
+      }
+      else {
+        sprt.addLoss();
+      }
+    }
+    return sprt;
+  }
+}
@@ -0,0 +1,203 @@
+package tkt.test;
+
+import java.io.File;
+import java.io.PrintStream;
+import robocode.BattleResults;
+import robocode.control.BattleSpecification;
+import robocode.control.BattlefieldSpecification;
+import robocode.control.RobocodeEngine;
+import robocode.control.RobotSpecification;
+import robocode.control.events.BattleAdaptor;
+import robocode.control.events.BattleCompletedEvent;
+import robocode.control.events.BattleErrorEvent;
+
+/**
+ * Plays a robot against a list of opponents without a user interface, stopping each match as
+ * soon as a WinRateSprt decides whether the robot wins often enough. Each match is played as a
+ * sequence of short battles, and the test is updated after each battle, so a match against an
+ * opponent which is clearly beaten, or clearly not, takes far fewer rounds than the maximum.
+ *
+ * Robots keep what they learn within a battle but not between battles, except through their data
+ * files, so the battles should be long enough for the robot to learn. Run with:
+ * java tkt.test.TournamentRunner robocodeHome [testRobot [enemyRobot ...]]
+ *
+ * @author Todd Taomae
+ */
+public class TournamentRunner extends BattleAdaptor {
+  /** Win rate which should fail. */
+  public static final double FAIL_RATE = 0.8;
+  /** Win rate which should pass. */
+  public static final double PASS_RATE = 0.95;
+  /** Probability of passing a robot whose win rate is the fail rate. */
+  public static final double ALPHA = 0.05;
+  /** Probability of failing a robot whose win rate is the pass rate. */
+  public static final double BETA = 0.05;
+  /** Number of rounds in each battle. */
+  public static final int BATCH_SIZE = 5;
+  /** Maximum number of rounds in a match, which is the number of rounds in TestBattleResults. */
+  public static final int MAX_ROUNDS = 50;
+
+  private static final String DEFAULT_TEST_ROBOT = "tkt.RedShift";
+  private static final String[] DEFAULT_ENEMY_ROBOTS = {"sample.Corners", "sample.Crazy",
+    "sample.Fire", "sample.RamFire", "sample.SittingDuck", "sample.SpinBot", "sample.Tracker",
+    "sample.Walls"};
+
+  private final RobocodeEngine engine;
+  private final String testRobot;
+  private final int batchSize;
+  private final int maxRounds;
+  private final BattlefieldSpecification battlefield = new BattlefieldSpecification(800, 600);
+
+  /** Results of the test robot in the most recent battle, or null if it did not finish. */
+  private BattleResults results;
+  private String error;
+
+  /**
+   * Constructs a new TournamentRunner.
+   * @param engine engine which plays the battles
+   * @param testRobot name of the robot being tested
+   * @param batchSize number of rounds in each battle
+   * @param maxRounds maximum number of rounds in a match
+   * @throws IllegalArgumentException if the batch size is not greater than 0 or is greater than
+   *           the maximum number of rounds
+   */
+  public TournamentRunner(RobocodeEngine engine, String testRobot, int batchSize, int maxRounds)
+      throws IllegalArgumentException {
+    if (batchSize <= 0 || batchSize > maxRounds) {
+      throw new IllegalArgumentException("batchSize " + batchSize + ", maxRounds " + maxRounds
+          + ": batchSize must be greater than 0 and at most maxRounds.");
+    }
+    this.engine = engine;
+    this.testRobot = testRobot;
+    this.batchSize = batchSize;
+    this.maxRounds = maxRounds;
+    engine.addBattleListener(this);
+  }
+
+  /**
+   * Plays battles against an opponent until the test decides or the maximum number of rounds
+   * has been played. Every round of each battle is added to the test.
+   * @param enemyRobot name of the opponent
+   * @param sprt test which is updated with the results of each battle
+   * @return the decision of the test, which is UNDECIDED if the maximum number of rounds was
+   *         played without a decision
+   * @throws IllegalStateException if a battle cannot be played
+   */
+  public int play(String enemyRobot, WinRateSprt sprt) throws IllegalStateException {
+    RobotSpecification[] robots =
+        this.engine.getLocalRepository(this.testRobot + "," + enemyRobot);
+    if (robots == null || robots.length != 2) {
+      throw new IllegalStateException("Could not find " + this.testRobot + " and " + enemyRobot
+          + ".");
+    }
+
+    while (sprt.getDecision() == WinRateSprt.UNDECIDED && sprt.getNumRounds() < this.maxRounds) {
+      int rounds = Math.min(this.batchSize, this.maxRounds - sprt.getNumRounds());
+      this.results = null;
+      this.error = null;
+      this.engine.runBattle(new BattleSpecification(rounds, this.battlefield, robots), true);
+      if (this.results == null) {
+        throw new IllegalStateException("Battle against " + enemyRobot + " did not finish: "
+            + this.error);
+      }
+      int wins = this.results.getFirsts();
+      sprt.add(wins, rounds - wins);
+    }
+    return sprt.getDecision();
+  }
+
+  /**
+   * Keeps the results of the test robot when a battle is completed.
+   * @param event details about the completed battle
+   */
+  @Override
+  public void onBattleCompleted(BattleCompletedEvent event) {
+    for (BattleResults robotResults : event.getIndexedResults()) {
+      if (robotResults.getTeamLeaderName().startsWith(this.testRobot)) {
+        this.results = robotResults;
+      }
+    }
+  }
+
+  /**
+   * Keeps the error message when a battle cannot be played.
+   * @param event details about the error
+   */
+  @Override
+  public void onBattleError(BattleErrorEvent event) {
+    this.error = event.getError();
+  }
+
+  /**
+   * Returns the name of a decision.
+   * @param decision PASS, FAIL, or UNDECIDED
+   * @return the name of the decision
+   */
+  private static String getDecisionName(int decision) {
+    switch (decision) {
+      case WinRateSprt.PASS:
+        return "pass";
+      case WinRateSprt.FAIL:
+        return "fail";
+      default:
+        return "undecided";
+    }
+  }
+
+  /**
+   * Plays a match against every opponent and prints the decision and the number of rounds
+   * played for each, and the number of rounds saved compared to always playing the maximum.
+   * @param robocodeHome directory where robocode is installed
+   * @param testRobot name of the robot being tested
+   * @param enemyRobots names of the opponents
+   * @param out stream to print to
+   * @return true if every match passed
+   */
+  public static boolean runTournament(File robocodeHome, String testRobot, String[] enemyRobots,
+      PrintStream out) {
+    RobocodeEngine.setLogMessagesEnabled(false);
+    RobocodeEngine engine = new RobocodeEngine(robocodeHome);
+    engine.setVisible(false);
+    boolean passed = true;
+    int totalRounds = 0;
+    try {
+      TournamentRunner runner = new TournamentRunner(engine, testRobot, BATCH_SIZE, MAX_ROUNDS);
+      for (String enemyRobot : enemyRobots) {
+        WinRateSprt sprt = new WinRateSprt(FAIL_RATE, PASS_RATE, ALPHA, BETA);
+        int decision = runner.play(enemyRobot, sprt);
+        passed &= decision == WinRateSprt.PASS;
+        totalRounds += sprt.getNumRounds();
+        out.printf("%-20s %-10s won %2d of %2d rounds%n", enemyRobot,
+            getDecisionName(decision), sprt.getNumWins(), sprt.getNumRounds());
+      }
+    }
+    finally {
+      engine.close();
+    }
+    int maxTotalRounds = MAX_ROUNDS * enemyRobots.length;
+    out.printf("played %d of %d rounds, saved %d%n", totalRounds, maxTotalRounds,
+        maxTotalRounds - totalRounds);
+    return passed;
+  }
+
+  /**
+   * Runs a tournament. The first argument is the directory where robocode is installed, the
+   * second is the robot being tested, and the rest are the opponents. By default, RedShift is
+   * tested against the sample robots. Exits with status 1 if any match did not pass.
+   * @param args command line arguments
+   */
+  public static void main(String[] args) {
+    if (args.length < 1) {
+      System.err.println("usage: TournamentRunner robocodeHome [testRobot [enemyRobot ...]]");
+      System.exit(2);
+    }
+    String testRobot = args.length > 1 ? args[1] : DEFAULT_TEST_ROBOT;
+    String[] enemyRobots = DEFAULT_ENEMY_ROBOTS;
+    if (args.length > 2) {
+      enemyRobots = new String[args.length - 2];
+      System.arraycopy(args, 2, enemyRobots, 0, enemyRobots.length);
+    }
+    boolean passed = runTournament(new File(args[0]), testRobot, enemyRobots, System.out);
+    System.exit(passed ? 0 : 1);
+  }
+}
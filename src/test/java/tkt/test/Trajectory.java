@@ -0,0 +1,191 @@
+package tkt.test;
+
+import java.util.ArrayList;
+import java.util.List;
+import robocode.control.snapshot.RobotState;
+
+/**
+ * The positions of a shooter and a target on every tick of one round, and the heading and
+ * velocity of the target, kept in primitive arrays. A trajectory can be read from a replay file
+ * or built one tick at a time.
+ *
+ * @author Todd Taomae
+ */
+public class Trajectory {
+  private int length;
+  private double[] shooterX;
+  private double[] shooterY;
+  private double[] targetX;
+  private double[] targetY;
+  private double[] targetHeading;
+  private double[] targetVelocity;
+
+  /**
+   * Constructs a new, empty Trajectory.
+   */
+  public Trajectory() {
+    this.allocate(1024);
+  }
+
+  /**
+   * Reads the trajectories of a 1-vs-1 battle from a replay, one for each round. A round ends
+   * when either robot dies.
+   * @param reader replay to read, which is rewound first
+   * @param shooterName name, or the start of the name, of the robot which shoots
+   * @return the trajectory of each round
+   * @throws IllegalArgumentException if the replay is not of a 1-vs-1 battle or the shooter is not
+   *           in it
+   */
+  public static Trajectory[] read(ReplayReader reader, String shooterName)
+      throws IllegalArgumentException {
+    if (reader.getNumRobots() != 2) {
+      throw new IllegalArgumentException("numRobots " + reader.getNumRobots()
+          + ": must be 2.");
+    }
+    int shooter;
+    if (reader.getRobotName(0).startsWith(shooterName)) {
+      shooter = 0;
+    }
+    else if (reader.getRobotName(1).startsWith(shooterName)) {
+      shooter = 1;
+    }
+    else {
+      throw new IllegalArgumentException("shooterName " + shooterName + ": not in the replay.");
+    }
+    int target = 1 - shooter;
+    int dead = RobotState.DEAD.ordinal();
+
+    List<Trajectory> rounds = new ArrayList<Trajectory>();
+    Trajectory current = null;
+    int round = -1;
+    boolean ended = false;
+    reader.rewind();
+    while (reader.next()) {
+      if (reader.getRound() != round) {
+        round = reader.getRound();
+        current = new Trajectory();
+        rounds.add(current);
+        ended = false;
+      }
+      ended |= reader.getRobotState(shooter) == dead || reader.getRobotState(target) == dead;
+      if (!ended) {
+        current.add(reader.getRobotX(shooter), reader.getRobotY(shooter),
+            reader.getRobotX(target), reader.getRobotY(target),
+            reader.getRobotBodyHeading(target), reader.getRobotVelocity(target));
+      }
+    }
+    return rounds.toArray(new Trajectory[rounds.size()]);
+  }
+
+  /**
+   * Adds the next tick.
+   * @param shooterX x-coordinate of the shooter
+   * @param shooterY y-coordinate of the shooter
+   * @param targetX x-coordinate of the target
+   * @param targetY y-coordinate of the target
+   * @param targetHeading heading of the target in radians
+   * @param targetVelocity velocity of the target
+   */
+  public void add(double shooterX, double shooterY, double targetX, double targetY,
+      double targetHeading, double targetVelocity) {
+    if (this.length == this.shooterX.length) {
+      this.allocate(this.length * 2);
+    }
+    this.shooterX[this.length] = shooterX;
+    this.shooterY[this.length] = shooterY;
+    this.targetX[this.length] = targetX;
+    this.targetY[this.length] = targetY;
+    this.targetHeading[this.length] = targetHeading;
+    this.targetVelocity[this.length] = targetVelocity;
+    this.length++;
+  }
+
+  /**
+   * Replaces the arrays with arrays of the specified capacity, keeping every tick.
+   * @param capacity new capacity
+   */
+  private void allocate(int capacity) {
+    this.shooterX = copy(this.shooterX, capacity);
+    this.shooterY = copy(this.shooterY, capacity);
+    this.targetX = copy(this.targetX, capacity);
+    this.targetY = copy(this.targetY, capacity);
+    this.targetHeading = copy(this.targetHeading, capacity);
+    this.targetVelocity = copy(this.targetVelocity, capacity);
+  }
+
+  /**
+   * Returns a copy of the ticks of an array in a new array of the specified capacity.
+   * @param array array to copy, which may be null
+   * @param capacity capacity of the new array
+   * @return the new array
+   */
+  private double[] copy(double[] array, int capacity) {
+    double[] result = new double[capacity];
+    if (array != null) {
+      System.arraycopy(array, 0, result, 0, this.length);
+    }
+    return result;
+  }
+
+  /**
+   * Returns the number of ticks.
+   * @return the number of ticks
+   */
+  public int getLength() {
+    return this.length;
+  }
+
+  /**
+   * Returns the x-coordinate of the shooter on a tick.
+   * @param tick tick
+   * @return the x-coordinate of the shooter
+   */
+  public double getShooterX(int tick) {
+    return this.shooterX[tick];
+  }
+
+  /**
+   * Returns the y-coordinate of the shooter on a tick.
+   * @param tick tick
+   * @return the y-coordinate of the shooter
+   */
+  public double getShooterY(int tick) {
+    return this.shooterY[tick];
+  }
+
+  /**
+   * Returns the x-coordinate of the target on a tick.
+   * @param tick tick
+   * @return the x-coordinate of the target
+   */
+  public double getTargetX(int tick) {
+    return this.targetX[tick];
+  }
+
+  /**
+   * Returns the y-coordinate of the target on a tick.
+   * @param tick tick
+   * @return the y-coordinate of the target
+   */
+  public double getTargetY(int tick) {
+    return this.targetY[tick];
+  }
+
+  /**
+   * Returns the heading of the target on a tick.
+   * @param tick tick
+   * @return the heading of the target in radians
+   */
+  public double getTargetHeading(int tick) {
+    return this.targetHeading[tick];
+  }
+
+  /**
+   * Returns the velocity of the target on a tick.
+   * @param tick tick
+   * @return the velocity of the target
+   */
+  public double getTargetVelocity(int tick) {
+    return this.targetVelocity[tick];
+  }
+}
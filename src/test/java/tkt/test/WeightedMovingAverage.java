@@ -0,0 +1,127 @@
+package tkt.test;
+
+/**
+ * A linearly weighted moving average of the most recent values. The most recent value has a
+ * weight equal to the number of values in the average, and each older value has a weight one
+ * less than the value after it, so the oldest value has a weight of 1.
+ *
+ * The weighted sum is updated incrementally, so adding a value and getting the average both
+ * take constant time regardless of the size of the window.
+ *
+ * RedShift averages velocities with a VelocityWindowSelector; this class is the straightforward
+ * average which the tests check it against.
+ *
+ * @author Todd Taomae
+ */
+public class WeightedMovingAverage {
+  private final DoubleBoundedQueue values;
+  /** Sum of all values in the window. */
+  private double sum;
+  /** Sum of each value in the window multiplied by its weight. */
+  private double weightedSum;
+  /** Number of values added since the sums were last recomputed. */
+  private int addsSinceResync;
+
+  /**
+   * Constructs a new WeightedMovingAverage which averages at most the specified number of values.
+   * @param size maximum number of values in the average
+   * @throws IllegalArgumentException if the size is less than or equal to zero
+   */
+  public WeightedMovingAverage(int size) throws IllegalArgumentException {
+    this.values = new DoubleBoundedQueue(size);
+  }
+
+  /**
+   * Adds a value to this WeightedMovingAverage. If the window is full, the oldest value is
+   * removed from the average.
+   * @param value value to add
+   */
+  public void add(double value) {
+    int n = this.values.size();
+
+    if (n < this.values.maxSize()) {
+      // every existing value keeps its weight; the new value has a weight of n + 1
+      this.weightedSum += (n + 1) * value;
+      this.sum += value;
+    }
+    else {
+      // every existing value loses one weight and the oldest value drops to a weight of 0
+      double oldest = this.values.get(n - 1);
+      this.weightedSum += n * value - this.sum;
+      this.sum += value - oldest;
+    }
+    this.values.add(value);
+
+    // recompute the sums periodically so that rounding errors do not accumulate
+    this.addsSinceResync++;
+    if (this.addsSinceResync >= this.values.maxSize()) {
+      this.resync();
+    }
+  }
+
+  /**
+   * Recomputes the sums from the values currently in the window.
+   */
+  private void resync() {
+    this.sum = 0.0;
+    this.weightedSum = 0.0;
+
+    int weight = this.values.size();
+    for (int i = 0; i < this.values.size(); i++) {
+      double v = this.values.get(i);
+      this.sum += v;
+      this.weightedSum += weight-- * v;
+    }
+    this.addsSinceResync = 0;
+  }
+
+  /**
+   * Removes all values from this WeightedMovingAverage.
+   */
+  public void clear() {
+    this.values.clear();
+    this.sum = 0.0;
+    this.weightedSum = 0.0;
+    this.addsSinceResync = 0;
+  }
+
+  /**
+   * Returns the weighted average of the values in the window, or 0.0 if no values have been added.
+   * @return the weighted average of the values in the window
+   */
+  public double getAverage() {
+    int n = this.values.size();
+    if (n == 0) {
+      return 0.0;
+    }
+
+    // the sum of the weights is a triangle number
+    return this.weightedSum / (n * (n + 1) / 2.0);
+  }
+
+  /**
+   * Returns the number of values in the average.
+   * @return the number of values in the average
+   */
+  public int size() {
+    return this.values.size();
+  }
+
+  /**
+   * Returns the maximum number of values in the average.
+   * @return the maximum number of values in the average
+   */
+  public int maxSize() {
+    return this.values.maxSize();
+  }
+
+  /**
+   * Returns the value at the specified index, where index 0 is the most recently added value.
+   * @param index index of the value to return
+   * @return the value at the specified index
+   * @throws IndexOutOfBoundsException if the index is out of range (index < 0 || index >= size())
+   */
+  public double get(int index) throws IndexOutOfBoundsException {
+    return this.values.get(index);
+  }
+}
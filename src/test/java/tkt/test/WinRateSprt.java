@@ -0,0 +1,148 @@
+package tkt.test;
+
+/**
+ * A sequential probability ratio test of the rate at which a robot wins rounds. Rounds are added
+ * one at a time or in batches, and as soon as the results are strong enough evidence that the
+ * win rate is at least the pass rate, or at most the fail rate, the test decides. Win rates
+ * between the fail rate and the pass rate may be decided either way.
+ *
+ * Alpha is the probability of passing a robot whose win rate is the fail rate, and beta is the
+ * probability of failing a robot whose win rate is the pass rate. On average, the test needs far
+ * fewer rounds than a fixed number of rounds with the same error probabilities.
+ *
+ * @author Todd Taomae
+ */
+public class WinRateSprt {
+  /** The results are not yet strong enough to decide. */
+  public static final int UNDECIDED = 0;
+  /** The win rate is at least the pass rate. */
+  public static final int PASS = 1;
+  /** The win rate is at most the fail rate. */
+  public static final int FAIL = 2;
+
+  private final double failRate;
+  private final double passRate;
+  /** Change in the log-likelihood ratio for each win. */
+  private final double winWeight;
+  /** Change in the log-likelihood ratio for each loss. */
+  private final double lossWeight;
+  /** Log-likelihood ratio at which the test passes. */
+  private final double passBound;
+  /** Log-likelihood ratio at which the test fails. */
+  private final double failBound;
+
+  private double logLikelihoodRatio = 0.0;
+  private int numWins = 0;
+  private int numLosses = 0;
+
+  /**
+   * Constructs a new WinRateSprt.
+   * @param failRate win rate which should fail
+   * @param passRate win rate which should pass
+   * @param alpha probability of passing when the win rate is the fail rate
+   * @param beta probability of failing when the win rate is the pass rate
+   * @throws IllegalArgumentException if the rates are not between 0 and 1, the fail rate is not
+   *           less than the pass rate, or alpha or beta is not between 0 and 1
+   */
+  public WinRateSprt(double failRate, double passRate, double alpha, double beta)
+      throws IllegalArgumentException {
+    if (failRate <= 0.0 || passRate >= 1.0 || failRate >= passRate) {
+      throw new IllegalArgumentException("failRate " + failRate + ", passRate " + passRate
+          + ": must be between 0 and 1, and failRate must be less than passRate.");
+    }
+    if (alpha <= 0.0 || alpha >= 1.0 || beta <= 0.0 || beta >= 1.0) {
+      throw new IllegalArgumentException("alpha " + alpha + ", beta " + beta
+          + ": must be between 0 and 1.");
+    }
+    this.failRate = failRate;
+    this.passRate = passRate;
+    this.winWeight = Math.log(passRate / failRate);
+    this.lossWeight = Math.log((1.0 - passRate) / (1.0 - failRate));
+    this.passBound = Math.log((1.0 - beta) / alpha);
+    this.failBound = Math.log(beta / (1.0 - alpha));
+  }
+
+  /**
+   * Adds a round which the robot won.
+   */
+  public void addWin() {
+    this.add(1, 0);
+  }
+
+  /**
+   * Adds a round which the robot lost.
+   */
+  public void addLoss() {
+    this.add(0, 1);
+  }
+
+  /**
+   * Adds a batch of rounds.
+   * @param wins number of rounds which the robot won
+   * @param losses number of rounds which the robot lost
+   * @throws IllegalArgumentException if either number is negative
+   */
+  public void add(int wins, int losses) throws IllegalArgumentException {
+    if (wins < 0 || losses < 0) {
+      throw new IllegalArgumentException("wins " + wins + ", losses " + losses
+          + ": must not be negative.");
+    }
+    this.numWins += wins;
+    this.numLosses += losses;
+    this.logLikelihoodRatio += wins * this.winWeight + losses * this.lossWeight;
+  }
+
+  /**
+   * Returns the decision of the test: PASS, FAIL, or UNDECIDED.
+   * @return the decision of the test
+   */
+  public int getDecision() {
+    if (this.logLikelihoodRatio >= this.passBound) {
+      return PASS;
+    }
+    if (this.logLikelihoodRatio <= this.failBound) {
+      return FAIL;
+    }
+    return UNDECIDED;
+  }
+
+  /**
+   * Returns the log-likelihood ratio of the pass rate to the fail rate.
+   * @return the log-likelihood ratio
+   */
+  public double getLogLikelihoodRatio() {
+    return this.logLikelihoodRatio;
+  }
+
+  /**
+   * Returns the number of rounds which the robot won.
+   * @return the number of wins
+   */
+  public int getNumWins() {
+    return this.numWins;
+  }
+
+  /**
+   * Returns the number of rounds which have been added.
+   * @return the number of rounds
+   */
+  public int getNumRounds() {
+    return this.numWins + this.numLosses;
+  }
+
+  /**
+   * Returns the win rate which should fail.
+   * @return the fail rate
+   */
+  public double getFailRate() {
+    return this.failRate;
+  }
+
+  /**
+   * Returns the win rate which should pass.
+   * @return the pass rate
+   */
+  public double getPassRate() {
+    return this.passRate;
+  }
+}